@@ -0,0 +1,116 @@
+package com.codeless.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Background execution for learning-event listeners and scheduled maintenance jobs.
+ * Listeners run on a dedicated pool so streak/achievement bookkeeping stays off the request
+ * that produced the event while the pool keeps up; once its queue is full the publishing
+ * thread runs the listener itself, trading request latency for not losing events.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    public static final String LEARNING_EVENT_EXECUTOR = "learningEventExecutor";
+    public static final String ADMIN_SEARCH_EXECUTOR = "adminSearchExecutor";
+    public static final String BULK_IMPORT_EXECUTOR = "bulkImportExecutor";
+    public static final String QUIZ_EXPIRY_EXECUTOR = "quizExpiryExecutor";
+    public static final String ADMIN_FEED_EXECUTOR = "adminFeedExecutor";
+
+    @Bean(name = LEARNING_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor learningEventExecutor(
+            @Value("${app.learning-events.executor.core-size:2}") int coreSize,
+            @Value("${app.learning-events.executor.max-size:4}") int maxSize,
+            @Value("${app.learning-events.executor.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("learning-events-");
+        // Under sustained overload fall back to the publishing thread rather than dropping events
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the per-entity sub-queries of the admin search side by side
+     */
+    @Bean(name = ADMIN_SEARCH_EXECUTOR)
+    public ThreadPoolTaskExecutor adminSearchExecutor(
+            @Value("${app.admin-search.executor.max-size:8}") int maxSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("admin-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Admin bulk imports: one at a time, a few queued, further submissions rejected
+     */
+    @Bean(name = BULK_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor bulkImportExecutor(
+            @Value("${app.bulk-import.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Auto-submits expired quiz attempts, so a deadline shared by a whole class never blocks the timer
+     */
+    @Bean(name = QUIZ_EXPIRY_EXECUTOR)
+    public ThreadPoolTaskExecutor quizExpiryExecutor(
+            @Value("${app.quiz-timer.executor.max-size:4}") int maxSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("quiz-expiry-");
+        // Beyond the queue the timer thread grades attempts itself, slowing ticks instead of losing them
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fans admin live-feed events out to connected dashboards. A single thread keeps every
+     * subscriber's events in order; when it falls behind the oldest pending events are dropped
+     * (clients catch up from the replay buffer on reconnect).
+     */
+    @Bean(name = ADMIN_FEED_EXECUTOR)
+    public ThreadPoolTaskExecutor adminFeedExecutor(
+            @Value("${app.admin-feed.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("admin-feed-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
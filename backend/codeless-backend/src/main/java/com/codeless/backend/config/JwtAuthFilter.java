@@ -25,6 +25,11 @@ import org.slf4j.LoggerFactory;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+    /**
+     * Request attribute holding the authenticated user's id, so handlers that only need the id
+     * do not look the user up by email again
+     */
+    public static final String USER_ID_ATTRIBUTE = "codeless.userId";
     private final JwtService jwtService;
     private final UserRepository userRepository;
 
@@ -58,6 +63,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                         auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(auth);
+                        request.setAttribute(USER_ID_ATTRIBUTE, user.getId());
                         log.debug("Authenticated user {} with roles: {}", email, authorities);
                     } else { log.debug("User not found or disabled for email: {}", email); }
                 }
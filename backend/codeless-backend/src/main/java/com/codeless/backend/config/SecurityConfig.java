@@ -47,6 +47,7 @@ public class SecurityConfig {
                 corsConfig.setAllowedOrigins(java.util.Arrays.asList(allowedOrigins.split(",")));
                 corsConfig.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
                 corsConfig.setAllowedHeaders(java.util.List.of("*"));
+                corsConfig.setExposedHeaders(java.util.List.of("X-Next-Cursor"));
                 corsConfig.setAllowCredentials(true);
                 corsConfig.setMaxAge(3600L);
                 return corsConfig;
@@ -36,6 +36,9 @@ public class CourseProgress {
     @Column(name = "completion_percentage", nullable = false)
     private Integer completionPercentage = 0;
 
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt = OffsetDateTime.now();
 }
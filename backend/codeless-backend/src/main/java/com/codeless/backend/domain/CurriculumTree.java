@@ -0,0 +1,42 @@
+package com.codeless.backend.domain;
+
+import java.util.List;
+
+/**
+ * Immutable section/lesson tree of a course, shared by every student of the course.
+ * Built from the CourseSection/Lesson entities and cached per course; it carries no
+ * student-specific state.
+ */
+public record CurriculumTree(
+        Long courseId,
+        List<SectionNode> sections,
+        List<Long> lessonIds
+) {
+    public static CurriculumTree empty(Long courseId) {
+        return new CurriculumTree(courseId, List.of(), List.of());
+    }
+
+    public int lessonCount() {
+        return lessonIds.size();
+    }
+
+    public record SectionNode(
+            Long id,
+            String title,
+            String description,
+            Integer sectionOrder,
+            List<LessonNode> lessons
+    ) {}
+
+    public record LessonNode(
+            Long id,
+            Long sectionId,
+            String title,
+            String description,
+            String lessonType,
+            String contentUrl,
+            Integer durationMinutes,
+            Integer lessonOrder,
+            Boolean isPreview
+    ) {}
+}
@@ -40,6 +40,9 @@ public class Quiz {
     @Column(name = "max_attempts")
     private Integer maxAttempts; // NULL = unlimited
 
+    @Column(name = "questions_per_attempt")
+    private Integer questionsPerAttempt; // NULL = all questions
+
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("questionOrder ASC")
     private List<QuizQuestion> questions = new ArrayList<>();
@@ -2,7 +2,10 @@ package com.codeless.backend.domain;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import java.util.ArrayList;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Arrays;
 import java.util.List;
 
 @Entity
@@ -25,10 +28,11 @@ public class QuizUserAnswer {
     @JoinColumn(name = "selected_option_id")
     private QuizAnswerOption selectedOption; // For TRUE_FALSE (single selection)
 
-    // For MULTIPLE_CHOICE: store comma-separated IDs
-    // Example: "1,3,5" for options 1, 3, and 5
-    @Column(name = "selected_option_ids", columnDefinition = "TEXT")
-    private String selectedOptionIds;
+    // For MULTIPLE_CHOICE: selected option IDs as a native bigint[]
+    // Example: {1,3,5} for options 1, 3, and 5
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "selected_option_ids", columnDefinition = "bigint[]")
+    private Long[] selectedOptionIds;
 
     @Column(name = "text_answer", columnDefinition = "TEXT")
     private String textAnswer; // For FILL_BLANK
@@ -41,22 +45,11 @@ public class QuizUserAnswer {
 
     // Helper methods for multiple choice
     public List<Long> getSelectedOptionIdsList() {
-        if (selectedOptionIds == null || selectedOptionIds.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        List<Long> ids = new ArrayList<>();
-        for (String id : selectedOptionIds.split(",")) {
-            ids.add(Long.parseLong(id.trim()));
-        }
-        return ids;
+        return selectedOptionIds != null ? Arrays.asList(selectedOptionIds) : List.of();
     }
 
     public void setSelectedOptionIdsList(List<Long> ids) {
-        if (ids == null || ids.isEmpty()) {
-            this.selectedOptionIds = null;
-        } else {
-            this.selectedOptionIds = String.join(",", ids.stream().map(String::valueOf).toArray(String[]::new));
-        }
+        this.selectedOptionIds = ids == null || ids.isEmpty() ? null : ids.toArray(Long[]::new);
     }
 }
 
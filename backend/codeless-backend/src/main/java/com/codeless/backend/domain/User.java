@@ -31,6 +31,10 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = true;
 
+    // IANA zone id, used for day boundaries in learning streaks
+    @Column(nullable = false, length = 64)
+    private String timezone = "UTC";
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
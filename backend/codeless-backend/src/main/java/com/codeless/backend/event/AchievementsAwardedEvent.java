@@ -0,0 +1,12 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by AchievementService once newly earned achievements for a user have been stored
+ */
+public record AchievementsAwardedEvent(
+        Long userId,
+        int count,
+        OffsetDateTime occurredAt
+) {}
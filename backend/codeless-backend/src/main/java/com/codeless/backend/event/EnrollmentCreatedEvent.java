@@ -0,0 +1,16 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published when a user is enrolled in a course, either directly or by a paid order.
+ * Carries display names so that listeners (e.g. the admin live feed) need no lookups.
+ */
+public record EnrollmentCreatedEvent(
+        Long enrollmentId,
+        Long userId,
+        Long courseId,
+        String userName,
+        String courseTitle,
+        OffsetDateTime occurredAt
+) {}
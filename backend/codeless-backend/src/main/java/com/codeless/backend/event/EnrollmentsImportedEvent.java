@@ -0,0 +1,15 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Published once per committed chunk of a bulk enrollment import, instead of one
+ * EnrollmentCreatedEvent per row. Lists the users that gained at least one enrollment in the chunk.
+ */
+public record EnrollmentsImportedEvent(
+        String jobId,
+        List<Long> userIds,
+        int enrollments,
+        OffsetDateTime occurredAt
+) {}
@@ -0,0 +1,23 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by CurriculumService when a student marks a lesson as complete.
+ * firstCompletion is false when the lesson had already been completed before;
+ * courseCompleted is true only for the completion that first takes the course to 100%; finishing
+ * it again after new lessons were added does not count.
+ * firstVisit is true when this request created the student's progress row for the lesson;
+ * lessonTimeSpentSeconds is the accumulated time on the lesson including this request.
+ */
+public record LessonCompletedEvent(
+        Long userId,
+        Long courseId,
+        Long lessonId,
+        boolean firstCompletion,
+        boolean courseCompleted,
+        boolean firstVisit,
+        Integer timeSpentSeconds,
+        Integer lessonTimeSpentSeconds,
+        OffsetDateTime occurredAt
+) {}
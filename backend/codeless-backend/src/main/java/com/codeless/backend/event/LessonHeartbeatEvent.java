@@ -0,0 +1,17 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by CurriculumService for periodic "still watching/reading" pings from the lesson player.
+ * firstVisit is true when this ping created the student's progress row for the lesson.
+ */
+public record LessonHeartbeatEvent(
+        Long userId,
+        Long courseId,
+        Long lessonId,
+        boolean firstVisit,
+        Integer positionSeconds,
+        Integer timeSpentSeconds,
+        OffsetDateTime occurredAt
+) {}
@@ -0,0 +1,18 @@
+package com.codeless.backend.event;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Published by CheckoutService when an order is created and by OrderService when its status changes
+ */
+public record OrderActivityEvent(
+        Long orderId,
+        Long userId,
+        String userName,
+        String userEmail,
+        BigDecimal total,
+        String status,
+        OffsetDateTime createdAt,
+        OffsetDateTime occurredAt
+) {}
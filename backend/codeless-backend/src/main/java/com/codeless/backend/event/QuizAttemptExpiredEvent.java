@@ -0,0 +1,12 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published when an open attempt of a timed quiz reaches its deadline (time limit plus grace).
+ * The attempt is then graded with the answers saved so far.
+ */
+public record QuizAttemptExpiredEvent(
+        Long attemptId,
+        OffsetDateTime occurredAt
+) {}
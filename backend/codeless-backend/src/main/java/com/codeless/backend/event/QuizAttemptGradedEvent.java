@@ -0,0 +1,18 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Published with the per-question outcome of a graded attempt, for item analytics.
+ * selectedOptionIds only contains options that belong to the question.
+ */
+public record QuizAttemptGradedEvent(
+        Long quizId,
+        Long attemptId,
+        boolean passed,
+        List<Item> items,
+        OffsetDateTime occurredAt
+) {
+    public record Item(Long questionId, boolean correct, List<Long> selectedOptionIds) {}
+}
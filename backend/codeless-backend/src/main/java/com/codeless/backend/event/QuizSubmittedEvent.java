@@ -0,0 +1,18 @@
+package com.codeless.backend.event;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Published when a quiz attempt has been graded.
+ * firstPass is true only for the first passing attempt of this user on this quiz.
+ */
+public record QuizSubmittedEvent(
+        Long userId,
+        Long quizId,
+        Long attemptId,
+        BigDecimal score,
+        boolean passed,
+        boolean firstPass,
+        OffsetDateTime occurredAt
+) {}
@@ -0,0 +1,12 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by CourseReviewService when a user reviews a course for the first time
+ */
+public record ReviewWrittenEvent(
+        Long userId,
+        Long courseId,
+        OffsetDateTime occurredAt
+) {}
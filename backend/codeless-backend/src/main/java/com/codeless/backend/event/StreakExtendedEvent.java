@@ -0,0 +1,13 @@
+package com.codeless.backend.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by LearningStreakService when a user's streak advances to a new day
+ */
+public record StreakExtendedEvent(
+        Long userId,
+        int currentStreakDays,
+        int longestStreakDays,
+        OffsetDateTime occurredAt
+) {}
@@ -18,6 +18,15 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("SELECT e FROM Enrollment e WHERE e.user.id = :userId AND e.course.id = :courseId")
     java.util.Optional<Enrollment> findByUserIdAndCourseId(Long userId, Long courseId);
     
+    /**
+     * All enrollments of a user with their course and (possibly missing) progress row.
+     * Each element is [Enrollment, CourseProgress or null].
+     */
+    @Query("SELECT e, cp FROM Enrollment e JOIN FETCH e.course " +
+           "LEFT JOIN CourseProgress cp ON cp.enrollment = e " +
+           "WHERE e.user.id = :userId ORDER BY e.enrolledAt DESC")
+    List<Object[]> findWithProgressByUserId(Long userId);
+    
     /**
      * Count total enrollments for a specific course
      */
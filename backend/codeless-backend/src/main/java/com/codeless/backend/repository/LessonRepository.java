@@ -11,5 +11,11 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     
     @Query("SELECT MAX(l.lessonOrder) FROM Lesson l WHERE l.section.id = :sectionId")
     Optional<Integer> findMaxLessonOrderBySectionId(@Param("sectionId") Long sectionId);
+    
+    @Query("SELECT l.section.course.id FROM Lesson l WHERE l.id = :lessonId")
+    Optional<Long> findCourseIdById(@Param("lessonId") Long lessonId);
+    
+    @Query("SELECT COUNT(l) FROM Lesson l WHERE l.section.course.id = :courseId")
+    long countByCourseId(@Param("courseId") Long courseId);
 }
 
@@ -13,6 +13,9 @@ public interface QuizAnswerOptionRepository extends JpaRepository<QuizAnswerOpti
     @Query("SELECT o FROM QuizAnswerOption o WHERE o.question.id = :questionId ORDER BY o.optionOrder")
     List<QuizAnswerOption> findByQuestionIdOrderByOptionOrder(@Param("questionId") Long questionId);
     
+    @Query("SELECT o.question.quiz.id FROM QuizAnswerOption o WHERE o.id = :id")
+    Optional<Long> findQuizIdById(@Param("id") Long id);
+    
     @Query("SELECT MAX(o.optionOrder) FROM QuizAnswerOption o WHERE o.question.id = :questionId")
     Optional<Integer> findMaxOptionOrderByQuestionId(@Param("questionId") Long questionId);
 }
@@ -16,6 +16,12 @@ public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long
     @Query("SELECT q FROM QuizQuestion q WHERE q.quiz.id = :quizId ORDER BY q.questionOrder")
     List<QuizQuestion> findByQuizIdOrderByQuestionOrder(@Param("quizId") Long quizId);
     
+    @Query("SELECT DISTINCT q FROM QuizQuestion q LEFT JOIN FETCH q.answerOptions WHERE q.quiz.id = :quizId ORDER BY q.questionOrder")
+    List<QuizQuestion> findByQuizIdWithOptions(@Param("quizId") Long quizId);
+    
+    @Query("SELECT q.quiz.id FROM QuizQuestion q WHERE q.id = :id")
+    Optional<Long> findQuizIdById(@Param("id") Long id);
+    
     @Query("SELECT MAX(q.questionOrder) FROM QuizQuestion q WHERE q.quiz.id = :quizId")
     Optional<Integer> findMaxQuestionOrderByQuizId(@Param("quizId") Long quizId);
 }
@@ -6,7 +6,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,8 +13,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
     Optional<User> findByEmail(@Param("email") String email);
     
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles")
-    List<User> findAllWithRoles();
+    /**
+     * Resolve a user id together with the current learning streak in one round trip (dashboard)
+     */
+    @Query("SELECT u.id AS userId, COALESCE(ls.currentStreakDays, 0) AS currentStreak " +
+           "FROM User u LEFT JOIN LearningStreak ls ON ls.user = u WHERE u.email = :email")
+    Optional<UserStreakView> findStreakViewByEmail(@Param("email") String email);
+    
+    @Query("SELECT u.id AS userId, COALESCE(ls.currentStreakDays, 0) AS currentStreak " +
+           "FROM User u LEFT JOIN LearningStreak ls ON ls.user = u WHERE u.id = :userId")
+    Optional<UserStreakView> findStreakViewById(@Param("userId") Long userId);
+    
+    interface UserStreakView {
+        Long getUserId();
+        Integer getCurrentStreak();
+    }
 }
 
 
@@ -0,0 +1,387 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.event.AchievementsAwardedEvent;
+import com.codeless.backend.event.LessonCompletedEvent;
+import com.codeless.backend.event.LessonHeartbeatEvent;
+import com.codeless.backend.event.QuizSubmittedEvent;
+import com.codeless.backend.event.ReviewWrittenEvent;
+import com.codeless.backend.event.StreakExtendedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Awards achievements from incremental per-user counters.
+ * Each achievement code maps to a rule over one counter; a domain event only bumps the
+ * counters it affects and only the rules watching those counters are evaluated.
+ * Counter deltas and new awards are written behind in batches, off the request path.
+ */
+@Service
+@Slf4j
+public class AchievementService {
+
+    public enum Counter {
+        LESSONS_COMPLETED("lessons_completed"),
+        COURSES_COMPLETED("courses_completed"),
+        QUIZZES_PASSED("quizzes_passed"),
+        REVIEWS_WRITTEN("reviews_written"),
+        LONGEST_STREAK("longest_streak_days"),
+        LEARNING_SECONDS("learning_seconds");
+
+        private final String column;
+
+        Counter(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Achievement rule: earned once the counter reaches the threshold
+     */
+    public record Rule(String code, Counter counter, long threshold) {
+        boolean isSatisfiedBy(long value) {
+            return value >= threshold;
+        }
+    }
+
+    // Codes must match rows in the achievements table (seeded in V6 and V21)
+    private static final List<Rule> RULES = List.of(
+            new Rule("first_lesson", Counter.LESSONS_COMPLETED, 1),
+            new Rule("lessons_10", Counter.LESSONS_COMPLETED, 10),
+            new Rule("lessons_50", Counter.LESSONS_COMPLETED, 50),
+            new Rule("course_completer", Counter.COURSES_COMPLETED, 1),
+            new Rule("courses_5", Counter.COURSES_COMPLETED, 5),
+            new Rule("first_quiz", Counter.QUIZZES_PASSED, 1),
+            new Rule("quiz_master", Counter.QUIZZES_PASSED, 10),
+            new Rule("first_review", Counter.REVIEWS_WRITTEN, 1),
+            new Rule("week_streak", Counter.LONGEST_STREAK, 7),
+            new Rule("month_streak", Counter.LONGEST_STREAK, 30),
+            new Rule("learning_enthusiast", Counter.LEARNING_SECONDS, 10 * 3600)
+    );
+
+    private static final Map<Counter, List<Rule>> RULES_BY_COUNTER = new EnumMap<>(Counter.class);
+
+    static {
+        for (Counter counter : Counter.values()) {
+            RULES_BY_COUNTER.put(counter, RULES.stream().filter(r -> r.counter() == counter).toList());
+        }
+    }
+
+    private static final String LOAD_COUNTERS_SQL = """
+            SELECT COALESCE(c.lessons_completed, 0) AS lessons_completed,
+                   COALESCE(c.courses_completed, 0) AS courses_completed,
+                   COALESCE(c.quizzes_passed, 0) AS quizzes_passed,
+                   COALESCE(c.reviews_written, 0) AS reviews_written,
+                   COALESCE(c.longest_streak_days, 0) AS longest_streak_days,
+                   COALESCE(c.learning_seconds, 0) AS learning_seconds
+            FROM users u
+            LEFT JOIN user_learning_counters c ON c.user_id = u.id
+            WHERE u.id = ?
+            """;
+
+    private static final String LOAD_EARNED_SQL =
+            "SELECT achievement_id FROM user_achievements WHERE user_id = ?";
+
+    private static final String LOAD_ACHIEVEMENTS_SQL = "SELECT code, id FROM achievements";
+
+    // Additive counters are merged as deltas so concurrent instances don't overwrite each other
+    private static final String UPSERT_COUNTERS_SQL = """
+            INSERT INTO user_learning_counters AS c
+                (user_id, lessons_completed, courses_completed, quizzes_passed, reviews_written,
+                 longest_streak_days, learning_seconds, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, NOW())
+            ON CONFLICT (user_id) DO UPDATE
+            SET lessons_completed = c.lessons_completed + EXCLUDED.lessons_completed,
+                courses_completed = c.courses_completed + EXCLUDED.courses_completed,
+                quizzes_passed = c.quizzes_passed + EXCLUDED.quizzes_passed,
+                reviews_written = c.reviews_written + EXCLUDED.reviews_written,
+                longest_streak_days = GREATEST(c.longest_streak_days, EXCLUDED.longest_streak_days),
+                learning_seconds = c.learning_seconds + EXCLUDED.learning_seconds,
+                updated_at = NOW()
+            """;
+
+    private static final String INSERT_AWARD_SQL = """
+            INSERT INTO user_achievements (user_id, achievement_id, earned_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (user_id, achievement_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long idleEvictMillis;
+
+    private final Map<Long, CounterState> states = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> achievementIds;
+
+    public AchievementService(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.achievements.idle-evict-ms:3600000}") long idleEvictMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.idleEvictMillis = idleEvictMillis;
+    }
+
+    private static final class CounterState {
+        final long[] values = new long[Counter.values().length];
+        final long[] pendingDeltas = new long[Counter.values().length];
+        final Set<Long> earned = new HashSet<>();
+        final List<PendingAward> pendingAwards = new ArrayList<>();
+        boolean dirty;
+        long touchedAt = System.currentTimeMillis();
+    }
+
+    private record PendingAward(Long achievementId, OffsetDateTime earnedAt) {}
+
+    private record PendingWrite(Long userId, long[] deltas, List<PendingAward> awards) {}
+
+    // ==================== Event intake ====================
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        Map<Counter, Long> deltas = new EnumMap<>(Counter.class);
+        if (event.firstCompletion()) {
+            deltas.put(Counter.LESSONS_COMPLETED, 1L);
+        }
+        if (event.courseCompleted()) {
+            deltas.put(Counter.COURSES_COMPLETED, 1L);
+        }
+        if (event.timeSpentSeconds() != null && event.timeSpentSeconds() > 0) {
+            deltas.put(Counter.LEARNING_SECONDS, event.timeSpentSeconds().longValue());
+        }
+        apply(event.userId(), deltas, event.occurredAt());
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonHeartbeat(LessonHeartbeatEvent event) {
+        if (event.timeSpentSeconds() != null && event.timeSpentSeconds() > 0) {
+            apply(event.userId(), Map.of(Counter.LEARNING_SECONDS, event.timeSpentSeconds().longValue()),
+                    event.occurredAt());
+        }
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        if (event.firstPass()) {
+            apply(event.userId(), Map.of(Counter.QUIZZES_PASSED, 1L), event.occurredAt());
+        }
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewWritten(ReviewWrittenEvent event) {
+        apply(event.userId(), Map.of(Counter.REVIEWS_WRITTEN, 1L), event.occurredAt());
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStreakExtended(StreakExtendedEvent event) {
+        states.compute(event.userId(), (id, state) -> {
+            if (state == null) {
+                state = loadState(id);
+                if (state == null) {
+                    // User was deleted before the event got processed
+                    return null;
+                }
+            }
+            int index = Counter.LONGEST_STREAK.ordinal();
+            if (event.longestStreakDays() > state.values[index]) {
+                // Max-merged counter: the "delta" carries the new absolute value
+                state.values[index] = event.longestStreakDays();
+                state.pendingDeltas[index] = event.longestStreakDays();
+                state.dirty = true;
+                evaluate(state, Counter.LONGEST_STREAK, event.occurredAt());
+            }
+            state.touchedAt = System.currentTimeMillis();
+            return state;
+        });
+    }
+
+    /**
+     * Apply counter increments for one user and evaluate only the rules watching those counters
+     */
+    private void apply(Long userId, Map<Counter, Long> deltas, OffsetDateTime occurredAt) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        states.compute(userId, (id, state) -> {
+            if (state == null) {
+                state = loadState(id);
+                if (state == null) {
+                    // User was deleted before the event got processed
+                    return null;
+                }
+            }
+            for (Map.Entry<Counter, Long> delta : deltas.entrySet()) {
+                int index = delta.getKey().ordinal();
+                state.values[index] += delta.getValue();
+                state.pendingDeltas[index] += delta.getValue();
+                evaluate(state, delta.getKey(), occurredAt);
+            }
+            state.dirty = true;
+            state.touchedAt = System.currentTimeMillis();
+            return state;
+        });
+    }
+
+    private void evaluate(CounterState state, Counter counter, OffsetDateTime occurredAt) {
+        long value = state.values[counter.ordinal()];
+        for (Rule rule : RULES_BY_COUNTER.get(counter)) {
+            if (!rule.isSatisfiedBy(value)) {
+                continue;
+            }
+            Long achievementId = achievementIds().get(rule.code());
+            if (achievementId != null && state.earned.add(achievementId)) {
+                state.pendingAwards.add(new PendingAward(achievementId, occurredAt));
+                state.dirty = true;
+            }
+        }
+    }
+
+    // ==================== Write-behind ====================
+
+    @Scheduled(fixedDelayString = "${app.achievements.flush-interval-ms:5000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<PendingWrite> batch = new ArrayList<>();
+
+        for (Long userId : states.keySet()) {
+            states.computeIfPresent(userId, (id, state) -> {
+                if (state.dirty) {
+                    batch.add(new PendingWrite(id, state.pendingDeltas.clone(), List.copyOf(state.pendingAwards)));
+                    Arrays.fill(state.pendingDeltas, 0);
+                    state.pendingAwards.clear();
+                    state.dirty = false;
+                    return state;
+                }
+                return now - state.touchedAt > idleEvictMillis ? null : state;
+            });
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_COUNTERS_SQL, batch.stream()
+                    .map(w -> new Object[]{
+                            w.userId(),
+                            w.deltas()[Counter.LESSONS_COMPLETED.ordinal()],
+                            w.deltas()[Counter.COURSES_COMPLETED.ordinal()],
+                            w.deltas()[Counter.QUIZZES_PASSED.ordinal()],
+                            w.deltas()[Counter.REVIEWS_WRITTEN.ordinal()],
+                            w.deltas()[Counter.LONGEST_STREAK.ordinal()],
+                            w.deltas()[Counter.LEARNING_SECONDS.ordinal()]
+                    })
+                    .toList());
+
+            List<Object[]> awards = new ArrayList<>();
+            for (PendingWrite w : batch) {
+                for (PendingAward award : w.awards()) {
+                    awards.add(new Object[]{w.userId(), award.achievementId(),
+                            Timestamp.from(award.earnedAt().toInstant())});
+                }
+            }
+            if (!awards.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_AWARD_SQL, awards);
+                log.info("Awarded {} achievements", awards.size());
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush achievement counters for {} users: {}", batch.size(), e.getMessage());
+            requeue(batch);
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        for (PendingWrite w : batch) {
+            if (!w.awards().isEmpty()) {
+                eventPublisher.publishEvent(new AchievementsAwardedEvent(w.userId(), w.awards().size(), now));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==================== Helpers ====================
+
+    private void requeue(List<PendingWrite> batch) {
+        for (PendingWrite w : batch) {
+            states.computeIfPresent(w.userId(), (id, state) -> {
+                for (int i = 0; i < w.deltas().length; i++) {
+                    if (i == Counter.LONGEST_STREAK.ordinal()) {
+                        state.pendingDeltas[i] = Math.max(state.pendingDeltas[i], w.deltas()[i]);
+                    } else {
+                        state.pendingDeltas[i] += w.deltas()[i];
+                    }
+                }
+                state.pendingAwards.addAll(w.awards());
+                state.dirty = true;
+                return state;
+            });
+        }
+    }
+
+    private CounterState loadState(Long userId) {
+        CounterState state = new CounterState();
+        boolean[] found = new boolean[1];
+        jdbcTemplate.query(LOAD_COUNTERS_SQL, rs -> {
+            for (Counter counter : Counter.values()) {
+                state.values[counter.ordinal()] = rs.getLong(counter.column);
+            }
+            found[0] = true;
+        }, userId);
+        if (!found[0]) {
+            return null;
+        }
+        state.earned.addAll(jdbcTemplate.queryForList(LOAD_EARNED_SQL, Long.class, userId));
+
+        // Catch up on achievements whose rules were added after the counters were reached
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Counter counter : Counter.values()) {
+            evaluate(state, counter, now);
+        }
+        return state;
+    }
+
+    private Map<String, Long> achievementIds() {
+        Map<String, Long> ids = achievementIds;
+        if (ids == null) {
+            Map<String, Long> loaded = new ConcurrentHashMap<>();
+            jdbcTemplate.query(LOAD_ACHIEVEMENTS_SQL, rs -> {
+                loaded.put(rs.getString("code"), rs.getLong("id"));
+            });
+            for (Rule rule : RULES) {
+                if (!loaded.containsKey(rule.code())) {
+                    log.warn("Achievement rule '{}' has no matching row in achievements", rule.code());
+                }
+            }
+            ids = loaded;
+            achievementIds = ids;
+        }
+        return ids;
+    }
+}
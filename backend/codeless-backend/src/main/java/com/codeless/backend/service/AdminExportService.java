@@ -0,0 +1,428 @@
+package com.codeless.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-table CSV / NDJSON exports for finance and support.
+ * Rows are streamed from a server-side cursor (read-only transaction, so the driver honours the
+ * fetch size) straight to the response, one row at a time: heap use does not depend on the
+ * size of the export. Each export runs under a deadline that bounds both the transaction and
+ * the row loop, and the number of concurrent exports is capped so they cannot drain the
+ * connection pool.
+ */
+@Service
+@Slf4j
+public class AdminExportService {
+
+    public enum Entity {
+        ORDERS("""
+                SELECT o.id, u.email AS user_email, u.full_name AS user_name, o.status, o.currency,
+                       o.subtotal, o.discount, o.total, o.provider, o.provider_payment_id,
+                       COALESCE(ic.item_count, 0) AS item_count, o.created_at, o.updated_at
+                FROM orders o
+                JOIN users u ON u.id = o.user_id
+                LEFT JOIN (
+                    SELECT order_id, COUNT(*) AS item_count FROM order_items GROUP BY order_id
+                ) ic ON ic.order_id = o.id
+                WHERE o.created_at >= :from AND o.created_at < :to
+                ORDER BY o.created_at, o.id
+                """),
+        ENROLLMENTS("""
+                SELECT e.id, u.email AS user_email, u.full_name AS user_name, c.id AS course_id,
+                       c.title AS course_title, e.enrolled_at,
+                       COALESCE(cp.completion_percentage, 0) AS completion_percentage,
+                       COALESCE(cp.lesson_completed, 0) AS lessons_completed,
+                       cp.lesson_total AS lessons_total,
+                       COALESCE(cp.time_spent_seconds, 0) AS time_spent_seconds,
+                       cp.last_accessed_at
+                FROM enrollments e
+                JOIN users u ON u.id = e.user_id
+                JOIN course c ON c.id = e.course_id
+                LEFT JOIN course_progress cp ON cp.enrollment_id = e.id
+                WHERE e.enrolled_at >= :from AND e.enrolled_at < :to
+                ORDER BY e.enrolled_at, e.id
+                """),
+        USERS("""
+                SELECT u.id, u.email, u.full_name, u.enabled,
+                       (SELECT string_agg(r.name, ';' ORDER BY r.name)
+                        FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                        WHERE ur.user_id = u.id) AS roles,
+                       u.created_at
+                FROM users u
+                WHERE u.created_at >= :from AND u.created_at < :to
+                ORDER BY u.created_at, u.id
+                """),
+        QUIZ_RESULTS("""
+                SELECT qa.id AS attempt_id, u.email AS user_email, u.full_name AS user_name,
+                       c.title AS course_title, q.id AS quiz_id, q.title AS quiz_title,
+                       qa.score, qa.passed, q.passing_score, qa.time_spent_seconds,
+                       qa.started_at, qa.completed_at
+                FROM quiz_attempts qa
+                JOIN users u ON u.id = qa.user_id
+                JOIN quizzes q ON q.id = qa.quiz_id
+                JOIN lessons l ON l.id = q.lesson_id
+                JOIN course_sections s ON s.id = l.section_id
+                JOIN course c ON c.id = s.course_id
+                WHERE qa.completed_at >= :from AND qa.completed_at < :to
+                ORDER BY qa.completed_at, qa.id
+                """);
+
+        private final String sql;
+
+        Entity(String sql) {
+            this.sql = sql;
+        }
+
+        public String fileName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        public static Entity parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown export: " + value);
+            }
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown export format: " + value);
+            }
+        }
+    }
+
+    // Lower bound for exports without a 'from' filter
+    private static final OffsetDateTime BEGINNING = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final Semaphore permits;
+
+    public AdminExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.export.fetch-size:1000}") int fetchSize,
+            @Value("${app.export.timeout:9m}") Duration timeout,
+            @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        // Dedicated template: the fetch size only makes sense for cursor-style reads
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setTimeout((int) timeout.toSeconds());
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Return the response body that streams the export.
+     * Fails fast when too many exports are already running. The slot itself is taken by the body
+     * when it starts, so a body that never runs (request aborted or timed out before the async
+     * task started) cannot hold one; losing the race for the last slot fails before any byte is
+     * written.
+     */
+    public StreamingResponseBody prepare(Entity entity, Format format, OffsetDateTime from, OffsetDateTime to,
+                                         boolean gzip) {
+        OffsetDateTime start = from != null ? from : BEGINNING;
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now(ZoneOffset.UTC);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (permits.availablePermits() == 0) {
+            throw new IllegalStateException("Too many exports running, try again shortly");
+        }
+        return out -> {
+            if (!permits.tryAcquire()) {
+                throw new IllegalStateException("Too many exports running, try again shortly");
+            }
+            try {
+                if (gzip) {
+                    try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                        write(entity, format, start, end, compressed);
+                    }
+                } else {
+                    write(entity, format, start, end, out);
+                }
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    // ==================== Streaming ====================
+
+    private void write(Entity entity, Format format, OffsetDateTime from, OffsetDateTime to,
+                       OutputStream out) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out, objectMapper);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+
+        long started = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(entity.sql, params, rs -> {
+                if (rows[0] == 0) {
+                    writer.begin(Column.describe(rs.getMetaData()));
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Export exceeded " + timeout);
+                }
+                writer.row(rs);
+                rows[0]++;
+            }));
+            if (rows[0] == 0) {
+                writer.begin(null);
+            }
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // Client went away; the transaction has been rolled back and the connection released
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            log.warn("Export of {} aborted after {} rows: {}", entity, rows[0], e.getMessage());
+            throw e;
+        }
+        log.info("Exported {} {} rows as {} in {} ms", rows[0], entity, format, System.currentTimeMillis() - started);
+    }
+
+    private enum ColumnKind { TEXT, NUMBER, BOOLEAN, TIMESTAMP }
+
+    private record Column(String label, ColumnKind kind) {
+
+        static Column[] describe(ResultSetMetaData meta) throws SQLException {
+            Column[] columns = new Column[meta.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                String type = meta.getColumnTypeName(i + 1);
+                ColumnKind kind = switch (type) {
+                    case "int2", "int4", "int8", "numeric", "float4", "float8" -> ColumnKind.NUMBER;
+                    case "bool" -> ColumnKind.BOOLEAN;
+                    case "timestamptz", "timestamp" -> ColumnKind.TIMESTAMP;
+                    default -> ColumnKind.TEXT;
+                };
+                columns[i] = new Column(meta.getColumnLabel(i + 1), kind);
+            }
+            return columns;
+        }
+    }
+
+    private interface RowWriter {
+        /**
+         * Called once before the first row; columns are null for an empty export
+         */
+        void begin(Column[] columns);
+
+        void row(ResultSet rs) throws SQLException;
+
+        void finish();
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+        private Column[] columns;
+
+        CsvRowWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void begin(Column[] columns) {
+            this.columns = columns;
+            if (columns == null) {
+                return;
+            }
+            StringBuilder header = new StringBuilder();
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    header.append(',');
+                }
+                header.append(columns[i].label());
+            }
+            writeLine(header);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException {
+            StringBuilder line = new StringBuilder(256);
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                String value = switch (columns[i].kind()) {
+                    case TIMESTAMP -> {
+                        OffsetDateTime time = rs.getObject(i + 1, OffsetDateTime.class);
+                        yield time != null ? time.toString() : null;
+                    }
+                    case NUMBER -> {
+                        BigDecimal number = rs.getBigDecimal(i + 1);
+                        yield number != null ? number.toPlainString() : null;
+                    }
+                    default -> rs.getString(i + 1);
+                };
+                if (value != null) {
+                    appendEscaped(line, value, columns[i].kind() == ColumnKind.TEXT);
+                }
+            }
+            writeLine(line);
+        }
+
+        @Override
+        public void finish() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeLine(CharSequence line) {
+            try {
+                out.append(line).append("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void appendEscaped(StringBuilder line, String value, boolean text) {
+            // Keep spreadsheet apps from evaluating user-supplied text as a formula
+            boolean formula = text && !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+            boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            if (formula) {
+                line.append('\'');
+            }
+            line.append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private Column[] columns;
+
+        NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) {
+            try {
+                this.json = objectMapper.getFactory().createGenerator(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin(Column[] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException {
+            try {
+                json.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    json.writeFieldName(columns[i].label());
+                    switch (columns[i].kind()) {
+                        case NUMBER -> {
+                            BigDecimal number = rs.getBigDecimal(i + 1);
+                            if (number != null) {
+                                json.writeNumber(number);
+                            } else {
+                                json.writeNull();
+                            }
+                        }
+                        case BOOLEAN -> {
+                            boolean value = rs.getBoolean(i + 1);
+                            if (rs.wasNull()) {
+                                json.writeNull();
+                            } else {
+                                json.writeBoolean(value);
+                            }
+                        }
+                        case TIMESTAMP -> {
+                            OffsetDateTime time = rs.getObject(i + 1, OffsetDateTime.class);
+                            json.writeString(time != null ? time.toString() : null);
+                        }
+                        default -> json.writeString(rs.getString(i + 1));
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() {
+            try {
+                json.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.event.EnrollmentCreatedEvent;
+import com.codeless.backend.event.EnrollmentsImportedEvent;
+import com.codeless.backend.event.OrderActivityEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events feed of new orders and enrollments for the admin dashboard. Bulk imports
+ * appear as one "enrollments_imported" event per committed chunk rather than one per row.
+ * Domain events are pushed to every connected admin as they commit; the last N events are
+ * kept in a ring buffer and replayed on connect (or after Last-Event-ID on reconnect), so
+ * the dashboard no longer has to poll the recent-orders/recent-enrollments queries.
+ * Events are appended to the buffer under its lock, then sent to subscribers outside the lock on
+ * a dedicated single-threaded executor, so a slow admin connection never holds up committing
+ * transactions or other listeners; subscribers whose send fails are dropped.
+ * Event ids are seeded from the clock at startup, so they keep increasing across restarts and a
+ * reconnecting client's Last-Event-ID never skips new events (the buffer itself starts empty).
+ */
+@Service
+@Slf4j
+public class AdminLiveFeedService {
+
+    public record OrderItem(
+            Long id,
+            String userName,
+            String userEmail,
+            BigDecimal totalAmount,
+            String status,
+            OffsetDateTime createdAt
+    ) {}
+
+    public record EnrollmentItem(
+            Long id,
+            String userName,
+            String courseTitle,
+            OffsetDateTime enrolledAt
+    ) {}
+
+    public record ImportItem(
+            String jobId,
+            int enrollments,
+            int users,
+            OffsetDateTime occurredAt
+    ) {}
+
+    private record FeedEvent(long id, String name, Object data) {}
+
+    /**
+     * A connection and the id of the last event sent to it, so an event replayed on connect is
+     * not sent again by a fan-out that was already queued
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        volatile long lastSentId;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private final int replaySize;
+    private final long emitterTimeoutMillis;
+    private final TaskExecutor fanOutExecutor;
+
+    // Microseconds since the epoch at startup: above any id issued before a restart
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Deque<FeedEvent> recent = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public AdminLiveFeedService(
+            @Qualifier(AsyncConfig.ADMIN_FEED_EXECUTOR) TaskExecutor fanOutExecutor,
+            @Value("${app.admin-feed.replay-size:20}") int replaySize,
+            @Value("${app.admin-feed.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.fanOutExecutor = fanOutExecutor;
+        this.replaySize = replaySize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * Open a feed connection, replaying buffered events newer than lastEventId (all if null)
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> drop(subscriber, null));
+        emitter.onError(e -> drop(subscriber, e));
+
+        // Replay and registration happen under the buffer lock so no event is missed or reordered
+        synchronized (recent) {
+            try {
+                for (FeedEvent event : recent) {
+                    if (lastEventId == null || event.id() > lastEventId) {
+                        send(subscriber, event);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return emitter;
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    // ==================== Event intake ====================
+
+    // Synchronous after commit: publishing only appends to the buffer and queues the fan-out
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderActivity(OrderActivityEvent event) {
+        publish("order", new OrderItem(
+                event.orderId(),
+                event.userName(),
+                event.userEmail(),
+                event.total(),
+                event.status(),
+                event.createdAt()
+        ));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentCreated(EnrollmentCreatedEvent event) {
+        publish("enrollment", new EnrollmentItem(
+                event.enrollmentId(),
+                event.userName(),
+                event.courseTitle(),
+                event.occurredAt()
+        ));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsImported(EnrollmentsImportedEvent event) {
+        publish("enrollments_imported", new ImportItem(
+                event.jobId(),
+                event.enrollments(),
+                event.userIds().size(),
+                event.occurredAt()
+        ));
+    }
+
+    /**
+     * Keep idle connections open through proxies and drop the ones whose client went away
+     */
+    @Scheduled(fixedDelayString = "${app.admin-feed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private void publish(String name, Object data) {
+        FeedEvent event;
+        synchronized (recent) {
+            event = new FeedEvent(sequence.incrementAndGet(), name, data);
+            recent.addLast(event);
+            while (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+        }
+        fanOutExecutor.execute(() -> fanOut(event));
+    }
+
+    private void fanOut(FeedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (event.id() <= subscriber.lastSentId) {
+                continue;
+            }
+            try {
+                send(subscriber, event);
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, Throwable cause) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Dropped admin feed subscriber: {}", cause != null ? cause.getMessage() : "timed out");
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static void send(Subscriber subscriber, FeedEvent event) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.id()))
+                .name(event.name())
+                .data(event.data()));
+        subscriber.lastSentId = event.id();
+    }
+}
@@ -0,0 +1,323 @@
+package com.codeless.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Admin dashboard metrics backed by the daily_metrics rollup.
+ * A scheduled job rolls up each finished UTC day once (re-rolling a short trailing window to
+ * pick up changes committed after the day ended) by summing its metrics_hourly buckets. Revenue
+ * is attributed to the day an order was paid. Each run restarts the running totals from counts
+ * of everything before the rolled-up range, so deleted users/enrollments and refunds do not leave
+ * the totals drifting. Reads combine the last rolled-up totals with today's partial values, so
+ * the cost does not depend on the size of orders/enrollments.
+ */
+@Service
+@Slf4j
+public class AdminMetricsService {
+
+    // Activity comes from the hourly buckets of MetricsTimeseriesService, never from the source tables
+    private static final String DAY_ACTIVITY_SQL = """
+            SELECT COALESCE(SUM(revenue), 0) AS revenue,
+                   COALESCE(SUM(enrollments), 0) AS enrollments,
+                   COALESCE(SUM(signups), 0) AS signups,
+                   COALESCE(SUM(completions), 0) AS completions
+            FROM metrics_hourly
+            WHERE bucket_start >= :from AND bucket_start < :to
+            """;
+
+    private static final String TOTALS_BEFORE_SQL = """
+            SELECT
+                (SELECT COALESCE(SUM(total), 0) FROM orders
+                 WHERE status = 'PAID' AND paid_at < :before) AS revenue_total,
+                (SELECT COUNT(*) FROM enrollments WHERE enrolled_at < :before) AS enrollments_total,
+                (SELECT COUNT(*) FROM users WHERE created_at < :before) AS users_total
+            """;
+
+    private static final String PUBLISHED_COURSES_SQL = "SELECT COUNT(*) FROM course WHERE published = true";
+
+    private static final String LAST_DAY_SQL = "SELECT MAX(day) FROM daily_metrics";
+
+    private static final String HISTORY_SQL = """
+            SELECT day, revenue, enrollments, signups, completions,
+                   revenue_total, enrollments_total, users_total, published_courses
+            FROM daily_metrics
+            WHERE day >= :from AND day <= :to
+            ORDER BY day
+            """;
+
+    private static final String UPSERT_DAY_SQL = """
+            INSERT INTO daily_metrics (day, revenue, enrollments, signups, completions,
+                                       revenue_total, enrollments_total, users_total, published_courses, computed_at)
+            VALUES (:day, :revenue, :enrollments, :signups, :completions,
+                    :revenueTotal, :enrollmentsTotal, :usersTotal, :publishedCourses, NOW())
+            ON CONFLICT (day) DO UPDATE
+            SET revenue = EXCLUDED.revenue,
+                enrollments = EXCLUDED.enrollments,
+                signups = EXCLUDED.signups,
+                completions = EXCLUDED.completions,
+                revenue_total = EXCLUDED.revenue_total,
+                enrollments_total = EXCLUDED.enrollments_total,
+                users_total = EXCLUDED.users_total,
+                published_courses = COALESCE(daily_metrics.published_courses, EXCLUDED.published_courses),
+                computed_at = NOW()
+            """;
+
+    public record DayMetrics(
+            LocalDate day,
+            BigDecimal revenue,
+            long enrollments,
+            long signups,
+            long completions,
+            BigDecimal revenueTotal,
+            long enrollmentsTotal,
+            long usersTotal,
+            Integer publishedCourses
+    ) {}
+
+    /**
+     * Headline totals with week-over-week and month-over-month changes (percent, null if unknown).
+     * Flow metrics compare the trailing 7/30 finished days with the 7/30 days before them;
+     * published courses compare the current count with the count 7/30 days ago.
+     */
+    public record DashboardMetrics(
+            BigDecimal totalRevenue,
+            long totalEnrollments,
+            long activeCourses,
+            long totalUsers,
+            Double revenueChangeWeek,
+            Double enrollmentChangeWeek,
+            Double courseChangeWeek,
+            Double userChangeWeek,
+            Double revenueChangeMonth,
+            Double enrollmentChangeMonth,
+            Double courseChangeMonth,
+            Double userChangeMonth
+    ) {}
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int trailingDays;
+
+    public AdminMetricsService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${app.admin-metrics.trailing-days:1}") int trailingDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trailingDays = trailingDays;
+    }
+
+    // ==================== Read ====================
+
+    @Transactional(readOnly = true)
+    public DashboardMetrics getDashboardMetrics() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate yesterday = today.minusDays(1);
+
+        NavigableMap<LocalDate, DayMetrics> history = loadHistory(yesterday.minusDays(60), yesterday);
+        DayMetrics last = history.isEmpty() ? null : history.lastEntry().getValue();
+        // Normally just today; also covers days finished since the last rollup run
+        LocalDate partialFrom = last != null ? last.day().plusDays(1) : today;
+        DayMetrics partial = computeActivity(partialFrom, OffsetDateTime.now(ZoneOffset.UTC));
+        Long published = jdbcTemplate.getJdbcTemplate().queryForObject(PUBLISHED_COURSES_SQL, Long.class);
+        long activeCourses = published != null ? published : 0;
+
+        BigDecimal revenueBase = last != null ? last.revenueTotal() : BigDecimal.ZERO;
+        long enrollmentsBase = last != null ? last.enrollmentsTotal() : 0;
+        long usersBase = last != null ? last.usersTotal() : 0;
+
+        return new DashboardMetrics(
+                revenueBase.add(partial.revenue()),
+                enrollmentsBase + partial.enrollments(),
+                activeCourses,
+                usersBase + partial.signups(),
+                flowChange(history, yesterday, 7, m -> m.revenue().doubleValue()),
+                flowChange(history, yesterday, 7, m -> m.enrollments()),
+                stockChange(history, yesterday.minusDays(7), activeCourses),
+                flowChange(history, yesterday, 7, m -> m.signups()),
+                flowChange(history, yesterday, 30, m -> m.revenue().doubleValue()),
+                flowChange(history, yesterday, 30, m -> m.enrollments()),
+                stockChange(history, yesterday.minusDays(30), activeCourses),
+                flowChange(history, yesterday, 30, m -> m.signups())
+        );
+    }
+
+    /**
+     * Stored daily rows for an inclusive range, keyed and ordered by day
+     */
+    public NavigableMap<LocalDate, DayMetrics> loadHistory(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, DayMetrics> rows = new TreeMap<>();
+        jdbcTemplate.query(HISTORY_SQL, new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to)), rs -> {
+            LocalDate day = rs.getDate("day").toLocalDate();
+            rows.put(day, new DayMetrics(
+                    day,
+                    rs.getBigDecimal("revenue"),
+                    rs.getLong("enrollments"),
+                    rs.getLong("signups"),
+                    rs.getLong("completions"),
+                    rs.getBigDecimal("revenue_total"),
+                    rs.getLong("enrollments_total"),
+                    rs.getLong("users_total"),
+                    rs.getObject("published_courses", Integer.class)
+            ));
+        });
+        return rows;
+    }
+
+    // ==================== Rollup ====================
+
+    /**
+     * Roll up finished days that are missing, plus a short trailing window for late changes
+     * (e.g. a payment committed just after midnight)
+     */
+    @Scheduled(cron = "${app.admin-metrics.rollup-cron:0 10 * * * *}")
+    @Transactional
+    public void rollup() {
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDate lastRolled = jdbcTemplate.getJdbcTemplate().queryForObject(LAST_DAY_SQL, LocalDate.class);
+
+        LocalDate from = lastRolled != null
+                ? min(lastRolled.plusDays(1), yesterday.minusDays(trailingDays - 1L))
+                : yesterday;
+        rollupFrom(from, yesterday);
+    }
+
+    /**
+     * Re-roll an already rolled-up day whose hourly buckets changed (e.g. a refund of an order paid
+     * that day), together with the running totals of every day after it
+     */
+    @Transactional
+    public void rerollDay(LocalDate day) {
+        LocalDate lastRolled = jdbcTemplate.getJdbcTemplate().queryForObject(LAST_DAY_SQL, LocalDate.class);
+        if (lastRolled == null || day.isAfter(lastRolled)) {
+            return; // Not rolled up yet; the next scheduled run picks it up
+        }
+        rollupFrom(day, LocalDate.now(ZoneOffset.UTC).minusDays(1));
+    }
+
+    private void rollupFrom(LocalDate from, LocalDate yesterday) {
+        if (from.isAfter(yesterday)) {
+            return;
+        }
+
+        // Totals restart from actual counts rather than the previous day's row
+        DayMetrics before = totalsBefore(from);
+        BigDecimal revenueTotal = before.revenueTotal();
+        long enrollmentsTotal = before.enrollmentsTotal();
+        long usersTotal = before.usersTotal();
+        Long published = jdbcTemplate.getJdbcTemplate().queryForObject(PUBLISHED_COURSES_SQL, Long.class);
+
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            DayMetrics activity = computeActivity(day, day.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+            revenueTotal = revenueTotal.add(activity.revenue());
+            enrollmentsTotal += activity.enrollments();
+            usersTotal += activity.signups();
+
+            jdbcTemplate.update(UPSERT_DAY_SQL, new MapSqlParameterSource()
+                    .addValue("day", Date.valueOf(day))
+                    .addValue("revenue", activity.revenue())
+                    .addValue("enrollments", activity.enrollments())
+                    .addValue("signups", activity.signups())
+                    .addValue("completions", activity.completions())
+                    .addValue("revenueTotal", revenueTotal)
+                    .addValue("enrollmentsTotal", enrollmentsTotal)
+                    .addValue("usersTotal", usersTotal)
+                    .addValue("publishedCourses", published != null ? published.intValue() : null));
+            days++;
+        }
+        log.info("Rolled up daily metrics for {} day(s) from {}", days, from);
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Activity of the hourly buckets from the start of a UTC day up to (excluding) the given instant;
+     * for today that includes the current, still filling hour
+     */
+    private DayMetrics computeActivity(LocalDate day, OffsetDateTime until) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", day.atStartOfDay().atOffset(ZoneOffset.UTC))
+                .addValue("to", until);
+        return jdbcTemplate.queryForObject(DAY_ACTIVITY_SQL, params, (rs, rowNum) -> new DayMetrics(
+                day,
+                rs.getBigDecimal("revenue"),
+                rs.getLong("enrollments"),
+                rs.getLong("signups"),
+                rs.getLong("completions"),
+                null, 0, 0, null
+        ));
+    }
+
+    /**
+     * Running totals of everything before the start of a UTC day
+     */
+    private DayMetrics totalsBefore(LocalDate day) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", day.atStartOfDay().atOffset(ZoneOffset.UTC));
+        return jdbcTemplate.queryForObject(TOTALS_BEFORE_SQL, params, (rs, rowNum) -> new DayMetrics(
+                day.minusDays(1),
+                BigDecimal.ZERO, 0, 0, 0,
+                rs.getBigDecimal("revenue_total"),
+                rs.getLong("enrollments_total"),
+                rs.getLong("users_total"),
+                null
+        ));
+    }
+
+    private static Double flowChange(Map<LocalDate, DayMetrics> history, LocalDate end, int window,
+                                     ToDoubleFunction<DayMetrics> metric) {
+        LocalDate currentStart = end.minusDays(window - 1L);
+        LocalDate previousStart = currentStart.minusDays(window);
+        if (!history.containsKey(previousStart)) {
+            return null; // Not enough history for a comparison
+        }
+        double current = 0;
+        double previous = 0;
+        for (DayMetrics m : history.values()) {
+            if (!m.day().isBefore(currentStart)) {
+                current += metric.applyAsDouble(m);
+            } else if (!m.day().isBefore(previousStart)) {
+                previous += metric.applyAsDouble(m);
+            }
+        }
+        return percentChange(current, previous);
+    }
+
+    private static Double stockChange(Map<LocalDate, DayMetrics> history, LocalDate then, long now) {
+        DayMetrics past = history.get(then);
+        if (past == null || past.publishedCourses() == null) {
+            return null;
+        }
+        return percentChange(now, past.publishedCourses());
+    }
+
+    private static Double percentChange(double current, double previous) {
+        if (previous == 0) {
+            return current > 0 ? 100.0 : 0.0;
+        }
+        return BigDecimal.valueOf((current - previous) * 100 / previous)
+                .setScale(1, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,261 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Global admin search over users, courses, orders and enrollments.
+ * Each entity is searched by its own query, all of them in parallel, and ranked by trigram word
+ * similarity. Matching uses ILIKE substring and the pg_trgm word-similarity operator, both served
+ * by the GIN trigram indexes on users.email, users.full_name and course.title. Orders and
+ * enrollments are reached through the best matching users/courses (plus exact order id or
+ * payment id), so no search ever scans orders or enrollments.
+ * A sub-search that fails or overruns the time budget is reported as incomplete instead of
+ * failing the whole response.
+ */
+@Service
+@Slf4j
+public class AdminSearchService {
+
+    // Trigram indexes cannot help with shorter terms
+    public static final int MIN_TEXT_LENGTH = 3;
+
+    public record UserHit(Long id, String email, String fullName, Boolean enabled, double rank) {}
+
+    public record CourseHit(Long id, String title, String slug, String kind, Boolean published, double rank) {}
+
+    public record OrderHit(Long id, String userEmail, String userName, BigDecimal total, String status,
+                           OffsetDateTime createdAt, double rank) {}
+
+    public record EnrollmentHit(Long id, String userEmail, String userName, String courseTitle,
+                                OffsetDateTime enrolledAt, double rank) {}
+
+    public record SearchResults(
+            String query,
+            List<UserHit> users,
+            List<CourseHit> courses,
+            List<OrderHit> orders,
+            List<EnrollmentHit> enrollments,
+            List<String> incomplete
+    ) {}
+
+    private static final String MATCHED_USERS_CTE = """
+            matched_users AS (
+                SELECT u.id,
+                       GREATEST(word_similarity(:q, u.email), word_similarity(:q, COALESCE(u.full_name, ''))) AS rank
+                FROM users u
+                WHERE u.email ILIKE :pattern OR u.full_name ILIKE :pattern
+                   OR :q <% u.email OR :q <% u.full_name
+                ORDER BY rank DESC
+                LIMIT :candidates
+            )
+            """;
+
+    private static final String MATCHED_COURSES_CTE = """
+            matched_courses AS (
+                SELECT c.id, word_similarity(:q, c.title) AS rank
+                FROM course c
+                WHERE c.title ILIKE :pattern OR :q <% c.title
+                ORDER BY rank DESC
+                LIMIT :candidates
+            )
+            """;
+
+    private static final String USERS_SQL = "WITH " + MATCHED_USERS_CTE + """
+            SELECT u.id, u.email, u.full_name, u.enabled, m.rank
+            FROM matched_users m
+            JOIN users u ON u.id = m.id
+            ORDER BY m.rank DESC, u.id DESC
+            LIMIT :limit
+            """;
+
+    private static final String COURSES_SQL = "WITH " + MATCHED_COURSES_CTE + """
+            SELECT c.id, c.title, c.slug, c.kind, c.published, m.rank
+            FROM matched_courses m
+            JOIN course c ON c.id = m.id
+            ORDER BY m.rank DESC, c.id DESC
+            LIMIT :limit
+            """;
+
+    private static final String ORDERS_BY_USER_SQL = "WITH " + MATCHED_USERS_CTE + """
+            SELECT o.id, u.email AS user_email, u.full_name AS user_name, o.total, o.status, o.created_at, m.rank
+            FROM matched_users m
+            JOIN orders o ON o.user_id = m.id
+            JOIN users u ON u.id = m.id
+            ORDER BY m.rank DESC, o.created_at DESC
+            LIMIT :limit
+            """;
+
+    private static final String ORDERS_BY_REFERENCE_SQL = """
+            SELECT o.id, u.email AS user_email, u.full_name AS user_name, o.total, o.status, o.created_at, 1.0 AS rank
+            FROM orders o
+            JOIN users u ON u.id = o.user_id
+            WHERE o.id = :orderId OR o.provider_payment_id = :q
+            """;
+
+    private static final String ENROLLMENTS_SQL = "WITH " + MATCHED_USERS_CTE + ", " + MATCHED_COURSES_CTE + """
+            SELECT * FROM (
+                (SELECT e.id, u.email AS user_email, u.full_name AS user_name, c.title AS course_title,
+                        e.enrolled_at, m.rank
+                 FROM matched_users m
+                 JOIN enrollments e ON e.user_id = m.id
+                 JOIN users u ON u.id = e.user_id
+                 JOIN course c ON c.id = e.course_id
+                 ORDER BY m.rank DESC, e.enrolled_at DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT e.id, u.email, u.full_name, c.title, e.enrolled_at, m.rank
+                 FROM matched_courses m
+                 JOIN enrollments e ON e.course_id = m.id
+                 JOIN users u ON u.id = e.user_id
+                 JOIN course c ON c.id = e.course_id
+                 ORDER BY m.rank DESC, e.enrolled_at DESC
+                 LIMIT :limit)
+            ) hits
+            ORDER BY rank DESC, enrolled_at DESC
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Executor executor;
+    private final int candidates;
+    private final Duration timeout;
+
+    public AdminSearchService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Qualifier(AsyncConfig.ADMIN_SEARCH_EXECUTOR) Executor executor,
+            @Value("${app.admin-search.candidates:50}") int candidates,
+            @Value("${app.admin-search.timeout:3s}") Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.candidates = candidates;
+        this.timeout = timeout;
+    }
+
+    public SearchResults search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search term is required");
+        }
+        String q = query.trim();
+        boolean text = q.length() >= MIN_TEXT_LENGTH;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", q)
+                .addValue("pattern", "%" + escapeLike(q) + "%")
+                .addValue("candidates", candidates)
+                .addValue("limit", limit)
+                .addValue("orderId", parseId(q), Types.BIGINT);
+
+        CompletableFuture<List<UserHit>> users = submit(text, () -> jdbcTemplate.query(USERS_SQL, params,
+                (rs, rowNum) -> new UserHit(
+                        rs.getLong("id"),
+                        rs.getString("email"),
+                        rs.getString("full_name"),
+                        rs.getBoolean("enabled"),
+                        rs.getDouble("rank"))));
+        CompletableFuture<List<CourseHit>> courses = submit(text, () -> jdbcTemplate.query(COURSES_SQL, params,
+                (rs, rowNum) -> new CourseHit(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        rs.getString("slug"),
+                        rs.getString("kind"),
+                        rs.getBoolean("published"),
+                        rs.getDouble("rank"))));
+        CompletableFuture<List<OrderHit>> orders = submit(true, () -> searchOrders(params, text, limit));
+        CompletableFuture<List<EnrollmentHit>> enrollments = submit(text, () -> jdbcTemplate.query(ENROLLMENTS_SQL,
+                params, (rs, rowNum) -> new EnrollmentHit(
+                        rs.getLong("id"),
+                        rs.getString("user_email"),
+                        rs.getString("user_name"),
+                        rs.getString("course_title"),
+                        rs.getObject("enrolled_at", OffsetDateTime.class),
+                        rs.getDouble("rank"))));
+
+        List<String> incomplete = new ArrayList<>();
+        return new SearchResults(
+                q,
+                await(users, "users", incomplete),
+                await(courses, "courses", incomplete),
+                await(orders, "orders", incomplete),
+                await(enrollments, "enrollments", incomplete),
+                incomplete
+        );
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Exact references (order id, payment id) first, then orders of the best matching users
+     */
+    private List<OrderHit> searchOrders(MapSqlParameterSource params, boolean text, int limit) {
+        List<OrderHit> hits = new ArrayList<>(jdbcTemplate.query(ORDERS_BY_REFERENCE_SQL, params, this::mapOrder));
+        if (text && hits.size() < limit) {
+            for (OrderHit hit : jdbcTemplate.query(ORDERS_BY_USER_SQL, params, this::mapOrder)) {
+                if (hits.size() >= limit) {
+                    break;
+                }
+                if (hits.stream().noneMatch(h -> h.id().equals(hit.id()))) {
+                    hits.add(hit);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private OrderHit mapOrder(ResultSet rs, int rowNum) throws SQLException {
+        return new OrderHit(
+                rs.getLong("id"),
+                rs.getString("user_email"),
+                rs.getString("user_name"),
+                rs.getBigDecimal("total"),
+                rs.getString("status"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getDouble("rank"));
+    }
+
+    private <T> CompletableFuture<List<T>> submit(boolean enabled, Supplier<List<T>> search) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return CompletableFuture.supplyAsync(search, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> List<T> await(CompletableFuture<List<T>> future, String entity, List<String> incomplete) {
+        try {
+            return future.join();
+        } catch (RuntimeException e) {
+            log.warn("Admin search over {} failed: {}", entity, e.getMessage());
+            incomplete.add(entity);
+            return List.of();
+        }
+    }
+
+    private static Long parseId(String q) {
+        String digits = q.startsWith("#") ? q.substring(1) : q;
+        if (digits.isEmpty() || digits.length() > 18 || !digits.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return Long.parseLong(digits);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
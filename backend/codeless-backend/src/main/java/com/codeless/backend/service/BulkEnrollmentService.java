@@ -0,0 +1,414 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.event.EnrollmentsImportedEvent;
+import com.codeless.backend.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk enrollment of many users (e.g. a corporate customer's employees) in one request.
+ * An import runs as a background job and touches the database a fixed number of times per chunk
+ * of rows: one query resolves all emails and enrollments are written with batched
+ * INSERT ... ON CONFLICT DO NOTHING. Each chunk commits on its own, so a large import neither
+ * holds one long transaction nor loses finished chunks when a later one fails; re-running an
+ * import is harmless. Every committed chunk publishes an EnrollmentsImportedEvent for the
+ * listeners that react to new enrollments. Users are never created here: rows for unknown emails
+ * are reported as USER_NOT_FOUND, since an imported account would have no way to set a password.
+ * Progress and a per-row report are kept in memory for a while after the job finishes.
+ */
+@Service
+@Slf4j
+public class BulkEnrollmentService {
+
+    public static final int MAX_ROWS = 50_000;
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String RESOLVE_USERS_SQL =
+            "SELECT id, lower(email) AS email FROM users WHERE lower(email) IN (:emails)";
+
+    private static final String EXISTING_COURSES_SQL = "SELECT id FROM course WHERE id IN (:ids)";
+
+    private static final String INSERT_ENROLLMENT_SQL = """
+            INSERT INTO enrollments (user_id, course_id, enrolled_at)
+            VALUES (:userId, :courseId, NOW())
+            ON CONFLICT (user_id, course_id) DO NOTHING
+            """;
+
+    public record ImportRow(String email, Long courseId) {}
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public enum Outcome { ENROLLED, ALREADY_ENROLLED, USER_NOT_FOUND, COURSE_NOT_FOUND, INVALID, DUPLICATE }
+
+    public record RowResult(int row, String email, Long courseId, Outcome outcome, String message) {}
+
+    public record JobStatus(
+            String id,
+            State state,
+            int total,
+            int processed,
+            Map<Outcome, Integer> summary,
+            OffsetDateTime submittedAt,
+            OffsetDateTime finishedAt,
+            String error,
+            List<RowResult> results
+    ) {}
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final int total;
+        final OffsetDateTime submittedAt = OffsetDateTime.now();
+        final AtomicInteger processed = new AtomicInteger();
+        volatile State state = State.QUEUED;
+        volatile OffsetDateTime finishedAt;
+        volatile String error;
+        volatile RowResult[] results;
+
+        Job(int total) {
+            this.total = total;
+        }
+
+        JobStatus status() {
+            RowResult[] report = state == State.COMPLETED ? results : null;
+            Map<Outcome, Integer> summary = new EnumMap<>(Outcome.class);
+            if (report != null) {
+                for (RowResult result : report) {
+                    summary.merge(result.outcome(), 1, Integer::sum);
+                }
+            }
+            return new JobStatus(id, state, total, processed.get(), summary, submittedAt,
+                    finishedAt, error, report != null ? Arrays.asList(report) : null);
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor executor;
+    private final int batchSize;
+    private final Cache<String, Job> jobs;
+
+    public BulkEnrollmentService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier(AsyncConfig.BULK_IMPORT_EXECUTOR) TaskExecutor executor,
+            @Value("${app.bulk-import.batch-size:1000}") int batchSize,
+            @Value("${app.bulk-import.retention:1h}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(1000)
+                .build();
+    }
+
+    /**
+     * Queue an import. Rows without a course id use defaultCourseId.
+     */
+    public JobStatus submit(List<ImportRow> rows, Long defaultCourseId) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("No rows to import");
+        }
+        if (rows.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("At most " + MAX_ROWS + " rows per import");
+        }
+        List<ImportRow> snapshot = List.copyOf(rows);
+        Job job = new Job(snapshot.size());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, snapshot, defaultCourseId));
+        } catch (TaskRejectedException e) {
+            jobs.invalidate(job.id);
+            throw new IllegalStateException("Too many imports queued, try again shortly");
+        }
+        return job.status();
+    }
+
+    public JobStatus getStatus(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job", jobId);
+        }
+        return job.status();
+    }
+
+    /**
+     * Parse CSV with a header row: email (required) and course_id (optional); other columns are ignored
+     */
+    public static List<ImportRow> parseCsv(String csv) {
+        List<List<String>> records = CsvParser.parse(csv);
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        List<String> header = records.get(0).stream()
+                .map(h -> h.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", ""))
+                .toList();
+        int email = header.indexOf("email");
+        int courseId = header.indexOf("courseid");
+        if (email < 0) {
+            throw new IllegalArgumentException("CSV header must contain an 'email' column");
+        }
+        List<ImportRow> rows = new ArrayList<>(records.size() - 1);
+        for (List<String> record : records.subList(1, records.size())) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // blank line
+            }
+            String courseValue = field(record, courseId);
+            Long course = null;
+            if (courseValue != null) {
+                try {
+                    course = Long.parseLong(courseValue);
+                } catch (NumberFormatException e) {
+                    course = -1L; // reported as COURSE_NOT_FOUND for this row
+                }
+            }
+            rows.add(new ImportRow(field(record, email), course));
+        }
+        return rows;
+    }
+
+    // ==================== Job ====================
+
+    private void run(Job job, List<ImportRow> rows, Long defaultCourseId) {
+        job.state = State.RUNNING;
+        long started = System.currentTimeMillis();
+        try {
+            job.results = process(job, rows, defaultCourseId);
+            job.state = State.COMPLETED;
+            log.info("Bulk enrollment {} finished: {} rows in {} ms", job.id, rows.size(),
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Bulk enrollment {} failed", job.id, e);
+            job.error = e.getMessage() + " (chunks committed before the failure are kept; re-running the import is safe)";
+            job.state = State.FAILED;
+        } finally {
+            job.finishedAt = OffsetDateTime.now();
+        }
+    }
+
+    private RowResult[] process(Job job, List<ImportRow> rows, Long defaultCourseId) {
+        int n = rows.size();
+        RowResult[] results = new RowResult[n];
+        String[] emails = new String[n];
+        Long[] courseIds = new Long[n];
+
+        // 1. Validate and de-duplicate within the file
+        Set<String> seen = new HashSet<>();
+        Set<Long> requestedCourses = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            ImportRow row = rows.get(i);
+            String email = row.email() != null ? row.email().trim().toLowerCase(Locale.ROOT) : "";
+            Long courseId = row.courseId() != null ? row.courseId() : defaultCourseId;
+            emails[i] = email;
+            courseIds[i] = courseId;
+            if (!EMAIL.matcher(email).matches()) {
+                results[i] = result(i, email, courseId, Outcome.INVALID, "Invalid email");
+            } else if (courseId == null) {
+                results[i] = result(i, email, null, Outcome.INVALID, "Course id is required");
+            } else if (!seen.add(email + "|" + courseId)) {
+                results[i] = result(i, email, courseId, Outcome.DUPLICATE, "Repeats an earlier row");
+            } else {
+                requestedCourses.add(courseId);
+            }
+        }
+
+        // 2. Courses
+        Set<Long> existingCourses = new HashSet<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(requestedCourses))) {
+            existingCourses.addAll(jdbcTemplate.queryForList(EXISTING_COURSES_SQL,
+                    new MapSqlParameterSource("ids", chunk), Long.class));
+        }
+        Set<String> wantedEmails = new LinkedHashSet<>();
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            if (!existingCourses.contains(courseIds[i])) {
+                results[i] = result(i, emails[i], courseIds[i], Outcome.COURSE_NOT_FOUND, "No such course");
+            } else {
+                wantedEmails.add(emails[i]);
+            }
+        }
+        job.processed.set(countResolved(results));
+
+        // 3. Users
+        Map<String, Long> userIds = resolveUsers(wantedEmails);
+
+        // 4. Enrollments, one transaction per chunk, reporting progress as we go
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            if (!userIds.containsKey(emails[i])) {
+                results[i] = result(i, emails[i], courseIds[i], Outcome.USER_NOT_FOUND,
+                        "No user with this email; they need to sign up first");
+                job.processed.incrementAndGet();
+            } else {
+                pending.add(i);
+            }
+        }
+        for (List<Integer> chunk : chunks(pending)) {
+            transactionTemplate.executeWithoutResult(status -> enrollChunk(job, chunk, emails, courseIds, userIds, results));
+            job.processed.addAndGet(chunk.size());
+        }
+        return results;
+    }
+
+    private void enrollChunk(Job job, List<Integer> chunk, String[] emails, Long[] courseIds,
+                             Map<String, Long> userIds, RowResult[] results) {
+        MapSqlParameterSource[] batch = chunk.stream()
+                .map(i -> new MapSqlParameterSource()
+                        .addValue("userId", userIds.get(emails[i]))
+                        .addValue("courseId", courseIds[i]))
+                .toArray(MapSqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_ENROLLMENT_SQL, batch);
+
+        Set<Long> enrolledUsers = new LinkedHashSet<>();
+        int enrolled = 0;
+        for (int k = 0; k < chunk.size(); k++) {
+            int i = chunk.get(k);
+            // 0 rows: the ON CONFLICT clause found an existing enrollment
+            if (counts[k] == 0) {
+                results[i] = result(i, emails[i], courseIds[i], Outcome.ALREADY_ENROLLED, null);
+            } else {
+                results[i] = result(i, emails[i], courseIds[i], Outcome.ENROLLED, null);
+                enrolledUsers.add(userIds.get(emails[i]));
+                enrolled++;
+            }
+        }
+
+        // Delivered to after-commit listeners when this chunk commits
+        if (enrolled > 0) {
+            eventPublisher.publishEvent(new EnrollmentsImportedEvent(
+                    job.id, List.copyOf(enrolledUsers), enrolled, OffsetDateTime.now()));
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private Map<String, Long> resolveUsers(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : chunks(new ArrayList<>(emails))) {
+            jdbcTemplate.query(RESOLVE_USERS_SQL, new MapSqlParameterSource("emails", chunk), rs -> {
+                ids.put(rs.getString("email"), rs.getLong("id"));
+            });
+        }
+        return ids;
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            chunks.add(items.subList(from, Math.min(from + batchSize, items.size())));
+        }
+        return chunks;
+    }
+
+    private static int countResolved(RowResult[] results) {
+        int count = 0;
+        for (RowResult result : results) {
+            if (result != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static RowResult result(int index, String email, Long courseId, Outcome outcome, String message) {
+        // Rows are reported 1-based, as they appear after the CSV header / in the JSON array
+        return new RowResult(index + 1, email, courseId, outcome, message);
+    }
+
+    private static String field(List<String> record, int index) {
+        if (index < 0 || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields, escaped quotes, CRLF or LF line ends
+     */
+    private static final class CsvParser {
+
+        static List<List<String>> parse(String csv) {
+            List<List<String>> records = new ArrayList<>();
+            if (csv == null || csv.isEmpty()) {
+                return records;
+            }
+            List<String> record = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int start = csv.charAt(0) == '\uFEFF' ? 1 : 0; // BOM written by spreadsheet apps
+            for (int i = start; i < csv.length(); i++) {
+                char c = csv.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    record.add(field.toString());
+                    field.setLength(0);
+                    records.add(record);
+                    record = new ArrayList<>();
+                } else {
+                    field.append(c);
+                }
+            }
+            if (field.length() > 0 || !record.isEmpty()) {
+                record.add(field.toString());
+                records.add(record);
+            }
+            return records;
+        }
+    }
+}
@@ -4,9 +4,11 @@ import com.codeless.backend.domain.Course;
 import com.codeless.backend.domain.Order;
 import com.codeless.backend.domain.OrderItem;
 import com.codeless.backend.domain.User;
+import com.codeless.backend.event.OrderActivityEvent;
 import com.codeless.backend.repository.CourseRepository;
 import com.codeless.backend.repository.OrderRepository;
 import com.codeless.backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,11 +21,14 @@ public class CheckoutService {
     private final OrderRepository orderRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CheckoutService(OrderRepository orderRepository, CourseRepository courseRepository, UserRepository userRepository) {
+    public CheckoutService(OrderRepository orderRepository, CourseRepository courseRepository, UserRepository userRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
@@ -73,7 +78,9 @@ public class CheckoutService {
             order.setSubtotal(subtotal);
             order.setTotal(subtotal);
 
-            return orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            eventPublisher.publishEvent(OrderService.toActivityEvent(saved));
+            return saved;
         });
     }
 }
@@ -0,0 +1,220 @@
+package com.codeless.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recomputes course_progress (lesson_total, lesson_completed, completion_percentage) for every
+ * enrollment of a course after its lesson count changed.
+ * Work runs on a single background thread, walks enrollments in id-ordered chunks with one
+ * set-based UPDATE per chunk, and pauses between chunks so live traffic keeps its connections.
+ */
+@Service
+@Slf4j
+public class CourseProgressRecomputeService {
+
+    private static final String COUNT_LESSONS_SQL = """
+            SELECT COUNT(*)
+            FROM lessons l
+            JOIN course_sections s ON s.id = l.section_id
+            WHERE s.course_id = :courseId
+            """;
+
+    private static final String COUNT_ENROLLMENTS_SQL =
+            "SELECT COUNT(*) FROM enrollments WHERE course_id = :courseId";
+
+    private static final String NEXT_CHUNK_SQL = """
+            SELECT COUNT(*) AS chunk_size, MAX(id) AS last_id
+            FROM (
+                SELECT id FROM enrollments
+                WHERE course_id = :courseId AND id > :afterId
+                ORDER BY id
+                LIMIT :limit
+            ) chunk
+            """;
+
+    private static final String RECOMPUTE_CHUNK_SQL = """
+            UPDATE course_progress cp
+            SET lesson_total = :lessonTotal,
+                lesson_completed = chunk.completed,
+                completion_percentage = CASE WHEN :lessonTotal > 0
+                                             THEN LEAST(100, chunk.completed * 100 / :lessonTotal)
+                                             ELSE 0 END,
+                updated_at = NOW()
+            FROM (
+                SELECT e.id AS enrollment_id, COUNT(lp.id) AS completed
+                FROM enrollments e
+                LEFT JOIN lesson_progress lp
+                       ON lp.user_id = e.user_id
+                      AND lp.completed = TRUE
+                      AND lp.lesson_id IN (SELECT l.id FROM lessons l
+                                           JOIN course_sections s ON s.id = l.section_id
+                                           WHERE s.course_id = :courseId)
+                WHERE e.course_id = :courseId AND e.id > :afterId AND e.id <= :upToId
+                GROUP BY e.id
+            ) chunk
+            WHERE cp.enrollment_id = chunk.enrollment_id
+            """;
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public record RecomputeStatus(
+            Long courseId,
+            State state,
+            Integer lessonTotal,
+            long enrollmentsTotal,
+            long enrollmentsProcessed,
+            long progressRowsUpdated,
+            OffsetDateTime queuedAt,
+            OffsetDateTime startedAt,
+            OffsetDateTime finishedAt,
+            String error
+    ) {
+        static RecomputeStatus queued(Long courseId) {
+            return new RecomputeStatus(courseId, State.QUEUED, null, 0, 0, 0,
+                    OffsetDateTime.now(), null, null, null);
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-progress-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> pendingCourses = ConcurrentHashMap.newKeySet();
+    private final Map<Long, RecomputeStatus> statuses = new ConcurrentHashMap<>();
+
+    public CourseProgressRecomputeService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${app.progress-recompute.chunk-size:500}") int chunkSize,
+            @Value("${app.progress-recompute.pause-ms:50}") long pauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Schedule a recompute for a course. Inside a transaction the job is only queued after
+     * commit, so it never sees the lesson count from before the admin's change.
+     */
+    public void enqueue(Long courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(courseId);
+                }
+            });
+        } else {
+            submit(courseId);
+        }
+    }
+
+    public Optional<RecomputeStatus> getStatus(Long courseId) {
+        return Optional.ofNullable(statuses.get(courseId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void submit(Long courseId) {
+        // A run that has not started yet will read the latest lesson count anyway
+        if (!pendingCourses.add(courseId)) {
+            log.debug("Progress recompute for course {} already queued", courseId);
+            return;
+        }
+        statuses.put(courseId, RecomputeStatus.queued(courseId));
+        worker.execute(() -> run(courseId));
+    }
+
+    private void run(Long courseId) {
+        // Changes made from here on queue a fresh run
+        pendingCourses.remove(courseId);
+
+        RecomputeStatus queued = statuses.get(courseId);
+        OffsetDateTime queuedAt = queued != null ? queued.queuedAt() : OffsetDateTime.now();
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        int lessonTotal = 0;
+        long enrollmentsTotal = 0;
+        long processed = 0;
+        long updated = 0;
+
+        try {
+            MapSqlParameterSource courseParams = new MapSqlParameterSource("courseId", courseId);
+            Integer lessons = jdbcTemplate.queryForObject(COUNT_LESSONS_SQL, courseParams, Integer.class);
+            lessonTotal = lessons != null ? lessons : 0;
+            Long enrollments = jdbcTemplate.queryForObject(COUNT_ENROLLMENTS_SQL, courseParams, Long.class);
+            enrollmentsTotal = enrollments != null ? enrollments : 0;
+
+            log.info("Recomputing progress for course {}: {} lessons, {} enrollments",
+                    courseId, lessonTotal, enrollmentsTotal);
+
+            long afterId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                statuses.put(courseId, new RecomputeStatus(courseId, State.RUNNING, lessonTotal,
+                        enrollmentsTotal, processed, updated, queuedAt, startedAt, null, null));
+
+                MapSqlParameterSource chunkParams = new MapSqlParameterSource()
+                        .addValue("courseId", courseId)
+                        .addValue("afterId", afterId)
+                        .addValue("limit", chunkSize);
+                Map<String, Object> chunk = jdbcTemplate.queryForMap(NEXT_CHUNK_SQL, chunkParams);
+                long size = ((Number) chunk.get("chunk_size")).longValue();
+                if (size == 0) {
+                    break;
+                }
+                long upToId = ((Number) chunk.get("last_id")).longValue();
+
+                updated += jdbcTemplate.update(RECOMPUTE_CHUNK_SQL, new MapSqlParameterSource()
+                        .addValue("courseId", courseId)
+                        .addValue("lessonTotal", lessonTotal)
+                        .addValue("afterId", afterId)
+                        .addValue("upToId", upToId));
+                processed += size;
+                afterId = upToId;
+
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            }
+
+            statuses.put(courseId, new RecomputeStatus(courseId, State.COMPLETED, lessonTotal,
+                    enrollmentsTotal, processed, updated, queuedAt, startedAt, OffsetDateTime.now(), null));
+            log.info("Progress recompute for course {} finished: {} enrollments, {} progress rows updated",
+                    courseId, processed, updated);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            statuses.put(courseId, new RecomputeStatus(courseId, State.FAILED, lessonTotal,
+                    enrollmentsTotal, processed, updated, queuedAt, startedAt, OffsetDateTime.now(), "Interrupted"));
+        } catch (Exception e) {
+            log.error("Progress recompute for course {} failed: {}", courseId, e.getMessage());
+            statuses.put(courseId, new RecomputeStatus(courseId, State.FAILED, lessonTotal,
+                    enrollmentsTotal, processed, updated, queuedAt, startedAt, OffsetDateTime.now(), e.getMessage()));
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.codeless.backend.service;
 import com.codeless.backend.domain.Course;
 import com.codeless.backend.domain.CourseReview;
 import com.codeless.backend.domain.User;
+import com.codeless.backend.event.ReviewWrittenEvent;
 import com.codeless.backend.repository.CourseRepository;
 import com.codeless.backend.repository.CourseReviewRepository;
 import com.codeless.backend.repository.EnrollmentRepository;
 import com.codeless.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.OffsetDateTime;
 
 /**
  * Service for managing course reviews and ratings.
@@ -29,6 +32,7 @@ public class CourseReviewService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Submit or update a review for a course.
@@ -76,6 +80,10 @@ public class CourseReviewService {
         // Update course average rating
         updateCourseRating(courseId);
 
+        if (isNew) {
+            eventPublisher.publishEvent(new ReviewWrittenEvent(userId, courseId, OffsetDateTime.now()));
+        }
+
         log.info("{} review for course {}: reviewId={}", isNew ? "Created" : "Updated", courseId, saved.getId());
         return saved;
     }
@@ -0,0 +1,111 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.CourseSection;
+import com.codeless.backend.domain.CurriculumTree;
+import com.codeless.backend.domain.Lesson;
+import com.codeless.backend.repository.CourseRepository;
+import com.codeless.backend.repository.CourseSectionRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-course cache of the section/lesson tree.
+ * Course structure only changes through the admin curriculum endpoints, so the tree is
+ * loaded once, kept as an immutable {@link CurriculumTree} and evicted when an admin edits the
+ * course. The cache is bounded, and entries also expire after a while so that instances which
+ * did not serve the edit pick it up. Unknown course ids are not cached.
+ * Student-specific progress is overlaid on top by {@link CurriculumService}.
+ */
+@Service
+@Slf4j
+public class CurriculumCache {
+
+    private final CourseRepository courseRepository;
+    private final CourseSectionRepository courseSectionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LoadingCache<Long, CurriculumTree> trees;
+
+    public CurriculumCache(
+            CourseRepository courseRepository,
+            CourseSectionRepository courseSectionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.curriculum.cache.max-size:1000}") long maxSize,
+            @Value("${app.curriculum.cache.ttl:10m}") Duration ttl) {
+        this.courseRepository = courseRepository;
+        this.courseSectionRepository = courseSectionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Concurrent first visits of a course share a single load
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(courseId -> transactionTemplate.execute(status -> load(courseId)));
+    }
+
+    /**
+     * Get the curriculum tree for a course, loading it on first access.
+     * A course that does not exist has an empty tree, which is not cached.
+     */
+    public CurriculumTree get(Long courseId) {
+        CurriculumTree tree = trees.get(courseId);
+        return tree != null ? tree : CurriculumTree.empty(courseId);
+    }
+
+    /**
+     * Drop the cached tree for a course, also after the current transaction commits
+     */
+    public void evict(Long courseId) {
+        TransactionalCacheEviction.evict(trees, courseId);
+    }
+
+    /**
+     * Build the tree of a course; null (not cached) if the course does not exist
+     */
+    private CurriculumTree load(Long courseId) {
+        List<CourseSection> sections = courseSectionRepository.findByCourseIdWithLessons(courseId);
+        if (sections.isEmpty() && !courseRepository.existsById(courseId)) {
+            return null;
+        }
+
+        List<CurriculumTree.SectionNode> sectionNodes = new ArrayList<>(sections.size());
+        List<Long> lessonIds = new ArrayList<>();
+        for (CourseSection section : sections) {
+            List<CurriculumTree.LessonNode> lessonNodes = new ArrayList<>(section.getLessons().size());
+            for (Lesson lesson : section.getLessons()) {
+                lessonNodes.add(new CurriculumTree.LessonNode(
+                        lesson.getId(),
+                        section.getId(),
+                        lesson.getTitle(),
+                        lesson.getDescription(),
+                        lesson.getLessonType().name(),
+                        lesson.getContentUrl(),
+                        lesson.getDurationMinutes(),
+                        lesson.getLessonOrder(),
+                        lesson.getIsPreview()
+                ));
+                lessonIds.add(lesson.getId());
+            }
+            sectionNodes.add(new CurriculumTree.SectionNode(
+                    section.getId(),
+                    section.getTitle(),
+                    section.getDescription(),
+                    section.getSectionOrder(),
+                    List.copyOf(lessonNodes)
+            ));
+        }
+
+        log.debug("Loaded curriculum tree for course {}: {} sections, {} lessons",
+                courseId, sectionNodes.size(), lessonIds.size());
+        return new CurriculumTree(courseId, List.copyOf(sectionNodes), List.copyOf(lessonIds));
+    }
+}
@@ -1,12 +1,13 @@
 package com.codeless.backend.service;
 
-import com.codeless.backend.domain.CourseSection;
 import com.codeless.backend.domain.CourseProgress;
+import com.codeless.backend.domain.CurriculumTree;
 import com.codeless.backend.domain.Enrollment;
 import com.codeless.backend.domain.Lesson;
 import com.codeless.backend.domain.LessonProgress;
 import com.codeless.backend.domain.User;
-import com.codeless.backend.repository.CourseSectionRepository;
+import com.codeless.backend.event.LessonCompletedEvent;
+import com.codeless.backend.event.LessonHeartbeatEvent;
 import com.codeless.backend.repository.CourseProgressRepository;
 import com.codeless.backend.repository.EnrollmentRepository;
 import com.codeless.backend.repository.LessonProgressRepository;
@@ -14,9 +15,11 @@ import com.codeless.backend.repository.LessonRepository;
 import com.codeless.backend.repository.UserRepository;
 import com.codeless.backend.web.api.dto.CurriculumDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
@@ -25,29 +28,38 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class CurriculumService {
+
+    // Upper bound on the learning time a single heartbeat or completion can credit
+    private static final int MAX_CREDITED_SECONDS = 300;
+    // Tolerance for client timers running slightly ahead of the server clock
+    private static final int CLOCK_SLACK_SECONDS = 5;
     
-    private final CourseSectionRepository courseSectionRepository;
+    private final CurriculumCache curriculumCache;
     private final LessonProgressRepository lessonProgressRepository;
     private final LessonRepository lessonRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final CourseProgressRepository courseProgressRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LearningEventLog learningEventLog;
     
     @Transactional(readOnly = true)
     public CurriculumDTO.CurriculumResponse getCurriculum(Long courseId, String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
-        // Fetch sections with lessons
-        List<CourseSection> sections = courseSectionRepository.findByCourseIdWithLessons(courseId);
+        // Section/lesson tree is shared across students and cached until an admin edits it
+        CurriculumTree tree = curriculumCache.get(courseId);
         
-        // Fetch user's progress for this course
-        List<LessonProgress> progressList = lessonProgressRepository.findByUserIdAndCourseId(user.getId(), courseId);
+        // Fetch only this user's progress rows, keyed by the cached lesson ids
+        List<LessonProgress> progressList = tree.lessonIds().isEmpty()
+                ? List.of()
+                : lessonProgressRepository.findByUserIdAndLessonIdIn(user.getId(), tree.lessonIds());
         Map<Long, LessonProgress> progressMap = progressList.stream()
                 .collect(Collectors.toMap(lp -> lp.getLesson().getId(), lp -> lp));
         
-        // Map to DTOs
-        List<CurriculumDTO.SectionDTO> sectionDTOs = sections.stream()
+        // Overlay progress onto the cached tree
+        List<CurriculumDTO.SectionDTO> sectionDTOs = tree.sections().stream()
                 .map(section -> CurriculumDTO.SectionDTO.from(section, progressMap))
                 .collect(Collectors.toList());
         
@@ -75,25 +87,42 @@ public class CurriculumService {
                     return newProgress;
                 });
         
-        // Update progress
+        boolean firstVisit = progress.getId() == null;
+        boolean firstCompletion = !Boolean.TRUE.equals(progress.getCompleted());
+        int timeSpentSeconds = creditedSeconds(progress, request.timeSpentSeconds());
+        OffsetDateTime now = OffsetDateTime.now();
+        
+        // Update progress; completed_at keeps the first completion so re-completing is not counted again
         progress.setCompleted(true);
-        progress.setCompletedAt(OffsetDateTime.now());
+        if (firstCompletion || progress.getCompletedAt() == null) {
+            progress.setCompletedAt(now);
+        }
         
         if (request.positionSeconds() != null) {
             progress.setLastPositionSeconds(request.positionSeconds());
         }
         
-        if (request.timeSpentSeconds() != null) {
-            progress.setTimeSpentSeconds(
-                    (progress.getTimeSpentSeconds() != null ? progress.getTimeSpentSeconds() : 0) + 
-                    request.timeSpentSeconds()
-            );
-        }
+        addTimeSpent(progress, timeSpentSeconds);
         
         lessonProgressRepository.save(progress);
         
         // Update course-level progress
-        updateCourseProgress(user.getId(), lesson.getSection().getCourse().getId());
+        Long courseId = lesson.getSection().getCourse().getId();
+        boolean courseCompleted = updateCourseProgress(user.getId(), courseId);
+        
+        eventPublisher.publishEvent(new LessonCompletedEvent(
+                user.getId(),
+                courseId,
+                lessonId,
+                firstCompletion,
+                courseCompleted,
+                firstVisit,
+                timeSpentSeconds,
+                progress.getTimeSpentSeconds(),
+                now
+        ));
+        learningEventLog.lessonCompleted(
+                user.getId(), courseId, lessonId, request.positionSeconds(), timeSpentSeconds);
         
         return new CurriculumDTO.LessonCompleteResponse(
                 lessonId,
@@ -102,19 +131,72 @@ public class CurriculumService {
         );
     }
     
-    private void updateCourseProgress(Long userId, Long courseId) {
+    @Transactional
+    public void recordHeartbeat(Long lessonId, String userEmail, CurriculumDTO.LessonHeartbeatRequest request) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        
+        Lesson lesson = lessonRepository.findById(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found"));
+        
+        LessonProgress progress = lessonProgressRepository.findByUserIdAndLessonId(user.getId(), lessonId)
+                .orElseGet(() -> {
+                    LessonProgress newProgress = new LessonProgress();
+                    newProgress.setUser(user);
+                    newProgress.setLesson(lesson);
+                    return newProgress;
+                });
+        boolean firstVisit = progress.getId() == null;
+        int timeSpentSeconds = creditedSeconds(progress, request.timeSpentSeconds());
+        
+        if (request.positionSeconds() != null) {
+            progress.setLastPositionSeconds(request.positionSeconds());
+        }
+        
+        addTimeSpent(progress, timeSpentSeconds);
+        
+        lessonProgressRepository.save(progress);
+        
+        Long courseId = lesson.getSection().getCourse().getId();
+        eventPublisher.publishEvent(new LessonHeartbeatEvent(
+                user.getId(),
+                courseId,
+                lessonId,
+                firstVisit,
+                request.positionSeconds(),
+                timeSpentSeconds,
+                OffsetDateTime.now()
+        ));
+        learningEventLog.lessonProgress(
+                user.getId(), courseId, lessonId, request.positionSeconds(), timeSpentSeconds);
+    }
+    
+    public void recordLessonOpened(Long lessonId, Long userId) {
+        // The user id comes from the authenticated request; only the course id is looked up
+        Long courseId = lessonRepository.findCourseIdById(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found"));
+        
+        learningEventLog.lessonOpened(userId, courseId, lessonId);
+    }
+    
+    /**
+     * Recalculate course-level progress.
+     * @return true if this update took the course to 100% completion for the first time
+     */
+    private boolean updateCourseProgress(Long userId, Long courseId) {
         // Find the enrollment
         Enrollment enrollment = enrollmentRepository.findByUserIdAndCourseId(userId, courseId)
                 .orElseThrow(() -> new IllegalArgumentException("Enrollment not found"));
         
-        // Count total lessons in the course
-        Integer totalLessons = courseProgressRepository.countActualLessonsInCourse(courseId);
+        // Count total lessons in the course from the database: the cached tree may be stale on this
+        // instance, and a short total would record a permanent completion
+        int totalLessons = (int) lessonRepository.countByCourseId(courseId);
         
         // Count completed lessons for this user
         Long completedLessons = lessonProgressRepository.countCompletedLessonsByUserAndCourse(userId, courseId);
         
         // Calculate completion percentage
-        int completionPercentage = totalLessons > 0 ? (int) ((completedLessons * 100) / totalLessons) : 0;
+        int completionPercentage = totalLessons > 0 ? (int) Math.min((completedLessons * 100) / totalLessons, 100) : 0;
         
         // Sum time spent
         Long totalTimeSpent = lessonProgressRepository.sumTimeSpentByUserAndCourse(userId, courseId);
@@ -135,7 +217,38 @@ public class CurriculumService {
         courseProgress.setLastAccessedAt(OffsetDateTime.now());
         courseProgress.setUpdatedAt(OffsetDateTime.now());
         
+        // completed_at survives the percentage dropping when lessons are added, so finishing the
+        // course again is not a second completion
+        boolean firstCourseCompletion = completionPercentage >= 100 && courseProgress.getCompletedAt() == null;
+        if (firstCourseCompletion) {
+            courseProgress.setCompletedAt(OffsetDateTime.now());
+        }
+        
         courseProgressRepository.save(courseProgress);
+        
+        return firstCourseCompletion;
     }
-}
 
+    /**
+     * Learning time to credit for a heartbeat or completion: never more than has passed since the
+     * previous update of the lesson progress, and never more than MAX_CREDITED_SECONDS
+     */
+    private static int creditedSeconds(LessonProgress progress, Integer requested) {
+        if (requested == null || requested <= 0) {
+            return 0;
+        }
+        long credited = Math.min(requested, MAX_CREDITED_SECONDS);
+        if (progress.getUpdatedAt() != null) {
+            long elapsed = Duration.between(progress.getUpdatedAt(), OffsetDateTime.now()).getSeconds();
+            credited = Math.min(credited, Math.max(elapsed + CLOCK_SLACK_SECONDS, 0));
+        }
+        return (int) credited;
+    }
+
+    private static void addTimeSpent(LessonProgress progress, int seconds) {
+        if (seconds > 0) {
+            long total = (long) (progress.getTimeSpentSeconds() != null ? progress.getTimeSpentSeconds() : 0) + seconds;
+            progress.setTimeSpentSeconds((int) Math.min(total, Integer.MAX_VALUE));
+        }
+    }
+}
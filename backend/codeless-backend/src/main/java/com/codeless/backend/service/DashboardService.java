@@ -1,104 +1,119 @@
 package com.codeless.backend.service;
 
-import com.codeless.backend.domain.User;
-import com.codeless.backend.domain.UserAchievement;
+import com.codeless.backend.domain.CourseProgress;
+import com.codeless.backend.domain.Enrollment;
 import com.codeless.backend.exception.ResourceNotFoundException;
 import com.codeless.backend.repository.*;
 import com.codeless.backend.web.api.dto.DashboardDTO;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * "My learning" dashboard read model.
+ * The whole dashboard is served from a fixed number of queries regardless of how many
+ * courses the student is enrolled in: user + streak, enrollments left-joined with
+ * course_progress, and earned achievements. Lesson totals for courses without a progress
+ * row come from the cached curriculum tree.
+ */
 @Service
 public class DashboardService {
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final CourseProgressRepository courseProgressRepository;
-    private final LearningStreakRepository learningStreakRepository;
     private final UserAchievementRepository userAchievementRepository;
+    private final CurriculumCache curriculumCache;
 
     public DashboardService(UserRepository userRepository, EnrollmentRepository enrollmentRepository,
-                          CourseProgressRepository courseProgressRepository,
-                          LearningStreakRepository learningStreakRepository,
-                          UserAchievementRepository userAchievementRepository) {
+                          UserAchievementRepository userAchievementRepository,
+                          CurriculumCache curriculumCache) {
         this.userRepository = userRepository;
         this.enrollmentRepository = enrollmentRepository;
-        this.courseProgressRepository = courseProgressRepository;
-        this.learningStreakRepository = learningStreakRepository;
         this.userAchievementRepository = userAchievementRepository;
+        this.curriculumCache = curriculumCache;
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardDTO.DashboardResponse getDashboard(String userEmail) {
+        return buildDashboard(resolveUser(userEmail));
+    }
+
+    /**
+     * Dashboard of the authenticated user by id, as cached by DashboardSnapshotCache
+     */
+    @Transactional(readOnly = true)
+    public DashboardDTO.DashboardResponse getDashboard(Long userId) {
+        return buildDashboard(userRepository.findStreakViewById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId)));
     }
 
     @Transactional(readOnly = true)
     public DashboardDTO.DashboardStatsDTO getStats(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userEmail));
-        
-        // Total enrolled courses
-        int totalCourses = enrollmentRepository.findByUser(user).size();
-        
-        // Completed courses (100% completion)
-        Long completed = courseProgressRepository.countCompletedByUserId(user.getId());
-        int completedCourses = completed != null ? completed.intValue() : 0;
-        
-        // Total learning time in hours
-        Long totalSeconds = courseProgressRepository.sumTimeSpentByUserId(user.getId());
-        long learningTimeHours = totalSeconds != null ? totalSeconds / 3600 : 0;
-        
-        // Current streak
-        int currentStreak = learningStreakRepository.findByUserId(user.getId())
-                .map(streak -> streak.getCurrentStreakDays())
-                .orElse(0);
-        
-        return new DashboardDTO.DashboardStatsDTO(
-                totalCourses,
-                completedCourses,
-                learningTimeHours,
-                currentStreak
-        );
+        UserRepository.UserStreakView user = resolveUser(userEmail);
+        return buildStats(loadCourses(user.getUserId()), user.getCurrentStreak());
     }
 
     @Transactional(readOnly = true)
     public List<DashboardDTO.AchievementDTO> getAchievements(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userEmail));
-        
-        List<UserAchievement> userAchievements = userAchievementRepository
-                .findByUserIdWithAchievement(user.getId());
-        
-        return userAchievements.stream()
-                .map(DashboardDTO.AchievementDTO::from)
-                .toList();
+        return loadAchievements(resolveUser(userEmail).getUserId());
     }
 
     @Transactional(readOnly = true)
     public List<DashboardDTO.CourseProgressDTO> getEnrolledCoursesWithProgress(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        return loadCourses(resolveUser(userEmail).getUserId());
+    }
+
+    // ==================== Helpers ====================
+
+    private DashboardDTO.DashboardResponse buildDashboard(UserRepository.UserStreakView user) {
+        List<DashboardDTO.CourseProgressDTO> courses = loadCourses(user.getUserId());
+        return new DashboardDTO.DashboardResponse(
+                buildStats(courses, user.getCurrentStreak()),
+                courses,
+                loadAchievements(user.getUserId())
+        );
+    }
+
+    private UserRepository.UserStreakView resolveUser(String userEmail) {
+        return userRepository.findStreakViewByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userEmail));
-        
-        return enrollmentRepository.findByUser(user).stream()
-                .map(enrollment -> {
-                    var progress = courseProgressRepository.findByEnrollmentId(enrollment.getId())
-                            .orElseGet(() -> {
-                                // No progress yet, calculate actual lesson count from curriculum
-                                Long courseId = enrollment.getCourse().getId();
-                                
-                                // Count actual lessons in the course curriculum
-                                Integer actualLessonCount = courseProgressRepository.countActualLessonsInCourse(courseId);
-                                
-                                var defaultProgress = new com.codeless.backend.domain.CourseProgress();
-                                defaultProgress.setId(0L); // Temporary ID for non-persisted progress
-                                defaultProgress.setEnrollment(enrollment);
-                                defaultProgress.setLessonCompleted(0);
-                                defaultProgress.setLessonTotal(actualLessonCount != null ? actualLessonCount : 0);
-                                defaultProgress.setTimeSpentSeconds(0L);
-                                defaultProgress.setCompletionPercentage(0);
-                                defaultProgress.setLastAccessedAt(null);
-                                return defaultProgress;
-                            });
-                    return DashboardDTO.CourseProgressDTO.from(enrollment, progress);
-                })
+    }
+
+    private List<DashboardDTO.CourseProgressDTO> loadCourses(Long userId) {
+        List<Object[]> rows = enrollmentRepository.findWithProgressByUserId(userId);
+        List<DashboardDTO.CourseProgressDTO> courses = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Enrollment enrollment = (Enrollment) row[0];
+            CourseProgress progress = (CourseProgress) row[1];
+            courses.add(progress != null
+                    ? DashboardDTO.CourseProgressDTO.from(enrollment, progress)
+                    : DashboardDTO.CourseProgressDTO.notStarted(
+                            enrollment, curriculumCache.get(enrollment.getCourse().getId()).lessonCount()));
+        }
+        return courses;
+    }
+
+    private List<DashboardDTO.AchievementDTO> loadAchievements(Long userId) {
+        return userAchievementRepository.findByUserIdWithAchievement(userId).stream()
+                .map(DashboardDTO.AchievementDTO::from)
                 .toList();
     }
-}
 
+    private static DashboardDTO.DashboardStatsDTO buildStats(List<DashboardDTO.CourseProgressDTO> courses, Integer currentStreak) {
+        int completedCourses = 0;
+        long totalSeconds = 0;
+        for (DashboardDTO.CourseProgressDTO course : courses) {
+            if (course.completionPercentage() >= 100) {
+                completedCourses++;
+            }
+            totalSeconds += course.timeSpentSeconds();
+        }
+        return new DashboardDTO.DashboardStatsDTO(
+                courses.size(),
+                completedCourses,
+                totalSeconds / 3600,
+                currentStreak != null ? currentStreak : 0
+        );
+    }
+}
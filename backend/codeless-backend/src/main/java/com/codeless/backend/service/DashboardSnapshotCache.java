@@ -0,0 +1,94 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.event.AchievementsAwardedEvent;
+import com.codeless.backend.event.EnrollmentCreatedEvent;
+import com.codeless.backend.event.EnrollmentsImportedEvent;
+import com.codeless.backend.event.LessonCompletedEvent;
+import com.codeless.backend.event.QuizSubmittedEvent;
+import com.codeless.backend.web.api.dto.DashboardDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Per-user snapshot of the "my learning" dashboard.
+ * A student's dashboard only changes when they complete a lesson, enroll, pass a quiz or earn
+ * an achievement, so snapshots are dropped on exactly those events (after the change commits)
+ * and otherwise served from memory. Size and age bounds keep the cache small and cap staleness
+ * of values written behind asynchronously, such as the learning streak.
+ * Hit/miss/eviction metrics are published as cache.* (cache=dashboard.snapshots), invalidations
+ * as dashboard.snapshots.invalidations tagged by event.
+ */
+@Service
+public class DashboardSnapshotCache {
+
+    private static final String CACHE_NAME = "dashboard.snapshots";
+
+    private final DashboardService dashboardService;
+    private final MeterRegistry meterRegistry;
+
+    // Keyed by user id, which both the request (via JwtAuthFilter) and the invalidating events carry
+    private final Cache<Long, DashboardDTO.DashboardResponse> snapshots;
+
+    public DashboardSnapshotCache(
+            DashboardService dashboardService,
+            MeterRegistry meterRegistry,
+            @Value("${app.dashboard.cache.max-size:10000}") long maxSize,
+            @Value("${app.dashboard.cache.ttl:5m}") Duration ttl) {
+        this.dashboardService = dashboardService;
+        this.meterRegistry = meterRegistry;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+    }
+
+    public DashboardDTO.DashboardResponse get(Long userId) {
+        return snapshots.get(userId, dashboardService::getDashboard);
+    }
+
+    public void invalidate(Long userId, String reason) {
+        snapshots.invalidate(userId);
+        meterRegistry.counter(CACHE_NAME + ".invalidations", "event", reason).increment();
+    }
+
+    // ==================== Invalidation ====================
+    // Synchronous after-commit listeners: the next dashboard read already sees the change
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        invalidate(event.userId(), "lesson_completed");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentCreated(EnrollmentCreatedEvent event) {
+        invalidate(event.userId(), "enrollment_created");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsImported(EnrollmentsImportedEvent event) {
+        for (Long userId : event.userIds()) {
+            invalidate(userId, "enrollments_imported");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        if (event.passed()) {
+            invalidate(event.userId(), "quiz_passed");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementsAwarded(AchievementsAwardedEvent event) {
+        invalidate(event.userId(), "achievements_awarded");
+    }
+}
@@ -0,0 +1,201 @@
+package com.codeless.backend.service;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tolerant matcher for FILL_BLANK answers, compiled once per question from its comma-separated
+ * acceptable answers.
+ * Answers are compared in a folded form: Unicode NFKC, lower case, punctuation, symbols and any
+ * kind of whitespace (including non-breaking spaces) collapsed to single spaces, so "Paris." and
+ * "paris " both equal "paris". The folded acceptable answers form a hash set that settles the
+ * common case with one lookup. Beyond that:
+ * <ul>
+ *   <li>numeric answers compare by value ("3" matches "3.0"), and "3.14±0.01" or "3.14 +/- 0.01"
+ *       accepts anything within the tolerance</li>
+ *   <li>text answers accept a bounded number of typos (Levenshtein distance), scaled down for
+ *       short answers so that one-letter differences between short words still count as wrong</li>
+ * </ul>
+ */
+public final class FillBlankMatcher {
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(?:\\.\\d+)?");
+    private static final Pattern NUMBER_WITH_TOLERANCE = Pattern.compile(
+            "\\s*(-?\\d+(?:\\.\\d+)?)\\s*(?:±|\\+/-|\\+-)\\s*(\\d+(?:\\.\\d+)?)\\s*");
+
+    private record NumericAnswer(BigDecimal value, BigDecimal tolerance) {}
+
+    private record FuzzyAnswer(String text, int maxDistance) {}
+
+    private final Set<String> exact;
+    private final List<NumericAnswer> numeric;
+    private final List<FuzzyAnswer> fuzzy;
+
+    private FillBlankMatcher(Set<String> exact, List<NumericAnswer> numeric, List<FuzzyAnswer> fuzzy) {
+        this.exact = exact;
+        this.numeric = numeric;
+        this.fuzzy = fuzzy;
+    }
+
+    /**
+     * Compile the acceptable answers of a question
+     *
+     * @param maxEditDistance typos tolerated in long answers; 0 disables typo tolerance
+     */
+    public static FillBlankMatcher compile(String acceptableAnswers, int maxEditDistance) {
+        Set<String> exact = new HashSet<>();
+        List<NumericAnswer> numeric = new ArrayList<>();
+        List<FuzzyAnswer> fuzzy = new ArrayList<>();
+        if (acceptableAnswers != null) {
+            for (String raw : acceptableAnswers.split(",")) {
+                String nfkc = Normalizer.normalize(raw, Normalizer.Form.NFKC);
+                Matcher tolerance = NUMBER_WITH_TOLERANCE.matcher(nfkc);
+                if (tolerance.matches()) {
+                    numeric.add(new NumericAnswer(new BigDecimal(tolerance.group(1)), new BigDecimal(tolerance.group(2))));
+                    continue;
+                }
+
+                String folded = fold(nfkc);
+                if (folded.isEmpty()) {
+                    continue;
+                }
+                exact.add(folded);
+                if (NUMBER.matcher(folded).matches()) {
+                    numeric.add(new NumericAnswer(new BigDecimal(folded), BigDecimal.ZERO));
+                } else {
+                    int distance = Math.min(maxEditDistance, allowedTypos(folded.length()));
+                    if (distance > 0) {
+                        fuzzy.add(new FuzzyAnswer(folded, distance));
+                    }
+                }
+            }
+        }
+        return new FillBlankMatcher(Set.copyOf(exact), List.copyOf(numeric), List.copyOf(fuzzy));
+    }
+
+    public boolean matches(String answer) {
+        if (answer == null) {
+            return false;
+        }
+        String folded = fold(answer);
+        if (folded.isEmpty()) {
+            return false;
+        }
+        if (exact.contains(folded)) {
+            return true;
+        }
+
+        if (NUMBER.matcher(folded).matches()) {
+            // A number is right or wrong by value, never "close enough" by spelling
+            BigDecimal value = new BigDecimal(folded);
+            for (NumericAnswer candidate : numeric) {
+                if (value.subtract(candidate.value()).abs().compareTo(candidate.tolerance()) <= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (FuzzyAnswer candidate : fuzzy) {
+            if (withinDistance(folded, candidate.text(), candidate.maxDistance())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Folded form used for comparison; decimal points, commas and minus signs that belong to a
+     * number are kept
+     */
+    static String fold(String raw) {
+        String s = Normalizer.normalize(raw, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder out = new StringBuilder(s.length());
+        boolean separator = false;
+        for (int i = 0; i < s.length(); ) {
+            int cp = s.codePointAt(i);
+            int next = i + Character.charCount(cp);
+            if (isWordChar(cp) || isNumberMark(s, i, next, cp)) {
+                if (separator && out.length() > 0) {
+                    out.append(' ');
+                }
+                separator = false;
+                out.appendCodePoint(cp);
+            } else {
+                separator = true;
+            }
+            i = next;
+        }
+        return out.toString();
+    }
+
+    private static boolean isWordChar(int cp) {
+        if (Character.isLetterOrDigit(cp)) {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    private static boolean isNumberMark(String s, int at, int next, int cp) {
+        boolean digitAfter = next < s.length() && Character.isDigit(s.codePointAt(next));
+        if (!digitAfter) {
+            return false;
+        }
+        int before = at > 0 ? s.codePointBefore(at) : -1;
+        if (cp == '.' || cp == ',') {
+            return before >= 0 && Character.isDigit(before);
+        }
+        if (cp == '-') {
+            // A leading minus, not a hyphen inside a word
+            return before < 0 || !isWordChar(before);
+        }
+        return false;
+    }
+
+    private static int allowedTypos(int length) {
+        if (length < 5) {
+            return 0;
+        }
+        return length < 9 ? 1 : 2;
+    }
+
+    /**
+     * Levenshtein distance of a and b is at most max; gives up as soon as a row exceeds max
+     */
+    private static boolean withinDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+}
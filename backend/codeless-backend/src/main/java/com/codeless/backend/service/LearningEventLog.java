@@ -0,0 +1,246 @@
+package com.codeless.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Append-only log of student learning activity (learning_events).
+ * Capture only offers to a bounded in-memory buffer and never blocks the request thread;
+ * when the buffer is full the event is dropped and counted. A scheduled writer drains the
+ * buffer and streams batches into the month-partitioned table with PostgreSQL COPY.
+ * Month partitions are created a few months ahead by a daily job, so in normal operation
+ * rows never land in the default partition.
+ */
+@Service
+@Slf4j
+public class LearningEventLog {
+
+    public enum Type {
+        LESSON_OPENED,
+        LESSON_PROGRESS,
+        LESSON_COMPLETED,
+        QUIZ_STARTED,
+        QUIZ_SUBMITTED,
+        ARTICLE_READ
+    }
+
+    public record Entry(
+            Type type,
+            Long userId,
+            Long courseId,
+            Long lessonId,
+            Long quizId,
+            Long attemptId,
+            Integer positionSeconds,
+            Integer timeSpentSeconds,
+            BigDecimal score,
+            OffsetDateTime occurredAt
+    ) {}
+
+    private static final String COPY_SQL = """
+            COPY learning_events (occurred_at, event_type, user_id, course_id, lesson_id, quiz_id,
+                                  attempt_id, position_seconds, time_spent_seconds, score)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final BlockingQueue<Entry> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int partitionsAhead;
+
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    public LearningEventLog(
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.learning-event-log.buffer-capacity:50000}") int bufferCapacity,
+            @Value("${app.learning-event-log.batch-size:5000}") int batchSize,
+            @Value("${app.learning-event-log.partitions-ahead:3}") int partitionsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.partitionsAhead = partitionsAhead;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.dropped = meterRegistry.counter("learning_events.dropped");
+        this.written = meterRegistry.counter("learning_events.written");
+        this.failed = meterRegistry.counter("learning_events.failed");
+        meterRegistry.gaugeCollectionSize("learning_events.buffered", List.of(), buffer);
+    }
+
+    // ==================== Capture ====================
+
+    public void lessonOpened(Long userId, Long courseId, Long lessonId) {
+        append(new Entry(Type.LESSON_OPENED, userId, courseId, lessonId, null, null,
+                null, null, null, OffsetDateTime.now()));
+    }
+
+    public void lessonProgress(Long userId, Long courseId, Long lessonId, Integer positionSeconds, Integer timeSpentSeconds) {
+        append(new Entry(Type.LESSON_PROGRESS, userId, courseId, lessonId, null, null,
+                positionSeconds, timeSpentSeconds, null, OffsetDateTime.now()));
+    }
+
+    public void lessonCompleted(Long userId, Long courseId, Long lessonId, Integer positionSeconds, Integer timeSpentSeconds) {
+        append(new Entry(Type.LESSON_COMPLETED, userId, courseId, lessonId, null, null,
+                positionSeconds, timeSpentSeconds, null, OffsetDateTime.now()));
+    }
+
+    public void quizStarted(Long userId, Long lessonId, Long quizId, Long attemptId) {
+        append(new Entry(Type.QUIZ_STARTED, userId, null, lessonId, quizId, attemptId,
+                null, null, null, OffsetDateTime.now()));
+    }
+
+    public void quizSubmitted(Long userId, Long lessonId, Long quizId, Long attemptId, Integer timeSpentSeconds, BigDecimal score) {
+        append(new Entry(Type.QUIZ_SUBMITTED, userId, null, lessonId, quizId, attemptId,
+                null, timeSpentSeconds, score, OffsetDateTime.now()));
+    }
+
+    public void articleRead(Long userId, Long lessonId) {
+        append(new Entry(Type.ARTICLE_READ, userId, null, lessonId, null, null,
+                null, null, null, OffsetDateTime.now()));
+    }
+
+    /**
+     * Non-blocking append; drops the event when the buffer is full
+     */
+    public void append(Entry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    // ==================== Writer ====================
+
+    @Scheduled(fixedDelayString = "${app.learning-event-log.flush-interval-ms:1000}")
+    public void flush() {
+        List<Entry> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Keep the current month and the next partitionsAhead months partitioned, so inserts do not
+     * fall through to the default partition. Each month is handled on its own: one failure does
+     * not stop the others and is retried on the next run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.learning-event-log.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            LocalDate monthStart = month.plusMonths(i);
+            try {
+                createPartition(monthStart);
+            } catch (Exception e) {
+                log.error("Failed to create learning_events partition for {}: {}", monthStart, e.getMessage());
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        StringBuilder csv = new StringBuilder(batch.size() * 96);
+        for (Entry e : batch) {
+            csv.append(e.occurredAt()).append(',')
+                    .append(e.type().name()).append(',');
+            appendValue(csv, e.userId()).append(',');
+            appendValue(csv, e.courseId()).append(',');
+            appendValue(csv, e.lessonId()).append(',');
+            appendValue(csv, e.quizId()).append(',');
+            appendValue(csv, e.attemptId()).append(',');
+            appendValue(csv, e.positionSeconds()).append(',');
+            appendValue(csv, e.timeSpentSeconds()).append(',');
+            appendValue(csv, e.score()).append('\n');
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            long rows = connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(COPY_SQL, new StringReader(csv.toString()));
+            written.increment(rows);
+            log.debug("Copied {} learning events", rows);
+        } catch (Exception e) {
+            // Activity log is best-effort: count the loss rather than back up capture
+            failed.increment(batch.size());
+            log.error("Failed to copy {} learning events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Create a month partition, moving any rows the default partition already holds for that month.
+     * CREATE TABLE ... PARTITION OF would fail in that case, and it locks the whole table; instead
+     * the month is built as a standalone table and attached, which only blocks writers to the
+     * default partition for the duration of the (normally empty) move.
+     */
+    private void createPartition(LocalDate monthStart) {
+        String name = "learning_events_" + monthStart.format(PARTITION_SUFFIX);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        String from = "'" + monthStart + "'";
+        String to = "'" + monthStart.plusMonths(1) + "'";
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name
+                    + " (LIKE learning_events INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            // Holds off COPY batches into the default partition until the month is attached
+            jdbcTemplate.execute("LOCK TABLE learning_events_default IN SHARE ROW EXCLUSIVE MODE");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM learning_events_default"
+                    + " WHERE occurred_at >= " + from + " AND occurred_at < " + to + " RETURNING *)"
+                    + " INSERT INTO " + name + " SELECT * FROM moved");
+            // Lets ATTACH skip validating the new table's rows
+            jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_range"
+                    + " CHECK (occurred_at >= " + from + " AND occurred_at < " + to + ")");
+            jdbcTemplate.execute("ALTER TABLE learning_events ATTACH PARTITION " + name
+                    + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            jdbcTemplate.execute("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_range");
+            if (moved > 0) {
+                log.info("Moved {} learning events from the default partition into {}", moved, name);
+            }
+        });
+    }
+
+    private static StringBuilder appendValue(StringBuilder csv, Object value) {
+        // Unquoted empty field is NULL in CSV COPY
+        return value != null ? csv.append(value) : csv;
+    }
+}
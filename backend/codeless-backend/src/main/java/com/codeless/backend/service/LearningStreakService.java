@@ -0,0 +1,268 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.event.LessonCompletedEvent;
+import com.codeless.backend.event.LessonHeartbeatEvent;
+import com.codeless.backend.event.QuizSubmittedEvent;
+import com.codeless.backend.event.StreakExtendedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains learning_streaks from learning activity events.
+ * Streak state is updated in memory per user (day boundaries in the user's timezone) and
+ * written back in batches, so a burst of heartbeats costs at most one upsert per user per flush.
+ * Broken streaks are reset by a single set-based UPDATE; dashboards only read the stored values.
+ */
+@Service
+@Slf4j
+public class LearningStreakService {
+
+    private static final String LOAD_STATE_SQL = """
+            SELECT u.timezone, ls.current_streak_days, ls.longest_streak_days, ls.last_activity_date
+            FROM users u
+            LEFT JOIN learning_streaks ls ON ls.user_id = u.id
+            WHERE u.id = ?
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO learning_streaks (user_id, current_streak_days, longest_streak_days, last_activity_date, updated_at)
+            VALUES (?, ?, ?, ?, NOW())
+            ON CONFLICT (user_id) DO UPDATE
+            SET current_streak_days = EXCLUDED.current_streak_days,
+                longest_streak_days = GREATEST(learning_streaks.longest_streak_days, EXCLUDED.longest_streak_days),
+                last_activity_date = EXCLUDED.last_activity_date,
+                updated_at = NOW()
+            WHERE learning_streaks.last_activity_date IS NULL
+               OR learning_streaks.last_activity_date <= EXCLUDED.last_activity_date
+            """;
+
+    // A streak survives as long as the last activity was "yesterday" in the user's own timezone.
+    // A zone this server's tzdata does not know falls back to UTC rather than failing the whole reset.
+    private static final String RESET_BROKEN_SQL = """
+            UPDATE learning_streaks ls
+            SET current_streak_days = 0, updated_at = NOW()
+            FROM users u
+            LEFT JOIN pg_timezone_names tz ON tz.name = u.timezone
+            WHERE u.id = ls.user_id
+              AND ls.current_streak_days > 0
+              AND ls.last_activity_date < (NOW() AT TIME ZONE COALESCE(tz.name, 'UTC'))::date - 1
+            """;
+
+    private static final String TIMEZONE_NAMES_SQL = "SELECT name FROM pg_timezone_names";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long idleEvictMillis;
+
+    private final Map<Long, StreakState> states = new ConcurrentHashMap<>();
+
+    // Zone names PostgreSQL accepts, loaded on first use; tzdata only changes with a server upgrade
+    private volatile Set<String> databaseZones;
+
+    public LearningStreakService(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.streaks.idle-evict-ms:3600000}") long idleEvictMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.idleEvictMillis = idleEvictMillis;
+    }
+
+    private static final class StreakState {
+        ZoneId zone;
+        int current;
+        int longest;
+        LocalDate lastActivityDate;
+        boolean dirty;
+        long touchedAt = System.currentTimeMillis();
+    }
+
+    private record PendingWrite(Long userId, int current, int longest, LocalDate lastActivityDate) {}
+
+    // ==================== Event intake ====================
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        recordActivity(event.userId(), event.occurredAt());
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonHeartbeat(LessonHeartbeatEvent event) {
+        recordActivity(event.userId(), event.occurredAt());
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        recordActivity(event.userId(), event.occurredAt());
+    }
+
+    /**
+     * Apply one activity to the user's in-memory streak.
+     * Several activities on the same local day collapse into a no-op.
+     */
+    public void recordActivity(Long userId, OffsetDateTime occurredAt) {
+        StreakExtendedEvent[] extended = new StreakExtendedEvent[1];
+        states.compute(userId, (id, state) -> {
+            if (state == null) {
+                state = loadState(id);
+                if (state == null) {
+                    // User was deleted before the event got processed
+                    return null;
+                }
+            }
+            state.touchedAt = System.currentTimeMillis();
+
+            LocalDate day = occurredAt.atZoneSameInstant(state.zone).toLocalDate();
+            if (state.lastActivityDate != null && !day.isAfter(state.lastActivityDate)) {
+                return state;
+            }
+
+            boolean continues = state.lastActivityDate != null
+                    && day.equals(state.lastActivityDate.plusDays(1));
+            state.current = continues ? state.current + 1 : 1;
+            state.longest = Math.max(state.longest, state.current);
+            state.lastActivityDate = day;
+            state.dirty = true;
+            extended[0] = new StreakExtendedEvent(id, state.current, state.longest, occurredAt);
+            return state;
+        });
+        if (extended[0] != null) {
+            eventPublisher.publishEvent(extended[0]);
+        }
+    }
+
+    /**
+     * Whether a timezone id is usable on both sides: java.time for streak days and PostgreSQL's
+     * AT TIME ZONE for the broken-streak reset. The JDK also knows ids (e.g. SystemV/*, or zones
+     * newer than the database's tzdata) that PostgreSQL rejects.
+     */
+    public boolean isSupportedTimezone(String timezone) {
+        if (!ZoneId.getAvailableZoneIds().contains(timezone)) {
+            return false;
+        }
+        Set<String> zones = databaseZones;
+        if (zones == null) {
+            zones = Set.copyOf(jdbcTemplate.queryForList(TIMEZONE_NAMES_SQL, String.class));
+            databaseZones = zones;
+        }
+        return zones.contains(timezone);
+    }
+
+    /**
+     * Pick up a changed timezone on the next activity
+     */
+    public void onTimezoneChanged(Long userId, ZoneId zone) {
+        states.computeIfPresent(userId, (id, state) -> {
+            state.zone = zone;
+            return state;
+        });
+    }
+
+    // ==================== Write-behind ====================
+
+    @Scheduled(fixedDelayString = "${app.streaks.flush-interval-ms:10000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<PendingWrite> batch = new ArrayList<>();
+
+        for (Long userId : states.keySet()) {
+            states.computeIfPresent(userId, (id, state) -> {
+                if (state.dirty) {
+                    batch.add(new PendingWrite(id, state.current, state.longest, state.lastActivityDate));
+                    state.dirty = false;
+                    return state;
+                }
+                // Keep the map bounded to recently active learners
+                return now - state.touchedAt > idleEvictMillis ? null : state;
+            });
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch.stream()
+                    .map(w -> new Object[]{w.userId(), w.current(), w.longest(), Date.valueOf(w.lastActivityDate())})
+                    .toList());
+            log.debug("Flushed {} learning streak updates", batch.size());
+        } catch (Exception e) {
+            log.error("Failed to flush {} learning streak updates: {}", batch.size(), e.getMessage());
+            for (PendingWrite w : batch) {
+                states.computeIfPresent(w.userId(), (id, state) -> {
+                    state.dirty = true;
+                    return state;
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==================== Nightly reset ====================
+
+    /**
+     * Zero out streaks whose last activity is older than yesterday in the user's timezone.
+     * Runs hourly by default so that every timezone's midnight is covered.
+     */
+    @Scheduled(cron = "${app.streaks.reset-cron:0 5 * * * *}")
+    public void resetBrokenStreaks() {
+        // Persist pending activity first so we never reset a streak that was just extended
+        flush();
+        int reset = jdbcTemplate.update(RESET_BROKEN_SQL);
+        if (reset > 0) {
+            log.info("Reset {} broken learning streaks", reset);
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private StreakState loadState(Long userId) {
+        StreakState state = new StreakState();
+        jdbcTemplate.query(LOAD_STATE_SQL, rs -> {
+            state.zone = parseZone(rs.getString("timezone"));
+            state.current = rs.getInt("current_streak_days");
+            state.longest = rs.getInt("longest_streak_days");
+            Date last = rs.getDate("last_activity_date");
+            state.lastActivityDate = last != null ? last.toLocalDate() : null;
+        }, userId);
+        return state.zone != null ? state : null;
+    }
+
+    private static ZoneId parseZone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+}
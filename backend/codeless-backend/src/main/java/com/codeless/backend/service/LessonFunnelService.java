@@ -0,0 +1,356 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.domain.CurriculumTree;
+import com.codeless.backend.event.LessonCompletedEvent;
+import com.codeless.backend.event.LessonHeartbeatEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-lesson drop-off funnel (students started / completed / median time to complete).
+ * Counters live in lesson_funnel_stats and lesson_funnel_time_buckets and are maintained
+ * incrementally from lesson events with coalesced write-behind. Completion times are kept as
+ * a log-scale histogram so the median can be read without touching lesson_progress.
+ * A nightly reconcile rebuilds both tables from lesson_progress to correct any drift. Each
+ * rebuilt row is stamped with reconciled_at, and a pending delta is only applied to a row
+ * reconciled before the delta's oldest event, so deltas already covered by a rebuild (for
+ * example still pending on another instance) are not counted twice.
+ */
+@Service
+@Slf4j
+public class LessonFunnelService {
+
+    // Four buckets per doubling: the reported median is within ~9% of the exact value
+    private static final int BUCKETS_PER_DOUBLING = 4;
+    private static final int MAX_BUCKET = 80;
+    // Bucket b (1..MAX_BUCKET) starts at the least n = seconds + 1 with n^BUCKETS_PER_DOUBLING >= 2^b.
+    // Exact integers, used by both bucketOf and the SQL rebuild, so that values at powers of two
+    // cannot land in different buckets through floating-point logarithms.
+    private static final long[] BUCKET_STARTS = bucketStarts();
+
+    private static final String UPSERT_STATS_SQL = """
+            INSERT INTO lesson_funnel_stats AS f (lesson_id, course_id, started_count, completed_count, updated_at)
+            VALUES (?, ?, ?, ?, NOW())
+            ON CONFLICT (lesson_id) DO UPDATE
+            SET started_count = f.started_count + EXCLUDED.started_count,
+                completed_count = f.completed_count + EXCLUDED.completed_count,
+                updated_at = NOW()
+            WHERE f.reconciled_at IS NULL OR f.reconciled_at < ?
+            """;
+
+    private static final String UPSERT_BUCKET_SQL = """
+            INSERT INTO lesson_funnel_time_buckets AS b (lesson_id, course_id, bucket, students)
+            SELECT ?, ?, ?, ?
+            WHERE NOT EXISTS (SELECT 1 FROM lesson_funnel_stats WHERE lesson_id = ? AND reconciled_at >= ?)
+            ON CONFLICT (lesson_id, bucket) DO UPDATE
+            SET students = b.students + EXCLUDED.students
+            """;
+
+    private static final String LOAD_STATS_SQL = """
+            SELECT lesson_id, started_count, completed_count
+            FROM lesson_funnel_stats
+            WHERE course_id = ?
+            """;
+
+    private static final String LOAD_BUCKETS_SQL = """
+            SELECT lesson_id, bucket, students
+            FROM lesson_funnel_time_buckets
+            WHERE course_id = ?
+            ORDER BY lesson_id, bucket
+            """;
+
+    private static final String COUNT_ENROLLED_SQL = "SELECT COUNT(*) FROM enrollments WHERE course_id = ?";
+
+    private static final String IS_ENROLLED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM enrollments WHERE user_id = ? AND course_id = ?)";
+
+    // Only enrolled students count towards the funnel
+    private static final String ENROLLED_PROGRESS_CTE = """
+            WITH p AS (
+                SELECT lp.lesson_id, s.course_id, lp.completed, lp.time_spent_seconds
+                FROM lesson_progress lp
+                JOIN lessons l ON l.id = lp.lesson_id
+                JOIN course_sections s ON s.id = l.section_id
+                JOIN enrollments e ON e.user_id = lp.user_id AND e.course_id = s.course_id
+            )
+            """;
+
+    private static final String RECONCILE_STATS_SQL = ENROLLED_PROGRESS_CTE + """
+            INSERT INTO lesson_funnel_stats (lesson_id, course_id, started_count, completed_count, updated_at, reconciled_at)
+            SELECT lesson_id, course_id, COUNT(*), COUNT(*) FILTER (WHERE completed = TRUE), NOW(), clock_timestamp()
+            FROM p
+            GROUP BY lesson_id, course_id
+            """;
+
+    private static final String RECONCILE_BUCKETS_SQL = ENROLLED_PROGRESS_CTE + """
+            INSERT INTO lesson_funnel_time_buckets (lesson_id, course_id, bucket, students)
+            SELECT lesson_id, course_id, bucket, COUNT(*)
+            FROM (
+                SELECT lesson_id, course_id,
+                       (SELECT COUNT(*) FROM unnest(ARRAY[%s]::bigint[]) AS b(bucket_start)
+                        WHERE GREATEST(COALESCE(time_spent_seconds, 0), 0) + 1 >= b.bucket_start)::int AS bucket
+                FROM p
+                WHERE completed = TRUE
+            ) c
+            GROUP BY 1, 2, 3
+            """.formatted(Arrays.stream(BUCKET_STARTS).mapToObj(Long::toString).collect(Collectors.joining(",")));
+
+    public record FunnelStep(
+            Long lessonId,
+            Long sectionId,
+            String sectionTitle,
+            String lessonTitle,
+            String lessonType,
+            long started,
+            long completed,
+            Integer medianTimeSeconds
+    ) {}
+
+    public record Funnel(
+            Long courseId,
+            long enrolled,
+            List<FunnelStep> steps
+    ) {}
+
+    private static final class Delta {
+        final Long courseId;
+        final OffsetDateTime oldest;
+        long started;
+        long completed;
+        final Map<Integer, Long> buckets = new HashMap<>();
+
+        Delta(Long courseId, OffsetDateTime oldest) {
+            this.courseId = courseId;
+            this.oldest = oldest;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CurriculumCache curriculumCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+
+    public LessonFunnelService(
+            JdbcTemplate jdbcTemplate,
+            CurriculumCache curriculumCache,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.curriculumCache = curriculumCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== Event intake ====================
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonHeartbeat(LessonHeartbeatEvent event) {
+        // Heartbeats do not require an enrollment, but the funnel (like reconcile) counts only enrolled students
+        if (event.firstVisit() && isEnrolled(event.userId(), event.courseId())) {
+            pending.compute(event.lessonId(), (id, delta) -> {
+                delta = delta != null ? delta : new Delta(event.courseId(), event.occurredAt());
+                delta.started++;
+                return delta;
+            });
+        }
+    }
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        if (!event.firstVisit() && !event.firstCompletion()) {
+            return;
+        }
+        // Completing a lesson requires an enrollment, so no enrollment check here
+        pending.compute(event.lessonId(), (id, delta) -> {
+            delta = delta != null ? delta : new Delta(event.courseId(), event.occurredAt());
+            if (event.firstVisit()) {
+                delta.started++;
+            }
+            if (event.firstCompletion()) {
+                delta.completed++;
+                int seconds = event.lessonTimeSpentSeconds() != null ? event.lessonTimeSpentSeconds() : 0;
+                delta.buckets.merge(bucketOf(seconds), 1L, Long::sum);
+            }
+            return delta;
+        });
+    }
+
+    // ==================== Read ====================
+
+    /**
+     * Funnel for a course, one step per lesson in curriculum order
+     */
+    public Funnel getFunnel(Long courseId) {
+        CurriculumTree tree = curriculumCache.get(courseId);
+
+        Map<Long, long[]> counts = new HashMap<>();
+        jdbcTemplate.query(LOAD_STATS_SQL, rs -> {
+            counts.put(rs.getLong("lesson_id"), new long[]{rs.getLong("started_count"), rs.getLong("completed_count")});
+        }, courseId);
+
+        Map<Long, List<long[]>> histograms = new HashMap<>();
+        jdbcTemplate.query(LOAD_BUCKETS_SQL, rs -> {
+            histograms.computeIfAbsent(rs.getLong("lesson_id"), id -> new ArrayList<>())
+                    .add(new long[]{rs.getInt("bucket"), rs.getLong("students")});
+        }, courseId);
+
+        Long enrolled = jdbcTemplate.queryForObject(COUNT_ENROLLED_SQL, Long.class, courseId);
+
+        List<FunnelStep> steps = new ArrayList<>(tree.lessonCount());
+        for (CurriculumTree.SectionNode section : tree.sections()) {
+            for (CurriculumTree.LessonNode lesson : section.lessons()) {
+                long[] c = counts.getOrDefault(lesson.id(), new long[2]);
+                steps.add(new FunnelStep(
+                        lesson.id(),
+                        section.id(),
+                        section.title(),
+                        lesson.title(),
+                        lesson.lessonType(),
+                        c[0],
+                        c[1],
+                        median(histograms.get(lesson.id()))
+                ));
+            }
+        }
+        return new Funnel(courseId, enrolled != null ? enrolled : 0, steps);
+    }
+
+    // ==================== Write-behind ====================
+
+    @Scheduled(fixedDelayString = "${app.funnel.flush-interval-ms:10000}")
+    public void flush() {
+        Map<Long, Delta> batch = new HashMap<>();
+        for (Long lessonId : pending.keySet()) {
+            Delta delta = pending.remove(lessonId);
+            if (delta != null) {
+                batch.put(lessonId, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (Exception e) {
+            // Typically a lesson deleted since its events fails the FK; retry lesson by lesson so
+            // only that lesson's counts are lost (the nightly reconcile covers them)
+            log.warn("Failed to flush funnel counters for {} lessons, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach((lessonId, delta) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(Map.of(lessonId, delta)));
+                } catch (Exception ex) {
+                    log.error("Dropped funnel counters for lesson {}: {}", lessonId, ex.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Rebuild the funnel tables from lesson_progress.
+     * This instance's pending deltas are flushed first, outside the rebuild transaction; deltas
+     * pending elsewhere are discarded on flush if their events predate the rebuild.
+     */
+    @Scheduled(cron = "${app.funnel.reconcile-cron:0 30 2 * * *}")
+    public void reconcile() {
+        flush();
+        Integer lessons = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM lesson_funnel_stats");
+            int rebuilt = jdbcTemplate.update(RECONCILE_STATS_SQL);
+            jdbcTemplate.update("DELETE FROM lesson_funnel_time_buckets");
+            jdbcTemplate.update(RECONCILE_BUCKETS_SQL);
+            return rebuilt;
+        });
+        log.info("Reconciled lesson funnel counters for {} lessons", lessons);
+    }
+
+    private void write(Map<Long, Delta> batch) {
+        List<Object[]> stats = new ArrayList<>(batch.size());
+        List<Object[]> buckets = new ArrayList<>();
+        batch.forEach((lessonId, delta) -> {
+            stats.add(new Object[]{lessonId, delta.courseId, delta.started, delta.completed, delta.oldest});
+            delta.buckets.forEach((bucket, students) ->
+                    buckets.add(new Object[]{lessonId, delta.courseId, bucket, students, lessonId, delta.oldest}));
+        });
+
+        jdbcTemplate.batchUpdate(UPSERT_STATS_SQL, stats);
+        if (!buckets.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_BUCKET_SQL, buckets);
+        }
+    }
+
+    private boolean isEnrolled(Long userId, Long courseId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_ENROLLED_SQL, Boolean.class, userId, courseId));
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * floor(BUCKETS_PER_DOUBLING * log2(seconds + 1)), capped at MAX_BUCKET, in integer arithmetic
+     */
+    private static int bucketOf(int seconds) {
+        long n = Math.max(seconds, 0) + 1L;
+        int bucket = 0;
+        while (bucket < MAX_BUCKET && n >= BUCKET_STARTS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static long[] bucketStarts() {
+        long[] starts = new long[MAX_BUCKET];
+        long n = 1;
+        for (int b = 1; b <= MAX_BUCKET; b++) {
+            BigInteger bound = BigInteger.ONE.shiftLeft(b);
+            // Start just below the floating-point estimate, then settle it exactly
+            n = Math.max(n, (long) Math.pow(2, (double) b / BUCKETS_PER_DOUBLING) - 1);
+            while (BigInteger.valueOf(n).pow(BUCKETS_PER_DOUBLING).compareTo(bound) < 0) {
+                n++;
+            }
+            starts[b - 1] = n;
+        }
+        return starts;
+    }
+
+    /**
+     * Median from a histogram sorted by bucket, reported at the bucket's geometric midpoint
+     */
+    private static Integer median(List<long[]> histogram) {
+        if (histogram == null || histogram.isEmpty()) {
+            return null;
+        }
+        long total = histogram.stream().mapToLong(b -> b[1]).sum();
+        long seen = 0;
+        for (long[] bucket : histogram) {
+            seen += bucket[1];
+            if (seen * 2 >= total) {
+                return (int) Math.round(Math.pow(2, (bucket[0] + 0.5) / BUCKETS_PER_DOUBLING) - 1);
+            }
+        }
+        return null;
+    }
+}
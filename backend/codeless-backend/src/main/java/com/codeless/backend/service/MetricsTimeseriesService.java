@@ -0,0 +1,242 @@
+package com.codeless.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admin time series served from metrics_hourly.
+ * A scheduled job re-aggregates the last few hours from the source tables (revenue by payment
+ * time); a refund recomputes the hour its order was paid in, however old. Reads only touch the
+ * hourly buckets, rolling them up to days or weeks in SQL. The daily rollup of
+ * AdminMetricsService is summed from these buckets as well. The number of points per response is
+ * capped: a request that would exceed it is served at the next coarser bucket.
+ */
+@Service
+@Slf4j
+public class MetricsTimeseriesService {
+
+    public enum Metric {
+        REVENUE("revenue"),
+        ENROLLMENTS("enrollments"),
+        SIGNUPS("signups"),
+        COMPLETIONS("completions");
+
+        private final String column;
+
+        Metric(String column) {
+            this.column = column;
+        }
+
+        public static Metric parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown metric: " + value);
+            }
+        }
+    }
+
+    public enum Bucket {
+        HOUR(Duration.ofHours(1), "hour"),
+        DAY(Duration.ofDays(1), "day"),
+        WEEK(Duration.ofDays(7), "week");
+
+        private final Duration width;
+        private final String truncUnit;
+
+        Bucket(Duration width, String truncUnit) {
+            this.width = width;
+            this.truncUnit = truncUnit;
+        }
+
+        public static Bucket parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown bucket: " + value);
+            }
+        }
+
+        OffsetDateTime truncate(OffsetDateTime time) {
+            OffsetDateTime utc = time.withOffsetSameInstant(ZoneOffset.UTC);
+            return switch (this) {
+                case HOUR -> utc.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> utc.truncatedTo(ChronoUnit.DAYS);
+                // date_trunc('week') starts weeks on Monday
+                case WEEK -> utc.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            };
+        }
+    }
+
+    public record Point(OffsetDateTime bucketStart, BigDecimal value) {}
+
+    public record Series(
+            Metric metric,
+            Bucket requestedBucket,
+            Bucket bucket,
+            OffsetDateTime from,
+            OffsetDateTime to,
+            List<Point> points
+    ) {}
+
+    // Every hour of the window is upserted (empty ones as zeros, pruned below), so an hour that lost
+    // its activity is corrected and concurrent runs on several instances never collide on the key
+    private static final String ROLLUP_UPSERT_SQL = """
+            WITH hours AS (
+                SELECT generate_series(CAST(:from AS TIMESTAMPTZ), CAST(:until AS TIMESTAMPTZ) - INTERVAL '1 hour',
+                                       INTERVAL '1 hour') AS bucket_start
+            ),
+            activity AS (
+                SELECT date_trunc('hour', paid_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC' AS bucket_start,
+                       total AS revenue, 0 AS enrollments, 0 AS signups, 0 AS completions
+                FROM orders
+                WHERE status = 'PAID' AND paid_at >= :from AND paid_at < :until
+                UNION ALL
+                SELECT date_trunc('hour', enrolled_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, 1, 0, 0
+                FROM enrollments
+                WHERE enrolled_at >= :from AND enrolled_at < :until
+                UNION ALL
+                SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, 0, 1, 0
+                FROM users
+                WHERE created_at >= :from AND created_at < :until
+                UNION ALL
+                SELECT date_trunc('hour', completed_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, 0, 0, 1
+                FROM lesson_progress
+                WHERE completed_at >= :from AND completed_at < :until
+            )
+            INSERT INTO metrics_hourly (bucket_start, revenue, enrollments, signups, completions, computed_at)
+            SELECT h.bucket_start,
+                   COALESCE(SUM(a.revenue), 0), COALESCE(SUM(a.enrollments), 0),
+                   COALESCE(SUM(a.signups), 0), COALESCE(SUM(a.completions), 0), NOW()
+            FROM hours h
+            LEFT JOIN activity a ON a.bucket_start = h.bucket_start
+            GROUP BY h.bucket_start
+            ON CONFLICT (bucket_start) DO UPDATE
+            SET revenue = EXCLUDED.revenue,
+                enrollments = EXCLUDED.enrollments,
+                signups = EXCLUDED.signups,
+                completions = EXCLUDED.completions,
+                computed_at = EXCLUDED.computed_at
+            """;
+
+    private static final String ROLLUP_PRUNE_SQL = """
+            DELETE FROM metrics_hourly
+            WHERE bucket_start >= :from AND bucket_start < :until
+              AND revenue = 0 AND enrollments = 0 AND signups = 0 AND completions = 0
+            """;
+
+    // Column and unit come from the enums above, never from request input
+    private static final String SERIES_SQL = """
+            SELECT date_trunc('%s', bucket_start AT TIME ZONE 'UTC') AS bucket, SUM(%s) AS value
+            FROM metrics_hourly
+            WHERE bucket_start >= :from AND bucket_start < :to
+            GROUP BY 1
+            ORDER BY 1
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int maxPoints;
+    private final int trailingHours;
+
+    public MetricsTimeseriesService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${app.analytics.max-points:500}") int maxPoints,
+            @Value("${app.analytics.rollup-trailing-hours:3}") int trailingHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPoints = maxPoints;
+        this.trailingHours = trailingHours;
+    }
+
+    // ==================== Read ====================
+
+    @Transactional(readOnly = true)
+    public Series getSeries(Metric metric, OffsetDateTime from, OffsetDateTime to, Bucket requested) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        Bucket bucket = requested;
+        while (pointCount(from, to, bucket) > maxPoints) {
+            if (bucket == Bucket.WEEK) {
+                throw new IllegalArgumentException("Range too large: more than " + maxPoints + " weekly points");
+            }
+            bucket = Bucket.values()[bucket.ordinal() + 1];
+        }
+
+        OffsetDateTime start = bucket.truncate(from);
+        Map<OffsetDateTime, BigDecimal> values = new HashMap<>();
+        jdbcTemplate.query(SERIES_SQL.formatted(bucket.truncUnit, metric.column), new MapSqlParameterSource()
+                .addValue("from", start)
+                .addValue("to", to), rs -> {
+            OffsetDateTime bucketStart = rs.getTimestamp("bucket").toLocalDateTime().atOffset(ZoneOffset.UTC);
+            values.put(bucketStart, rs.getBigDecimal("value"));
+        });
+
+        // Emit every bucket in range so charts don't interpolate over empty periods
+        List<Point> points = new ArrayList<>();
+        for (OffsetDateTime t = start; t.isBefore(to); t = t.plus(bucket.width)) {
+            points.add(new Point(t, values.getOrDefault(t, BigDecimal.ZERO)));
+        }
+        return new Series(metric, requested, bucket, from, to, points);
+    }
+
+    // ==================== Rollup ====================
+
+    /**
+     * Recompute the current hour and a few before it (commits landing after the hour ended).
+     * Older hours only change through {@link #recomputeHour}, e.g. when an order is refunded.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-interval-ms:300000}")
+    @Transactional
+    public void rollupRecentHours() {
+        OffsetDateTime until = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        OffsetDateTime from = until.minusHours(trailingHours + 1L);
+        int empty = rollup(from, until);
+        log.debug("Rolled up {} hourly metric buckets since {}", trailingHours + 1 - empty, from);
+    }
+
+    /**
+     * Recompute the hour bucket containing the given instant, however old it is
+     */
+    @Transactional
+    public void recomputeHour(OffsetDateTime at) {
+        OffsetDateTime from = at.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        rollup(from, from.plusHours(1));
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Upsert the hour buckets of [from, until) from the source tables; returns the number of empty ones pruned
+     */
+    private int rollup(OffsetDateTime from, OffsetDateTime until) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("until", until);
+        jdbcTemplate.update(ROLLUP_UPSERT_SQL, params);
+        return jdbcTemplate.update(ROLLUP_PRUNE_SQL, params);
+    }
+
+    private static long pointCount(OffsetDateTime from, OffsetDateTime to, Bucket bucket) {
+        Duration span = Duration.between(bucket.truncate(from), to);
+        return (span.toSeconds() + bucket.width.toSeconds() - 1) / bucket.width.toSeconds();
+    }
+}
@@ -4,10 +4,13 @@ import com.codeless.backend.domain.Enrollment;
 import com.codeless.backend.domain.Order;
 import com.codeless.backend.domain.OrderItem;
 import com.codeless.backend.domain.OrderStatus;
+import com.codeless.backend.event.EnrollmentCreatedEvent;
+import com.codeless.backend.event.OrderActivityEvent;
 import com.codeless.backend.repository.EnrollmentRepository;
 import com.codeless.backend.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,10 +25,13 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OrderService(OrderRepository orderRepository, EnrollmentRepository enrollmentRepository) {
+    public OrderService(OrderRepository orderRepository, EnrollmentRepository enrollmentRepository,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.enrollmentRepository = enrollmentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -47,8 +53,10 @@ public class OrderService {
         // Update order status and capture ID
         order.setStatus(OrderStatus.PAID);
         order.setProviderPaymentId(captureId); // Store the capture ID
-        order.setUpdatedAt(OffsetDateTime.now());
+        order.setPaidAt(OffsetDateTime.now());
+        order.setUpdatedAt(order.getPaidAt());
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(toActivityEvent(order));
         
         // Create enrollments for each course in the order
         for (OrderItem item : order.getItems()) {
@@ -65,6 +73,13 @@ public class OrderService {
                     enrollment.setCourse(item.getCourse());
                     enrollment.setEnrolledAt(OffsetDateTime.now());
                     enrollmentRepository.save(enrollment);
+                    eventPublisher.publishEvent(new EnrollmentCreatedEvent(
+                            enrollment.getId(),
+                            order.getUser().getId(),
+                            item.getCourse().getId(),
+                            order.getUser().getFullName(),
+                            item.getCourse().getTitle(),
+                            enrollment.getEnrolledAt()));
                     
                     log.info("Created enrollment for user {} in course {}", 
                             order.getUser().getEmail(), 
@@ -98,7 +113,22 @@ public class OrderService {
         order.setUpdatedAt(OffsetDateTime.now());
         
         log.info("Order {} marked as failed", orderId);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(toActivityEvent(saved));
+        return saved;
+    }
+    
+    static OrderActivityEvent toActivityEvent(Order order) {
+        return new OrderActivityEvent(
+                order.getId(),
+                order.getUser().getId(),
+                order.getUser().getFullName(),
+                order.getUser().getEmail(),
+                order.getTotal(),
+                order.getStatus().name(),
+                order.getCreatedAt(),
+                OffsetDateTime.now()
+        );
     }
 }
 
@@ -0,0 +1,271 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.Quiz;
+import com.codeless.backend.domain.QuizAnswerOption;
+import com.codeless.backend.domain.QuizQuestion;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled, immutable answer key of a quiz.
+ * Built once from the question/option graph by {@link QuizAnswerKeyCache}: questions are indexed
+ * by id, each question maps its option ids to ordinals with the correct ones as a bit set, and
+ * FILL_BLANK acceptable answers are compiled into a {@link FillBlankMatcher}. Grading a response
+ * is then a handful of map lookups with no database access. Grading works by question and option
+ * id, so it does not depend on the {@link QuizForm} an attempt was shown.
+ */
+public final class QuizAnswerKey {
+
+    public record OptionKey(Long id, int ordinal, String text, boolean correct) {}
+
+    public record QuestionKey(
+            Long id,
+            QuizQuestion.QuestionType type,
+            String text,
+            String explanation,
+            int points,
+            List<OptionKey> options,
+            Map<Long, Integer> ordinalsById,
+            BitSet correctOrdinals,
+            String acceptableAnswers,
+            FillBlankMatcher fillBlankMatcher
+    ) {
+        public OptionKey option(Long optionId) {
+            Integer ordinal = optionId != null ? ordinalsById.get(optionId) : null;
+            return ordinal != null ? options.get(ordinal) : null;
+        }
+
+        public List<String> correctOptionTexts() {
+            List<String> texts = new ArrayList<>(correctOrdinals.cardinality());
+            for (int i = correctOrdinals.nextSetBit(0); i >= 0; i = correctOrdinals.nextSetBit(i + 1)) {
+                texts.add(options.get(i).text());
+            }
+            return texts;
+        }
+    }
+
+    /**
+     * A student's response to one question, as submitted
+     */
+    public record Response(Long questionId, Long selectedOptionId, List<Long> selectedOptionIds, String textAnswer) {
+        /**
+         * Whether nothing has been selected or typed (e.g. an autosaved answer that was cleared)
+         */
+        public boolean isEmpty() {
+            return selectedOptionId == null
+                    && (selectedOptionIds == null || selectedOptionIds.isEmpty())
+                    && (textAnswer == null || textAnswer.isBlank());
+        }
+    }
+
+    /**
+     * A graded response, ready to be persisted or rendered
+     */
+    public record GradedAnswer(
+            Long questionId,
+            Long selectedOptionId,
+            List<Long> selectedOptionIds,
+            String textAnswer,
+            boolean correct,
+            int pointsEarned
+    ) {}
+
+    private final Long quizId;
+    private final Long lessonId;
+    private final int passingScore;
+    private final boolean showFeedbackImmediately;
+    private final boolean randomizeQuestions;
+    private final Integer questionsPerAttempt;
+    private final Map<Long, QuestionKey> questions;
+    private final List<QuestionKey> ordered;
+
+    private QuizAnswerKey(Long quizId, Long lessonId, int passingScore, boolean showFeedbackImmediately,
+                          boolean randomizeQuestions, Integer questionsPerAttempt, Map<Long, QuestionKey> questions) {
+        this.quizId = quizId;
+        this.lessonId = lessonId;
+        this.passingScore = passingScore;
+        this.showFeedbackImmediately = showFeedbackImmediately;
+        this.randomizeQuestions = randomizeQuestions;
+        this.questionsPerAttempt = questionsPerAttempt;
+        this.questions = questions;
+        this.ordered = List.copyOf(questions.values());
+    }
+
+    /**
+     * Compile a key from a quiz and its questions (with answer options loaded), in question order
+     *
+     * @param maxEditDistance typos tolerated in long FILL_BLANK answers, see {@link FillBlankMatcher}
+     */
+    public static QuizAnswerKey compile(Quiz quiz, List<QuizQuestion> orderedQuestions, int maxEditDistance) {
+        Map<Long, QuestionKey> questions = new LinkedHashMap<>();
+        for (QuizQuestion question : orderedQuestions) {
+            List<OptionKey> options = new ArrayList<>(question.getAnswerOptions().size());
+            Map<Long, Integer> ordinals = new HashMap<>();
+            BitSet correct = new BitSet();
+            for (QuizAnswerOption option : question.getAnswerOptions()) {
+                int ordinal = options.size();
+                boolean isCorrect = Boolean.TRUE.equals(option.getIsCorrect());
+                options.add(new OptionKey(option.getId(), ordinal, option.getOptionText(), isCorrect));
+                ordinals.put(option.getId(), ordinal);
+                if (isCorrect) {
+                    correct.set(ordinal);
+                }
+            }
+
+            // For FILL_BLANK the acceptable answers are stored on the first option
+            String acceptable = !question.getAnswerOptions().isEmpty()
+                    ? question.getAnswerOptions().get(0).getAcceptableAnswers()
+                    : null;
+            FillBlankMatcher matcher = question.getQuestionType() == QuizQuestion.QuestionType.FILL_BLANK
+                    ? FillBlankMatcher.compile(acceptable, maxEditDistance)
+                    : null;
+
+            questions.put(question.getId(), new QuestionKey(
+                    question.getId(),
+                    question.getQuestionType(),
+                    question.getQuestionText(),
+                    question.getExplanation(),
+                    question.getPoints() != null ? question.getPoints() : 0,
+                    List.copyOf(options),
+                    Map.copyOf(ordinals),
+                    correct,
+                    acceptable,
+                    matcher
+            ));
+        }
+        return new QuizAnswerKey(
+                quiz.getId(),
+                quiz.getLesson().getId(),
+                quiz.getPassingScore() != null ? quiz.getPassingScore() : 0,
+                Boolean.TRUE.equals(quiz.getShowFeedbackImmediately()),
+                Boolean.TRUE.equals(quiz.getRandomizeQuestions()),
+                quiz.getQuestionsPerAttempt(),
+                Collections.unmodifiableMap(questions));
+    }
+
+    public Long quizId() {
+        return quizId;
+    }
+
+    public Long lessonId() {
+        return lessonId;
+    }
+
+    public int passingScore() {
+        return passingScore;
+    }
+
+    public boolean showFeedbackImmediately() {
+        return showFeedbackImmediately;
+    }
+
+    /**
+     * Questions in quiz order
+     */
+    public Iterable<QuestionKey> questions() {
+        return questions.values();
+    }
+
+    public QuestionKey question(Long questionId) {
+        return questions.get(questionId);
+    }
+
+    /**
+     * Questions of an attempt in the order the attempt was shown them, see {@link QuizPayload#forAttempt(long)}
+     */
+    public List<QuestionKey> form(long attemptId) {
+        if (!randomizeQuestions && !QuizForm.drawsSubset(ordered.size(), questionsPerAttempt)) {
+            return ordered;
+        }
+        int[] order = QuizForm.questionOrder(attemptId, ordered.size(), questionsPerAttempt, randomizeQuestions);
+        List<QuestionKey> form = new ArrayList<>(order.length);
+        for (int index : order) {
+            form.add(ordered.get(index));
+        }
+        return form;
+    }
+
+    /**
+     * Whether a question is part of an attempt's form
+     */
+    public boolean inForm(long attemptId, Long questionId) {
+        if (!questions.containsKey(questionId)) {
+            return false;
+        }
+        if (!QuizForm.drawsSubset(ordered.size(), questionsPerAttempt)) {
+            // Shuffling alone does not change which questions an attempt has
+            return true;
+        }
+        for (QuestionKey question : form(attemptId)) {
+            if (question.id().equals(questionId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grade one response. Options that do not belong to the question make the answer incorrect.
+     *
+     * @throws IllegalArgumentException if the question is not part of this quiz
+     */
+    public GradedAnswer grade(Response response) {
+        QuestionKey question = questions.get(response.questionId());
+        if (question == null) {
+            throw new IllegalArgumentException("Question not found");
+        }
+
+        boolean correct = false;
+        Long selectedOptionId = null;
+        List<Long> selectedOptionIds = null;
+        String textAnswer = null;
+
+        switch (question.type()) {
+            case TRUE_FALSE -> {
+                if (response.selectedOptionId() != null) {
+                    // An unknown option (e.g. deleted since it was picked) is not stored and scores nothing
+                    OptionKey option = question.option(response.selectedOptionId());
+                    if (option != null) {
+                        selectedOptionId = option.id();
+                        correct = option.correct();
+                    }
+                }
+            }
+            case MULTIPLE_CHOICE -> {
+                if (response.selectedOptionIds() != null && !response.selectedOptionIds().isEmpty()) {
+                    selectedOptionIds = response.selectedOptionIds().stream().sorted().toList();
+                    // Exactly the correct options, no more and no less
+                    BitSet selected = new BitSet(question.options().size());
+                    boolean unknown = false;
+                    for (Long id : selectedOptionIds) {
+                        Integer ordinal = question.ordinalsById().get(id);
+                        if (ordinal == null) {
+                            unknown = true;
+                        } else {
+                            selected.set(ordinal);
+                        }
+                    }
+                    correct = !unknown && selected.equals(question.correctOrdinals());
+                }
+            }
+            case FILL_BLANK -> {
+                if (response.textAnswer() != null && !response.textAnswer().trim().isEmpty()) {
+                    textAnswer = response.textAnswer();
+                    correct = question.fillBlankMatcher().matches(textAnswer);
+                }
+            }
+            default -> {
+                // SHORT_ANSWER is not auto-graded
+            }
+        }
+
+        return new GradedAnswer(question.id(), selectedOptionId, selectedOptionIds, textAnswer, correct,
+                correct ? question.points() : 0);
+    }
+}
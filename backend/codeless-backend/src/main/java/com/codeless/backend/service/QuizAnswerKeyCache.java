@@ -0,0 +1,91 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.Quiz;
+import com.codeless.backend.domain.QuizQuestion;
+import com.codeless.backend.repository.QuizQuestionRepository;
+import com.codeless.backend.repository.QuizRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-quiz cache of the compiled {@link QuizAnswerKey} and the student-facing {@link QuizPayload}.
+ * Both are built from a single fetch of the question/option graph. Questions and options only
+ * change through the admin quiz endpoints, which evict the edited quiz, so neither taking nor
+ * submitting a quiz has to reload the graph. Eviction only reaches this instance, so the cache is
+ * bounded and entries expire soon enough that other instances grade against an edited quiz
+ * within a short window.
+ */
+@Service
+@Slf4j
+public class QuizAnswerKeyCache {
+
+    private final QuizRepository quizRepository;
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final int maxEditDistance;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LoadingCache<Long, Compiled> quizzes;
+
+    public QuizAnswerKeyCache(
+            QuizRepository quizRepository,
+            QuizQuestionRepository quizQuestionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.quiz-grading.max-edit-distance:2}") int maxEditDistance,
+            @Value("${app.quiz-grading.cache.max-size:1000}") long maxSize,
+            @Value("${app.quiz-grading.cache.ttl:1m}") Duration ttl) {
+        this.quizRepository = quizRepository;
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.maxEditDistance = maxEditDistance;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Concurrent loads of a quiz (a whole class opening it at once) share a single fetch
+        this.quizzes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(quizId -> transactionTemplate.execute(status -> load(quizId)));
+    }
+
+    private record Compiled(QuizAnswerKey key, QuizPayload payload) {}
+
+    /**
+     * Get the answer key for a quiz, compiling it on first access
+     */
+    public QuizAnswerKey get(Long quizId) {
+        return compiled(quizId).key();
+    }
+
+    /**
+     * Get the student-facing payload for a quiz, compiling it on first access
+     */
+    public QuizPayload payload(Long quizId) {
+        return compiled(quizId).payload();
+    }
+
+    /**
+     * Drop the cached key for a quiz, also after the current transaction commits
+     */
+    public void evict(Long quizId) {
+        TransactionalCacheEviction.evict(quizzes, quizId);
+    }
+
+    private Compiled compiled(Long quizId) {
+        return quizzes.get(quizId);
+    }
+
+    private Compiled load(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        List<QuizQuestion> questions = quizQuestionRepository.findByQuizIdWithOptions(quizId);
+
+        log.debug("Compiled quiz {}: {} questions", quizId, questions.size());
+        return new Compiled(QuizAnswerKey.compile(quiz, questions, maxEditDistance), QuizPayload.compile(quiz, questions));
+    }
+}
@@ -0,0 +1,128 @@
+package com.codeless.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Per-(user, quiz) attempt summary kept in quiz_attempt_summary.
+ * The row is written in the same transaction as attempt start and submit, so attempt count,
+ * best score and first pass are read by primary key instead of aggregating quiz_attempts.
+ * Starting an attempt increments the count with a conditional upsert: the row lock serializes
+ * concurrent starts and the WHERE clause enforces maxAttempts without a separate COUNT.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizAttemptSummaryService {
+
+    public record Summary(int attemptCount, BigDecimal bestScore, boolean lastPassed, OffsetDateTime lastAttemptAt) {
+        public static final Summary EMPTY = new Summary(0, null, false, null);
+    }
+
+    public record Recorded(BigDecimal bestScore, boolean firstPass) {}
+
+    private static final String SELECT_COLUMNS =
+            "SELECT s.attempt_count, s.best_score, s.last_passed, s.last_attempt_at FROM quiz_attempt_summary s ";
+
+    private static final String FIND_SQL = SELECT_COLUMNS + "WHERE s.user_id = :userId AND s.quiz_id = :quizId";
+
+    private static final String FIND_BY_EMAIL_SQL = SELECT_COLUMNS + """
+            JOIN users u ON u.id = s.user_id
+            WHERE u.email = :email AND s.quiz_id = :quizId
+            """;
+
+    // Inserts or increments only while the user is under the limit; zero rows means the limit is reached
+    private static final String RESERVE_SQL = """
+            INSERT INTO quiz_attempt_summary (user_id, quiz_id, attempt_count, last_attempt_at)
+            SELECT :userId, :quizId, 1, :startedAt
+            WHERE CAST(:maxAttempts AS INT) IS NULL OR CAST(:maxAttempts AS INT) > 0
+            ON CONFLICT (user_id, quiz_id) DO UPDATE
+            SET attempt_count = quiz_attempt_summary.attempt_count + 1,
+                last_attempt_at = EXCLUDED.last_attempt_at
+            WHERE CAST(:maxAttempts AS INT) IS NULL
+               OR quiz_attempt_summary.attempt_count < CAST(:maxAttempts AS INT)
+            """;
+
+    // The insert branch only covers attempts started before the summary existed
+    private static final String RECORD_SUBMISSION_SQL = """
+            INSERT INTO quiz_attempt_summary
+                (user_id, quiz_id, attempt_count, best_score, last_passed, first_passed_at, last_attempt_at)
+            VALUES (:userId, :quizId, 1, :score, :passed,
+                    CASE WHEN :passed THEN CAST(:completedAt AS TIMESTAMPTZ) END, :completedAt)
+            ON CONFLICT (user_id, quiz_id) DO UPDATE
+            SET best_score = GREATEST(quiz_attempt_summary.best_score, EXCLUDED.best_score),
+                last_passed = EXCLUDED.last_passed,
+                first_passed_at = COALESCE(quiz_attempt_summary.first_passed_at, EXCLUDED.first_passed_at),
+                last_attempt_at = EXCLUDED.last_attempt_at
+            RETURNING best_score,
+                      (:passed AND first_passed_at = CAST(:completedAt AS TIMESTAMPTZ)) AS first_pass
+            """;
+
+    private static final RowMapper<Summary> SUMMARY_MAPPER = (rs, rowNum) -> new Summary(
+            rs.getInt("attempt_count"),
+            rs.getBigDecimal("best_score"),
+            rs.getBoolean("last_passed"),
+            rs.getObject("last_attempt_at", OffsetDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Summary find(Long userId, Long quizId) {
+        return first(jdbcTemplate.query(FIND_SQL, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("quizId", quizId), SUMMARY_MAPPER));
+    }
+
+    /**
+     * Summary for the user with the given (authenticated) email, without a separate user lookup
+     */
+    public Summary findByEmail(String email, Long quizId) {
+        return first(jdbcTemplate.query(FIND_BY_EMAIL_SQL, new MapSqlParameterSource()
+                .addValue("email", email)
+                .addValue("quizId", quizId), SUMMARY_MAPPER));
+    }
+
+    /**
+     * Count a new attempt for the user
+     *
+     * @throws IllegalStateException if the user has already used all attempts
+     */
+    @Transactional
+    public void reserveAttempt(Long userId, Long quizId, Integer maxAttempts, OffsetDateTime startedAt) {
+        int updated = jdbcTemplate.update(RESERVE_SQL, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("quizId", quizId)
+                .addValue("maxAttempts", maxAttempts, Types.INTEGER)
+                .addValue("startedAt", startedAt));
+        if (updated == 0) {
+            throw new IllegalStateException("Maximum attempts reached");
+        }
+    }
+
+    /**
+     * Fold a submitted attempt into the summary.
+     * The returned best score includes this attempt; firstPass is true only for the user's first passing submission.
+     */
+    @Transactional
+    public Recorded recordSubmission(Long userId, Long quizId, BigDecimal score, boolean passed,
+                                     OffsetDateTime completedAt) {
+        return jdbcTemplate.queryForObject(RECORD_SUBMISSION_SQL, new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("quizId", quizId)
+                        .addValue("score", score)
+                        .addValue("passed", passed)
+                        .addValue("completedAt", completedAt),
+                (rs, rowNum) -> new Recorded(rs.getBigDecimal("best_score"), rs.getBoolean("first_pass")));
+    }
+
+    private static Summary first(List<Summary> rows) {
+        return rows.isEmpty() ? Summary.EMPTY : rows.get(0);
+    }
+}
@@ -0,0 +1,397 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.QuizQuestion;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk import and export of a quiz's questions as one JSON document.
+ * <pre>
+ * {
+ *   "version": 1,
+ *   "quizId": 12,                      // export only, ignored on import
+ *   "title": "Chapter 3 review",       // export only, ignored on import
+ *   "questions": [                     // array order is the question order
+ *     {
+ *       "type": "MULTIPLE_CHOICE",     // MULTIPLE_CHOICE, TRUE_FALSE, FILL_BLANK or SHORT_ANSWER
+ *       "text": "Which are primes?",
+ *       "explanation": "...",          // optional
+ *       "points": 1,                   // optional, defaults to 1
+ *       "options": [                   // array order is the option order
+ *         { "text": "2", "correct": true },
+ *         { "text": "4", "correct": false }
+ *       ],
+ *       "acceptableAnswers": ["Paris"] // FILL_BLANK only; stored on the first option
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * An import is validated as a whole before anything is written, then runs in one transaction:
+ * question ids are reserved from the sequence in one query, and questions and options are
+ * written with one batched insert each. "append" adds the questions after the existing ones,
+ * "replace" swaps out all questions of a quiz that has no attempts yet.
+ * An export streams the document straight from a single ordered join.
+ */
+@Service
+@Slf4j
+public class QuizBankService {
+
+    public static final int FORMAT_VERSION = 1;
+    public static final int MAX_QUESTIONS = 2_000;
+    public static final int MAX_OPTIONS = 20;
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final String LOCK_QUIZ_SQL = "SELECT id FROM quizzes WHERE id = ? FOR UPDATE";
+
+    private static final String QUIZ_TITLE_SQL = "SELECT title FROM quizzes WHERE id = ?";
+
+    private static final String HAS_ATTEMPTS_SQL = "SELECT EXISTS (SELECT 1 FROM quiz_attempts WHERE quiz_id = ?)";
+
+    private static final String DELETE_QUESTIONS_SQL = "DELETE FROM quiz_questions WHERE quiz_id = ?";
+
+    private static final String MAX_ORDER_SQL = "SELECT COALESCE(MAX(question_order), 0) FROM quiz_questions WHERE quiz_id = ?";
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('quiz_questions', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_QUESTION_SQL = """
+            INSERT INTO quiz_questions (id, quiz_id, question_type, question_text, explanation, points, question_order, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, NOW())
+            """;
+
+    private static final String INSERT_OPTION_SQL = """
+            INSERT INTO quiz_answer_options (question_id, option_text, is_correct, option_order, acceptable_answers)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String EXPORT_SQL = """
+            SELECT q.id AS question_id, q.question_type, q.question_text, q.explanation, q.points,
+                   o.option_text, o.is_correct, o.acceptable_answers
+            FROM quiz_questions q
+            LEFT JOIN quiz_answer_options o ON o.question_id = q.id
+            WHERE q.quiz_id = ?
+            ORDER BY q.question_order, q.id, o.option_order, o.id
+            """;
+
+    public record BankOption(String text, Boolean correct) {}
+
+    public record BankQuestion(
+            String type,
+            String text,
+            String explanation,
+            Integer points,
+            List<BankOption> options,
+            List<String> acceptableAnswers
+    ) {}
+
+    public record QuizBank(Integer version, Long quizId, String title, List<BankQuestion> questions) {}
+
+    public enum Mode {
+        APPEND, REPLACE;
+
+        public static Mode parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown import mode: " + value);
+            }
+        }
+    }
+
+    public record ImportResult(Long quizId, Mode mode, int questionsDeleted, int questionsImported, int optionsImported) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+
+    public QuizBankService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, QuizAnswerKeyCache quizAnswerKeyCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+    }
+
+    // ==================== Import ====================
+
+    /**
+     * Import a question bank into a quiz
+     *
+     * @throws IllegalArgumentException if the quiz does not exist or the document is invalid (all problems are listed)
+     * @throws IllegalStateException    if questions are replaced on a quiz that already has attempts
+     */
+    @Transactional
+    public ImportResult importQuestions(Long quizId, QuizBank bank, Mode mode) {
+        validate(bank);
+
+        // Locking the quiz row serializes imports, so appended question orders cannot collide
+        if (jdbcTemplate.queryForList(LOCK_QUIZ_SQL, Long.class, quizId).isEmpty()) {
+            throw new IllegalArgumentException("Quiz not found");
+        }
+
+        int deleted = 0;
+        int nextOrder = 1;
+        if (mode == Mode.REPLACE) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_ATTEMPTS_SQL, Boolean.class, quizId))) {
+                // Deleting the questions would cascade into the answers of past attempts
+                throw new IllegalStateException("Quiz already has attempts; import in append mode instead");
+            }
+            deleted = jdbcTemplate.update(DELETE_QUESTIONS_SQL, quizId);
+        } else {
+            Integer maxOrder = jdbcTemplate.queryForObject(MAX_ORDER_SQL, Integer.class, quizId);
+            nextOrder = (maxOrder != null ? maxOrder : 0) + 1;
+        }
+
+        List<BankQuestion> questions = bank.questions();
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, questions.size());
+
+        List<Object[]> questionRows = new ArrayList<>(questions.size());
+        List<Object[]> optionRows = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            BankQuestion question = questions.get(i);
+            Long questionId = ids.get(i);
+            QuizQuestion.QuestionType type = parseType(question.type());
+            questionRows.add(new Object[]{
+                    questionId,
+                    quizId,
+                    type.name(),
+                    question.text(),
+                    blankToNull(question.explanation()),
+                    question.points() != null ? question.points() : 1,
+                    nextOrder + i});
+
+            List<BankOption> options = question.options() != null ? question.options() : List.of();
+            String acceptable = type == QuizQuestion.QuestionType.FILL_BLANK
+                    ? String.join(",", question.acceptableAnswers().stream().map(String::trim).toList())
+                    : null;
+            if (options.isEmpty() && acceptable != null) {
+                // A FILL_BLANK question only needs the option that carries its acceptable answers
+                options = List.of(new BankOption(question.acceptableAnswers().get(0).trim(), true));
+            }
+            for (int j = 0; j < options.size(); j++) {
+                BankOption option = options.get(j);
+                optionRows.add(new Object[]{
+                        questionId,
+                        option.text(),
+                        Boolean.TRUE.equals(option.correct()),
+                        j + 1,
+                        j == 0 ? acceptable : null});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_QUESTION_SQL, questionRows);
+        if (!optionRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OPTION_SQL, optionRows);
+        }
+        quizAnswerKeyCache.evict(quizId);
+
+        log.info("Imported {} questions with {} options into quiz {} ({}, {} replaced)",
+                questionRows.size(), optionRows.size(), quizId, mode, deleted);
+        return new ImportResult(quizId, mode, deleted, questionRows.size(), optionRows.size());
+    }
+
+    private static void validate(QuizBank bank) {
+        if (bank == null || bank.questions() == null || bank.questions().isEmpty()) {
+            throw new IllegalArgumentException("No questions to import");
+        }
+        if (bank.version() != null && bank.version() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported quiz bank version: " + bank.version());
+        }
+        if (bank.questions().size() > MAX_QUESTIONS) {
+            throw new IllegalArgumentException("Too many questions (max " + MAX_QUESTIONS + ")");
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < bank.questions().size(); i++) {
+            validateQuestion("questions[" + i + "]", bank.questions().get(i), errors);
+        }
+        if (!errors.isEmpty()) {
+            List<String> reported = errors.size() > MAX_REPORTED_ERRORS ? errors.subList(0, MAX_REPORTED_ERRORS) : errors;
+            throw new IllegalArgumentException("Invalid quiz bank (" + errors.size() + " problems): "
+                    + String.join("; ", reported));
+        }
+    }
+
+    private static void validateQuestion(String path, BankQuestion question, List<String> errors) {
+        if (question == null) {
+            errors.add(path + ": missing");
+            return;
+        }
+        if (isBlank(question.text())) {
+            errors.add(path + ".text: required");
+        }
+        if (question.points() != null && question.points() < 0) {
+            errors.add(path + ".points: must not be negative");
+        }
+
+        QuizQuestion.QuestionType type;
+        try {
+            type = parseType(question.type());
+        } catch (IllegalArgumentException e) {
+            errors.add(path + ".type: " + e.getMessage());
+            return;
+        }
+
+        List<BankOption> options = question.options() != null ? question.options() : List.of();
+        if (options.size() > MAX_OPTIONS) {
+            errors.add(path + ".options: at most " + MAX_OPTIONS + " options");
+        }
+        int correct = 0;
+        for (int j = 0; j < options.size(); j++) {
+            BankOption option = options.get(j);
+            if (option == null || isBlank(option.text())) {
+                errors.add(path + ".options[" + j + "].text: required");
+            } else if (Boolean.TRUE.equals(option.correct())) {
+                correct++;
+            }
+        }
+
+        switch (type) {
+            case MULTIPLE_CHOICE -> {
+                if (options.size() < 2 || correct == 0) {
+                    errors.add(path + ".options: MULTIPLE_CHOICE needs at least 2 options and 1 correct");
+                }
+            }
+            case TRUE_FALSE -> {
+                if (options.size() != 2 || correct != 1) {
+                    errors.add(path + ".options: TRUE_FALSE needs exactly 2 options with 1 correct");
+                }
+            }
+            case FILL_BLANK -> {
+                List<String> acceptable = question.acceptableAnswers();
+                if (acceptable == null || acceptable.isEmpty()) {
+                    errors.add(path + ".acceptableAnswers: required for FILL_BLANK");
+                } else {
+                    for (int j = 0; j < acceptable.size(); j++) {
+                        String answer = acceptable.get(j);
+                        if (isBlank(answer)) {
+                            errors.add(path + ".acceptableAnswers[" + j + "]: must not be blank");
+                        } else if (answer.indexOf(',') >= 0) {
+                            errors.add(path + ".acceptableAnswers[" + j + "]: must not contain ','");
+                        }
+                    }
+                }
+            }
+            default -> {
+                // SHORT_ANSWER is graded by hand; options are optional
+            }
+        }
+        if (type != QuizQuestion.QuestionType.FILL_BLANK
+                && question.acceptableAnswers() != null && !question.acceptableAnswers().isEmpty()) {
+            errors.add(path + ".acceptableAnswers: only allowed for FILL_BLANK");
+        }
+    }
+
+    // ==================== Export ====================
+
+    /**
+     * Look up the quiz and return the response body that streams its question bank
+     *
+     * @throws IllegalArgumentException if the quiz does not exist
+     */
+    public StreamingResponseBody export(Long quizId) {
+        List<String> titles = jdbcTemplate.queryForList(QUIZ_TITLE_SQL, String.class, quizId);
+        if (titles.isEmpty()) {
+            throw new IllegalArgumentException("Quiz not found");
+        }
+        String title = titles.get(0);
+
+        return out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartObject();
+                json.writeNumberField("version", FORMAT_VERSION);
+                json.writeNumberField("quizId", quizId);
+                json.writeStringField("title", title);
+                json.writeArrayFieldStart("questions");
+
+                // Rows arrive grouped by question; a question is closed when the next one starts
+                long[] current = {-1};
+                String[] acceptable = new String[1];
+                int[] count = {0};
+                jdbcTemplate.query(EXPORT_SQL, rs -> {
+                    try {
+                        long questionId = rs.getLong("question_id");
+                        if (questionId != current[0]) {
+                            if (current[0] != -1) {
+                                endQuestion(json, acceptable[0]);
+                            }
+                            current[0] = questionId;
+                            // Only FILL_BLANK questions use the acceptable answers of their first option
+                            acceptable[0] = QuizQuestion.QuestionType.FILL_BLANK.name().equals(rs.getString("question_type"))
+                                    ? rs.getString("acceptable_answers")
+                                    : null;
+                            count[0]++;
+                            json.writeStartObject();
+                            json.writeStringField("type", rs.getString("question_type"));
+                            json.writeStringField("text", rs.getString("question_text"));
+                            json.writeStringField("explanation", rs.getString("explanation"));
+                            json.writeNumberField("points", rs.getInt("points"));
+                            json.writeArrayFieldStart("options");
+                        }
+                        String optionText = rs.getString("option_text");
+                        if (optionText != null) {
+                            json.writeStartObject();
+                            json.writeStringField("text", optionText);
+                            json.writeBooleanField("correct", rs.getBoolean("is_correct"));
+                            json.writeEndObject();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, quizId);
+                if (current[0] != -1) {
+                    endQuestion(json, acceptable[0]);
+                }
+
+                json.writeEndArray();
+                json.writeEndObject();
+                log.debug("Exported {} questions of quiz {}", count[0], quizId);
+            } catch (UncheckedIOException e) {
+                // Client went away
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static void endQuestion(JsonGenerator json, String acceptableAnswers) throws IOException {
+        json.writeEndArray();
+        if (acceptableAnswers != null && !acceptableAnswers.isBlank()) {
+            json.writeArrayFieldStart("acceptableAnswers");
+            for (String answer : Arrays.stream(acceptableAnswers.split(",")).map(String::trim).filter(a -> !a.isEmpty()).toList()) {
+                json.writeString(answer);
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    // ==================== Helpers ====================
+
+    private static QuizQuestion.QuestionType parseType(String value) {
+        try {
+            return QuizQuestion.QuestionType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown question type: " + value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value;
+    }
+}
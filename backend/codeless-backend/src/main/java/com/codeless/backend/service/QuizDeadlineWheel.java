@@ -0,0 +1,84 @@
+package com.codeless.backend.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashed timer wheel of attempt deadlines.
+ * Time is cut into ticks; an attempt due at tick t sits in slot t % slots. Each advance only
+ * visits the slots of the ticks that elapsed, so scheduling and cancelling are O(1) and the cost
+ * of a tick is proportional to the attempts hashed into its slot, not to all open attempts.
+ * Deadlines further away than one rotation simply stay in their slot until their round comes.
+ * Cancelled or rescheduled attempts are dropped from their old slot lazily.
+ * schedule/cancel are thread-safe; advance must be called from a single thread.
+ */
+final class QuizDeadlineWheel {
+
+    private final long tickMillis;
+    private final List<Set<Long>> slots;
+    private final Map<Long, Long> dueTicks = new ConcurrentHashMap<>();
+    private volatile long lastTick;
+
+    QuizDeadlineWheel(int slotCount, long tickMillis, long nowMillis) {
+        if (slotCount <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Timer wheel needs a positive slot count and tick");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule (or reschedule) an attempt. Deadlines in the past fire on the next tick.
+     */
+    void schedule(Long attemptId, long deadlineMillis) {
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, lastTick + 1);
+        dueTicks.put(attemptId, tick);
+        slot(tick).add(attemptId);
+    }
+
+    void cancel(Long attemptId) {
+        dueTicks.remove(attemptId);
+    }
+
+    int size() {
+        return dueTicks.size();
+    }
+
+    /**
+     * Move the wheel up to the current time and return the attempts whose deadline has passed
+     */
+    List<Long> advance(long nowMillis) {
+        long current = nowMillis / tickMillis;
+        List<Long> expired = new ArrayList<>();
+        // After a long pause every slot is visited once
+        long from = Math.max(lastTick + 1, current - slots.size() + 1);
+        for (long tick = from; tick <= current; tick++) {
+            Set<Long> slot = slot(tick);
+            for (Iterator<Long> it = slot.iterator(); it.hasNext(); ) {
+                Long attemptId = it.next();
+                Long due = dueTicks.get(attemptId);
+                if (due == null || slot(due) != slot) {
+                    // Cancelled, or rescheduled into another slot
+                    it.remove();
+                } else if (due <= current && dueTicks.remove(attemptId, due)) {
+                    it.remove();
+                    expired.add(attemptId);
+                }
+            }
+        }
+        lastTick = current;
+        return expired;
+    }
+
+    private Set<Long> slot(long tick) {
+        return slots.get((int) (tick % slots.size()));
+    }
+}
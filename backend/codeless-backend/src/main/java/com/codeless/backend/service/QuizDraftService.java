@@ -0,0 +1,340 @@
+package com.codeless.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Autosaved answers of in-progress quiz attempts.
+ * Each autosave only updates the attempt's in-memory draft; repeated edits of a question between
+ * two flushes collapse into one row, and pending answers are written behind as batched upserts into
+ * quiz_attempt_drafts. Every answer carries the time it was saved, and an upsert never replaces a
+ * newer row, so autosaves of one attempt served by different instances converge on the latest.
+ * Reading the answers (on reconnect or submit) merges the persisted rows with this instance's
+ * unflushed ones, newest per question. Submitting takes them as the attempt's answers and deletes
+ * the persisted rows; the in-memory draft is only dropped once that transaction commits.
+ */
+@Service
+@Slf4j
+public class QuizDraftService {
+
+    private static final String LOAD_ATTEMPT_SQL = """
+            SELECT a.user_id, a.quiz_id, a.started_at, a.completed_at IS NOT NULL AS completed, q.time_limit_minutes
+            FROM quiz_attempts a
+            JOIN quizzes q ON q.id = a.quiz_id
+            WHERE a.id = ?
+            """;
+
+    private static final String LOAD_DRAFTS_SQL = """
+            SELECT question_id, selected_option_id, selected_option_ids, text_answer, updated_at
+            FROM quiz_attempt_drafts
+            WHERE attempt_id = ?
+            """;
+
+    // Late writes for an attempt that has been submitted in the meantime are dropped, and so are
+    // writes older than the row already stored (from another instance) and answers to questions
+    // deleted since they were saved
+    static final String UPSERT_SQL = """
+            INSERT INTO quiz_attempt_drafts
+                (attempt_id, question_id, selected_option_id, selected_option_ids, text_answer, updated_at)
+            SELECT a.id, qq.id, CAST(? AS BIGINT), CAST(? AS BIGINT[]), CAST(? AS TEXT), CAST(? AS TIMESTAMPTZ)
+            FROM quiz_attempts a
+            JOIN quiz_questions qq ON qq.id = ? AND qq.quiz_id = a.quiz_id
+            WHERE a.id = ? AND a.completed_at IS NULL
+            ON CONFLICT (attempt_id, question_id) DO UPDATE
+            SET selected_option_id = EXCLUDED.selected_option_id,
+                selected_option_ids = EXCLUDED.selected_option_ids,
+                text_answer = EXCLUDED.text_answer,
+                updated_at = EXCLUDED.updated_at
+            WHERE quiz_attempt_drafts.updated_at <= EXCLUDED.updated_at
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM quiz_attempt_drafts WHERE attempt_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizTimeLimitService quizTimeLimitService;
+    private final long idleEvictMillis;
+
+    private final Map<Long, Draft> drafts = new ConcurrentHashMap<>();
+
+    public QuizDraftService(
+            JdbcTemplate jdbcTemplate,
+            QuizAnswerKeyCache quizAnswerKeyCache,
+            QuizTimeLimitService quizTimeLimitService,
+            @Value("${app.quiz-drafts.idle-evict-ms:1800000}") long idleEvictMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.quizTimeLimitService = quizTimeLimitService;
+        this.idleEvictMillis = idleEvictMillis;
+    }
+
+    // Mutated only inside drafts.compute* for its attempt
+    private static final class Draft {
+        final Long userId;
+        final Long quizId;
+        final OffsetDateTime deadline;
+        // Answers not written to quiz_attempt_drafts yet; an entry stays until its own write succeeded
+        final Map<Long, Answer> pending = new LinkedHashMap<>();
+        // Set while a submit that took the answers is in flight; its answers are no longer flushed
+        boolean taken;
+        long touchedAt = System.currentTimeMillis();
+
+        Draft(Long userId, Long quizId, OffsetDateTime deadline) {
+            this.userId = userId;
+            this.quizId = quizId;
+            this.deadline = deadline;
+        }
+    }
+
+    private record Answer(QuizAnswerKey.Response response, OffsetDateTime savedAt) {}
+
+    private record PendingWrite(Long attemptId, Answer answer) {}
+
+    private record AttemptRow(Long userId, Long quizId, OffsetDateTime startedAt, boolean completed,
+                              Integer timeLimitMinutes) {}
+
+    // ==================== Autosave ====================
+
+    /**
+     * Record the latest answer to one question of an in-progress attempt
+     *
+     * @throws IllegalArgumentException if the attempt or question does not exist or the attempt belongs to another user
+     * @throws IllegalStateException    if the attempt was already submitted or its time is up
+     */
+    public void save(Long userId, Long attemptId, QuizAnswerKey.Response response) {
+        // Database and cache lookups happen before, not inside, the map's compute
+        Draft loaded = draft(attemptId);
+        checkOwner(loaded, userId);
+        OffsetDateTime now = OffsetDateTime.now();
+        if (loaded.deadline != null && now.isAfter(loaded.deadline)) {
+            throw new IllegalStateException("Time limit exceeded");
+        }
+        if (!quizAnswerKeyCache.get(loaded.quizId).inForm(attemptId, response.questionId())) {
+            throw new IllegalArgumentException("Question not found");
+        }
+        drafts.compute(attemptId, (id, draft) -> {
+            // The draft may have been evicted as idle in the meantime
+            Draft target = draft != null ? draft : loaded;
+            if (target.taken) {
+                throw new IllegalStateException("Quiz already submitted");
+            }
+            target.pending.put(response.questionId(), new Answer(response, now));
+            target.touchedAt = System.currentTimeMillis();
+            return target;
+        });
+    }
+
+    /**
+     * Current answers of an in-progress attempt: the persisted ones merged with any not flushed yet
+     */
+    public List<QuizAnswerKey.Response> answers(Long userId, Long attemptId) {
+        checkOwner(draft(attemptId), userId);
+        return merged(attemptId);
+    }
+
+    /**
+     * Return the answers of an attempt that is being submitted and delete its persisted draft.
+     * Must run in the submitting transaction, after ownership and completion were checked; the
+     * in-memory draft is dropped after commit and handed back to the write-behind on rollback.
+     */
+    public List<QuizAnswerKey.Response> take(Long attemptId) {
+        drafts.computeIfPresent(attemptId, (id, draft) -> {
+            draft.taken = true;
+            return draft;
+        });
+        List<QuizAnswerKey.Response> answers = merged(attemptId);
+        jdbcTemplate.update(DELETE_SQL, attemptId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        drafts.remove(attemptId);
+                    } else {
+                        drafts.computeIfPresent(attemptId, (id, draft) -> {
+                            draft.taken = false;
+                            return draft;
+                        });
+                    }
+                }
+            });
+        } else {
+            drafts.remove(attemptId);
+        }
+        return answers;
+    }
+
+    // ==================== Write-behind ====================
+
+    @Scheduled(fixedDelayString = "${app.quiz-drafts.flush-interval-ms:5000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<PendingWrite> batch = new ArrayList<>();
+
+        for (Long attemptId : drafts.keySet()) {
+            drafts.computeIfPresent(attemptId, (id, draft) -> {
+                if (draft.taken) {
+                    return draft;
+                }
+                if (!draft.pending.isEmpty()) {
+                    // Entries stay pending until written, so readers merging the table never miss them
+                    for (Answer answer : draft.pending.values()) {
+                        batch.add(new PendingWrite(id, answer));
+                    }
+                    return draft;
+                }
+                // Keep the map bounded to attempts that are still being worked on
+                return now - draft.touchedAt > idleEvictMillis ? null : draft;
+            });
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(batch);
+            log.debug("Flushed {} autosaved quiz answers", batch.size());
+        } catch (Exception e) {
+            // Retry attempt by attempt, so one attempt's bad rows cannot stall every other attempt's
+            // drafts; rows that still fail are dropped (the submit carries the student's answers too)
+            log.warn("Failed to flush {} autosaved quiz answers, retrying per attempt: {}", batch.size(), e.getMessage());
+            Map<Long, List<PendingWrite>> byAttempt = new LinkedHashMap<>();
+            for (PendingWrite w : batch) {
+                byAttempt.computeIfAbsent(w.attemptId(), id -> new ArrayList<>()).add(w);
+            }
+            byAttempt.forEach((attemptId, writes) -> {
+                try {
+                    write(writes);
+                } catch (Exception ex) {
+                    log.error("Dropped {} autosaved answers of quiz attempt {}: {}", writes.size(), attemptId, ex.getMessage());
+                }
+            });
+        }
+
+        // Written or dropped: remove unless a newer save of the same question came in meanwhile
+        for (PendingWrite w : batch) {
+            drafts.computeIfPresent(w.attemptId(), (id, draft) -> {
+                draft.pending.remove(w.answer().response().questionId(), w.answer());
+                return draft;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==================== Helpers ====================
+
+    private void write(List<PendingWrite> writes) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, writes.stream()
+                .map(w -> new Object[]{
+                        w.answer().response().selectedOptionId(),
+                        toArray(w.answer().response().selectedOptionIds()),
+                        w.answer().response().textAnswer(),
+                        w.answer().savedAt(),
+                        w.answer().response().questionId(),
+                        w.attemptId()})
+                .toList());
+    }
+
+    /**
+     * This instance's draft of an attempt, loading the attempt on first touch
+     */
+    private Draft draft(Long attemptId) {
+        Draft draft = drafts.get(attemptId);
+        if (draft != null) {
+            return draft;
+        }
+        Draft loaded = load(attemptId);
+        Draft raced = drafts.putIfAbsent(attemptId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Persisted answers of an attempt overlaid with this instance's newer unflushed ones
+     */
+    private List<QuizAnswerKey.Response> merged(Long attemptId) {
+        Map<Long, Answer> latest = new LinkedHashMap<>();
+        for (Answer answer : jdbcTemplate.query(LOAD_DRAFTS_SQL, this::mapAnswer, attemptId)) {
+            latest.put(answer.response().questionId(), answer);
+        }
+        drafts.computeIfPresent(attemptId, (id, draft) -> {
+            draft.touchedAt = System.currentTimeMillis();
+            for (Answer answer : draft.pending.values()) {
+                latest.merge(answer.response().questionId(), answer,
+                        (persisted, local) -> local.savedAt().isBefore(persisted.savedAt()) ? persisted : local);
+            }
+            return draft;
+        });
+        List<QuizAnswerKey.Response> answers = new ArrayList<>(latest.size());
+        for (Answer answer : latest.values()) {
+            answers.add(answer.response());
+        }
+        return answers;
+    }
+
+    private Draft load(Long attemptId) {
+        List<AttemptRow> rows = jdbcTemplate.query(LOAD_ATTEMPT_SQL, (rs, rowNum) -> new AttemptRow(
+                rs.getLong("user_id"),
+                rs.getLong("quiz_id"),
+                rs.getObject("started_at", OffsetDateTime.class),
+                rs.getBoolean("completed"),
+                rs.getObject("time_limit_minutes", Integer.class)), attemptId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Attempt not found");
+        }
+        AttemptRow attempt = rows.get(0);
+        if (attempt.completed()) {
+            throw new IllegalStateException("Quiz already submitted");
+        }
+
+        return new Draft(attempt.userId(), attempt.quizId(),
+                quizTimeLimitService.deadline(attempt.startedAt(), attempt.timeLimitMinutes()));
+    }
+
+    private Answer mapAnswer(ResultSet rs, int rowNum) throws SQLException {
+        long selectedOptionId = rs.getLong("selected_option_id");
+        boolean noOption = rs.wasNull();
+        return new Answer(new QuizAnswerKey.Response(
+                rs.getLong("question_id"),
+                noOption ? null : selectedOptionId,
+                fromArray(rs.getArray("selected_option_ids")),
+                rs.getString("text_answer")),
+                rs.getObject("updated_at", OffsetDateTime.class));
+    }
+
+    private static void checkOwner(Draft draft, Long userId) {
+        if (!draft.userId.equals(userId)) {
+            throw new IllegalArgumentException("Unauthorized");
+        }
+    }
+
+    private static Long[] toArray(List<Long> ids) {
+        return ids == null || ids.isEmpty() ? null : ids.toArray(Long[]::new);
+    }
+
+    private static List<Long> fromArray(Array ids) throws SQLException {
+        return ids != null ? Arrays.asList((Long[]) ids.getArray()) : null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.codeless.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic per-attempt quiz forms.
+ * Which questions an attempt gets, and in which order its questions and options are shown, is a
+ * pure function of the attempt id (and question id for options), so the form is re-derived on
+ * every request instead of being stored, and the cached quiz payload stays shared by everyone.
+ * Permutations are partial Fisher-Yates shuffles driven by SplitMix64, which is fixed here so
+ * forms do not change across JVM versions. Editing a quiz's questions changes the forms of
+ * attempts still in progress.
+ */
+final class QuizForm {
+
+    private QuizForm() {}
+
+    /**
+     * Indexes into the quiz's ordered questions that make up an attempt's form
+     *
+     * @param draw    questions drawn per attempt, or null for all of them
+     * @param shuffle whether the drawn questions are shown in random order rather than quiz order
+     */
+    static int[] questionOrder(long attemptId, int questionCount, Integer draw, boolean shuffle) {
+        int size = draw != null && draw > 0 ? Math.min(draw, questionCount) : questionCount;
+        int[] order = identity(questionCount);
+        if (size == questionCount && !shuffle) {
+            return order;
+        }
+        shuffle(order, size, new SplitMix64(attemptId));
+        int[] drawn = Arrays.copyOf(order, size);
+        if (!shuffle) {
+            Arrays.sort(drawn);
+        }
+        return drawn;
+    }
+
+    /**
+     * Display order of a question's options within an attempt
+     */
+    static int[] optionOrder(long attemptId, long questionId, int optionCount) {
+        int[] order = identity(optionCount);
+        shuffle(order, optionCount, new SplitMix64(attemptId * 0x9E3779B97F4A7C15L + questionId));
+        return order;
+    }
+
+    /**
+     * Whether the form of an attempt may contain fewer questions than the quiz
+     */
+    static boolean drawsSubset(int questionCount, Integer draw) {
+        return draw != null && draw > 0 && draw < questionCount;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Shuffle the first k positions with elements drawn from the whole array
+     */
+    private static void shuffle(int[] order, int k, SplitMix64 random) {
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(order.length - i);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+
+    private static final class SplitMix64 {
+        private long state;
+
+        SplitMix64(long seed) {
+            this.state = seed;
+        }
+
+        long next() {
+            long z = (state += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        int nextInt(int bound) {
+            return (int) Math.floorMod(next(), (long) bound);
+        }
+    }
+}
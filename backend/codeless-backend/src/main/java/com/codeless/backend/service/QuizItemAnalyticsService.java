@@ -0,0 +1,293 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.event.QuizAttemptGradedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item analytics for quiz authors: difficulty (percent correct) and discrimination per question,
+ * and selection frequency per answer option.
+ * Counters live in quiz_item_quiz_stats, quiz_item_question_stats and quiz_item_option_stats and
+ * are maintained incrementally from graded attempts with coalesced write-behind, so a report is
+ * three reads by quiz id regardless of how many attempts were taken. Each quiz's counters are
+ * flushed in their own transaction, and a flush that fails is kept for the next one.
+ * Discrimination is the upper-lower index with the attempt outcome as the band split: the share
+ * of passing attempts that answered the question correctly minus the share of failing ones.
+ */
+@Service
+@Slf4j
+public class QuizItemAnalyticsService {
+
+    // The upserts select from the counted quiz/question/option, so counters of ones deleted since
+    // the attempt was graded are skipped instead of failing the foreign key
+    private static final String UPSERT_QUIZ_SQL = """
+            INSERT INTO quiz_item_quiz_stats AS s (quiz_id, attempts, passed, updated_at)
+            SELECT q.id, ?, ?, NOW()
+            FROM quizzes q
+            WHERE q.id = ?
+            ON CONFLICT (quiz_id) DO UPDATE
+            SET attempts = s.attempts + EXCLUDED.attempts,
+                passed = s.passed + EXCLUDED.passed,
+                updated_at = NOW()
+            """;
+
+    private static final String UPSERT_QUESTION_SQL = """
+            INSERT INTO quiz_item_question_stats AS s
+                (question_id, quiz_id, answered, correct, upper_answered, upper_correct,
+                 lower_answered, lower_correct, updated_at)
+            SELECT qq.id, qq.quiz_id, ?, ?, ?, ?, ?, ?, NOW()
+            FROM quiz_questions qq
+            WHERE qq.id = ?
+            ON CONFLICT (question_id) DO UPDATE
+            SET answered = s.answered + EXCLUDED.answered,
+                correct = s.correct + EXCLUDED.correct,
+                upper_answered = s.upper_answered + EXCLUDED.upper_answered,
+                upper_correct = s.upper_correct + EXCLUDED.upper_correct,
+                lower_answered = s.lower_answered + EXCLUDED.lower_answered,
+                lower_correct = s.lower_correct + EXCLUDED.lower_correct,
+                updated_at = NOW()
+            """;
+
+    private static final String UPSERT_OPTION_SQL = """
+            INSERT INTO quiz_item_option_stats AS s (option_id, quiz_id, selections)
+            SELECT o.id, ?, ?
+            FROM quiz_answer_options o
+            WHERE o.id = ?
+            ON CONFLICT (option_id) DO UPDATE
+            SET selections = s.selections + EXCLUDED.selections
+            """;
+
+    private static final String LOAD_QUIZ_SQL = "SELECT attempts, passed FROM quiz_item_quiz_stats WHERE quiz_id = ?";
+
+    private static final String LOAD_QUESTIONS_SQL = """
+            SELECT question_id, answered, correct, upper_answered, upper_correct, lower_answered, lower_correct
+            FROM quiz_item_question_stats
+            WHERE quiz_id = ?
+            """;
+
+    private static final String LOAD_OPTIONS_SQL = "SELECT option_id, selections FROM quiz_item_option_stats WHERE quiz_id = ?";
+
+    public record OptionAnalytics(
+            Long optionId,
+            String optionText,
+            boolean correct,
+            long selections,
+            Double selectionRate
+    ) {}
+
+    public record QuestionAnalytics(
+            Long questionId,
+            String questionText,
+            String questionType,
+            long answered,
+            long correct,
+            Double difficulty,
+            Double discrimination,
+            List<OptionAnalytics> options
+    ) {}
+
+    public record QuizAnalytics(
+            Long quizId,
+            long attempts,
+            long passed,
+            List<QuestionAnalytics> questions
+    ) {}
+
+    // Indexes into QuizDelta.questions values and the question stats row
+    private static final int ANSWERED = 0;
+    private static final int CORRECT = 1;
+    private static final int UPPER_ANSWERED = 2;
+    private static final int UPPER_CORRECT = 3;
+    private static final int LOWER_ANSWERED = 4;
+    private static final int LOWER_CORRECT = 5;
+
+    private static final class QuizDelta {
+        long attempts;
+        long passed;
+        final Map<Long, long[]> questions = new HashMap<>();
+        final Map<Long, Long> options = new HashMap<>();
+
+        QuizDelta add(QuizDelta other) {
+            attempts += other.attempts;
+            passed += other.passed;
+            other.questions.forEach((questionId, c) -> {
+                long[] counts = questions.computeIfAbsent(questionId, q -> new long[6]);
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += c[i];
+                }
+            });
+            other.options.forEach((optionId, count) -> options.merge(optionId, count, Long::sum));
+            return this;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, QuizDelta> pending = new ConcurrentHashMap<>();
+
+    public QuizItemAnalyticsService(
+            JdbcTemplate jdbcTemplate,
+            QuizAnswerKeyCache quizAnswerKeyCache,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== Event intake ====================
+
+    @Async(AsyncConfig.LEARNING_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptGraded(QuizAttemptGradedEvent event) {
+        pending.compute(event.quizId(), (id, delta) -> {
+            delta = delta != null ? delta : new QuizDelta();
+            delta.attempts++;
+            if (event.passed()) {
+                delta.passed++;
+            }
+            int band = event.passed() ? UPPER_ANSWERED : LOWER_ANSWERED;
+            for (QuizAttemptGradedEvent.Item item : event.items()) {
+                long[] counts = delta.questions.computeIfAbsent(item.questionId(), q -> new long[6]);
+                counts[ANSWERED]++;
+                counts[band]++;
+                if (item.correct()) {
+                    counts[CORRECT]++;
+                    counts[band + 1]++;
+                }
+                for (Long optionId : item.selectedOptionIds()) {
+                    delta.options.merge(optionId, 1L, Long::sum);
+                }
+            }
+            return delta;
+        });
+    }
+
+    // ==================== Read ====================
+
+    /**
+     * Item analytics for a quiz, one entry per question in quiz order
+     */
+    public QuizAnalytics getAnalytics(Long quizId) {
+        QuizAnswerKey key = quizAnswerKeyCache.get(quizId);
+
+        long[] totals = new long[2];
+        jdbcTemplate.query(LOAD_QUIZ_SQL, rs -> {
+            totals[0] = rs.getLong("attempts");
+            totals[1] = rs.getLong("passed");
+        }, quizId);
+
+        Map<Long, long[]> questionCounts = new HashMap<>();
+        jdbcTemplate.query(LOAD_QUESTIONS_SQL, rs -> {
+            questionCounts.put(rs.getLong("question_id"), new long[]{
+                    rs.getLong("answered"),
+                    rs.getLong("correct"),
+                    rs.getLong("upper_answered"),
+                    rs.getLong("upper_correct"),
+                    rs.getLong("lower_answered"),
+                    rs.getLong("lower_correct")});
+        }, quizId);
+
+        Map<Long, Long> selections = new HashMap<>();
+        jdbcTemplate.query(LOAD_OPTIONS_SQL, rs -> {
+            selections.put(rs.getLong("option_id"), rs.getLong("selections"));
+        }, quizId);
+
+        List<QuestionAnalytics> questions = new ArrayList<>();
+        for (QuizAnswerKey.QuestionKey question : key.questions()) {
+            long[] c = questionCounts.getOrDefault(question.id(), new long[6]);
+            List<OptionAnalytics> options = new ArrayList<>(question.options().size());
+            for (QuizAnswerKey.OptionKey option : question.options()) {
+                long selected = selections.getOrDefault(option.id(), 0L);
+                options.add(new OptionAnalytics(
+                        option.id(),
+                        option.text(),
+                        option.correct(),
+                        selected,
+                        percent(selected, c[ANSWERED])));
+            }
+
+            Double upper = percent(c[UPPER_CORRECT], c[UPPER_ANSWERED]);
+            Double lower = percent(c[LOWER_CORRECT], c[LOWER_ANSWERED]);
+            questions.add(new QuestionAnalytics(
+                    question.id(),
+                    question.text(),
+                    question.type().name(),
+                    c[ANSWERED],
+                    c[CORRECT],
+                    percent(c[CORRECT], c[ANSWERED]),
+                    upper != null && lower != null ? Math.round(upper - lower) / 100.0 : null,
+                    options));
+        }
+        return new QuizAnalytics(quizId, totals[0], totals[1], questions);
+    }
+
+    // ==================== Write-behind ====================
+
+    @Scheduled(fixedDelayString = "${app.quiz-analytics.flush-interval-ms:10000}")
+    public void flush() {
+        Map<Long, QuizDelta> batch = new HashMap<>();
+        for (Long quizId : pending.keySet()) {
+            QuizDelta delta = pending.remove(quizId);
+            if (delta != null) {
+                batch.put(quizId, delta);
+            }
+        }
+        batch.forEach((quizId, delta) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(quizId, delta));
+            } catch (Exception e) {
+                // The quiz's counters rolled back together; merge them into the next flush
+                log.error("Failed to flush item analytics for quiz {}: {}", quizId, e.getMessage());
+                pending.merge(quizId, delta, QuizDelta::add);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==================== Helpers ====================
+
+    private void write(Long quizId, QuizDelta delta) {
+        jdbcTemplate.update(UPSERT_QUIZ_SQL, delta.attempts, delta.passed, quizId);
+
+        List<Object[]> questions = new ArrayList<>(delta.questions.size());
+        delta.questions.forEach((questionId, c) -> questions.add(new Object[]{
+                c[ANSWERED], c[CORRECT], c[UPPER_ANSWERED], c[UPPER_CORRECT],
+                c[LOWER_ANSWERED], c[LOWER_CORRECT], questionId}));
+        if (!questions.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_QUESTION_SQL, questions);
+        }
+
+        List<Object[]> options = new ArrayList<>(delta.options.size());
+        delta.options.forEach((optionId, count) -> options.add(new Object[]{quizId, count, optionId}));
+        if (!options.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_OPTION_SQL, options);
+        }
+    }
+
+    /**
+     * Percentage with two decimals, or null when there is nothing to divide by
+     */
+    private static Double percent(long part, long total) {
+        return total > 0 ? Math.round(part * 10000.0 / total) / 100.0 : null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.Quiz;
+import com.codeless.backend.domain.QuizAnswerOption;
+import com.codeless.backend.domain.QuizQuestion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Student-facing content of a quiz, as delivered by the take endpoint.
+ * Built once per quiz from the question/option graph by {@link QuizAnswerKeyCache} and shared by
+ * every student; per-user attempt state is added by the caller. Explanations and correct flags
+ * are only included when the quiz shows feedback immediately. Randomized quizzes hand out
+ * {@link #forAttempt(long)}, a per-attempt {@link QuizForm} view over the shared questions.
+ */
+public record QuizPayload(
+        Long id,
+        String title,
+        String description,
+        Integer passingScore,
+        Integer timeLimitMinutes,
+        Boolean randomizeQuestions,
+        Boolean showFeedbackImmediately,
+        Integer maxAttempts,
+        Integer questionsPerAttempt,
+        List<Question> questions
+) {
+
+    public record Question(
+            Long id,
+            String questionType,
+            String questionText,
+            String explanation,
+            Integer points,
+            List<Option> answerOptions
+    ) {}
+
+    public record Option(
+            Long id,
+            String optionText,
+            Boolean isCorrect
+    ) {}
+
+    /**
+     * Whether attempts get their own question selection or order instead of the quiz order
+     */
+    public boolean isRandomized() {
+        return Boolean.TRUE.equals(randomizeQuestions) || QuizForm.drawsSubset(questions.size(), questionsPerAttempt);
+    }
+
+    /**
+     * Number of questions each attempt gets
+     */
+    public int formSize() {
+        return QuizForm.drawsSubset(questions.size(), questionsPerAttempt) ? questionsPerAttempt : questions.size();
+    }
+
+    /**
+     * The questions of an attempt, drawn and ordered from the attempt id.
+     * When questions are randomized, multiple-choice options are shuffled as well.
+     */
+    public List<Question> forAttempt(long attemptId) {
+        if (!isRandomized()) {
+            return questions;
+        }
+        boolean shuffle = Boolean.TRUE.equals(randomizeQuestions);
+        int[] order = QuizForm.questionOrder(attemptId, questions.size(), questionsPerAttempt, shuffle);
+        List<Question> form = new ArrayList<>(order.length);
+        for (int index : order) {
+            Question question = questions.get(index);
+            if (shuffle && QuizQuestion.QuestionType.MULTIPLE_CHOICE.name().equals(question.questionType())) {
+                int[] optionOrder = QuizForm.optionOrder(attemptId, question.id(), question.answerOptions().size());
+                List<Option> options = new ArrayList<>(optionOrder.length);
+                for (int o : optionOrder) {
+                    options.add(question.answerOptions().get(o));
+                }
+                question = new Question(question.id(), question.questionType(), question.questionText(),
+                        question.explanation(), question.points(), options);
+            }
+            form.add(question);
+        }
+        return form;
+    }
+
+    /**
+     * Build the payload from a quiz and its questions (with answer options loaded), in question order
+     */
+    public static QuizPayload compile(Quiz quiz, List<QuizQuestion> orderedQuestions) {
+        boolean includeFeedback = Boolean.TRUE.equals(quiz.getShowFeedbackImmediately());
+
+        List<Question> questions = new ArrayList<>(orderedQuestions.size());
+        for (QuizQuestion question : orderedQuestions) {
+            List<Option> options = new ArrayList<>(question.getAnswerOptions().size());
+            for (QuizAnswerOption option : question.getAnswerOptions()) {
+                options.add(new Option(
+                        option.getId(),
+                        option.getOptionText(),
+                        includeFeedback ? option.getIsCorrect() : null
+                ));
+            }
+            questions.add(new Question(
+                    question.getId(),
+                    question.getQuestionType().name(),
+                    question.getQuestionText(),
+                    includeFeedback ? question.getExplanation() : null,
+                    question.getPoints(),
+                    List.copyOf(options)
+            ));
+        }
+
+        return new QuizPayload(
+                quiz.getId(),
+                quiz.getTitle(),
+                quiz.getDescription(),
+                quiz.getPassingScore(),
+                quiz.getTimeLimitMinutes(),
+                quiz.getRandomizeQuestions(),
+                quiz.getShowFeedbackImmediately(),
+                quiz.getMaxAttempts(),
+                quiz.getQuestionsPerAttempt(),
+                List.copyOf(questions)
+        );
+    }
+}
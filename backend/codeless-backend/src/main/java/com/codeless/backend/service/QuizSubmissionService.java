@@ -0,0 +1,273 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.config.AsyncConfig;
+import com.codeless.backend.domain.QuizAttempt;
+import com.codeless.backend.event.QuizAttemptExpiredEvent;
+import com.codeless.backend.event.QuizAttemptGradedEvent;
+import com.codeless.backend.event.QuizSubmittedEvent;
+import com.codeless.backend.repository.QuizAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Grades and records quiz submissions.
+ * The attempt's answers are its autosaved draft (see {@link QuizDraftService}) overlaid with any
+ * answers sent along with the submit. They are graded in memory against the cached
+ * {@link QuizAnswerKey} and written with a single batched insert, so a submission costs a
+ * constant number of statements regardless of the number of questions. Attempts of timed quizzes
+ * that are not submitted in time are completed the same way when {@link QuizTimeLimitService}
+ * reports them expired; if that fails the attempt is put back on the deadline wheel and retried a
+ * limited number of times.
+ */
+@Service
+@Slf4j
+public class QuizSubmissionService {
+
+    private static final String CLAIM_ATTEMPT_SQL =
+            "UPDATE quiz_attempts SET completed_at = ? WHERE id = ? AND completed_at IS NULL";
+
+    private static final String INSERT_ANSWER_SQL = """
+            INSERT INTO quiz_user_answers
+                (attempt_id, question_id, selected_option_id, selected_option_ids, text_answer, is_correct, points_earned)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizAttemptSummaryService quizAttemptSummaryService;
+    private final QuizDraftService quizDraftService;
+    private final QuizTimeLimitService quizTimeLimitService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LearningEventLog learningEventLog;
+    private final TransactionTemplate transactionTemplate;
+
+    public QuizSubmissionService(
+            QuizAttemptRepository quizAttemptRepository,
+            QuizAnswerKeyCache quizAnswerKeyCache,
+            QuizAttemptSummaryService quizAttemptSummaryService,
+            QuizDraftService quizDraftService,
+            QuizTimeLimitService quizTimeLimitService,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            LearningEventLog learningEventLog,
+            PlatformTransactionManager transactionManager) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.quizAttemptSummaryService = quizAttemptSummaryService;
+        this.quizDraftService = quizDraftService;
+        this.quizTimeLimitService = quizTimeLimitService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.learningEventLog = learningEventLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public record Submission(
+            QuizAttempt attempt,
+            QuizAnswerKey key,
+            List<QuizAnswerKey.GradedAnswer> answers,
+            BigDecimal bestScore
+    ) {}
+
+    /**
+     * Grade and complete an attempt from its draft plus the given responses.
+     * Past the deadline of a timed quiz only the answers autosaved in time count: a response is
+     * graded only if it matches the autosaved answer to its question.
+     *
+     * @throws IllegalArgumentException if the attempt does not exist or belongs to another user
+     * @throws IllegalStateException    if the attempt was already submitted
+     */
+    @Transactional
+    public Submission submit(Long userId, Long attemptId, List<QuizAnswerKey.Response> responses) {
+        QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new IllegalArgumentException("Attempt not found"));
+
+        if (!attempt.getUser().getId().equals(userId)) {
+            throw new IllegalArgumentException("Unauthorized");
+        }
+
+        if (attempt.getCompletedAt() != null) {
+            throw new IllegalStateException("Quiz already submitted");
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Long quizId = attempt.getQuiz().getId();
+        Integer timeLimitMinutes = quizAnswerKeyCache.payload(quizId).timeLimitMinutes();
+        boolean late = quizTimeLimitService.isExpired(attempt.getStartedAt(), timeLimitMinutes, now);
+
+        Submission submission = complete(attempt, quizAnswerKeyCache.get(quizId), responses, late, now);
+        if (submission == null) {
+            throw new IllegalStateException("Quiz already submitted");
+        }
+        return submission;
+    }
+
+    /**
+     * Grade an attempt that ran out of time with whatever answers were saved.
+     * The attempt has already left the deadline wheel, so a failure puts it back for a retry
+     * instead of leaving it open; the rolled-back transaction keeps its autosaved answers. After the
+     * configured number of retries the attempt is left open (a late submit can still complete it).
+     */
+    @Async(AsyncConfig.QUIZ_EXPIRY_EXECUTOR)
+    @EventListener
+    public void onAttemptExpired(QuizAttemptExpiredEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                QuizAttempt attempt = quizAttemptRepository.findById(event.attemptId()).orElse(null);
+                if (attempt == null || attempt.getCompletedAt() != null) {
+                    return;
+                }
+                Submission submission = complete(
+                        attempt, quizAnswerKeyCache.get(attempt.getQuiz().getId()), List.of(), false,
+                        event.occurredAt());
+                if (submission != null) {
+                    log.debug("Auto-submitted expired quiz attempt {} with {} saved answers",
+                            attempt.getId(), submission.answers().size());
+                }
+            });
+        } catch (Exception e) {
+            if (quizTimeLimitService.retryLater(event.attemptId())) {
+                log.warn("Failed to auto-submit expired quiz attempt {}, retrying later: {}",
+                        event.attemptId(), e.getMessage());
+            } else {
+                log.error("Gave up auto-submitting expired quiz attempt {}: {}", event.attemptId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Claim, grade and record an attempt; returns null if another submit completed it first
+     *
+     * @param late whether the responses arrived after the deadline, so that only those matching
+     *             the autosaved answer count
+     */
+    private Submission complete(QuizAttempt attempt, QuizAnswerKey key, List<QuizAnswerKey.Response> responses,
+                                boolean late, OffsetDateTime completedAt) {
+        // The row lock serializes a student's submit with the expiry auto-submit (on any node)
+        if (jdbcTemplate.update(CLAIM_ATTEMPT_SQL, completedAt, attempt.getId()) == 0) {
+            return null;
+        }
+        Long userId = attempt.getUser().getId();
+
+        // Answers sent with the submit win over the autosaved ones; cleared drafts count as unanswered
+        Map<Long, QuizAnswerKey.Response> latest = new LinkedHashMap<>();
+        for (QuizAnswerKey.Response draft : quizDraftService.take(attempt.getId())) {
+            if (!draft.isEmpty()) {
+                latest.put(draft.questionId(), draft);
+            }
+        }
+        int discarded = 0;
+        for (QuizAnswerKey.Response response : responses) {
+            if (late && !Objects.equals(latest.get(response.questionId()), response)) {
+                discarded++;
+                continue;
+            }
+            latest.put(response.questionId(), response);
+        }
+        if (discarded > 0) {
+            log.debug("Late submit of quiz attempt {}: {} answers not autosaved in time were ignored",
+                    attempt.getId(), discarded);
+        }
+        // Only questions drawn for this attempt are graded; answers to other questions of the quiz and
+        // to questions deleted since they were autosaved are ignored
+        Set<Long> form = new HashSet<>();
+        for (QuizAnswerKey.QuestionKey question : key.form(attempt.getId())) {
+            form.add(question.id());
+        }
+        latest.values().removeIf(r -> !form.contains(r.questionId()));
+
+        // Score is relative to the questions that were answered
+        int totalPoints = 0;
+        int earnedPoints = 0;
+        List<QuizAnswerKey.GradedAnswer> answers = new ArrayList<>(latest.size());
+        for (QuizAnswerKey.Response response : latest.values()) {
+            QuizAnswerKey.GradedAnswer graded = key.grade(response);
+            totalPoints += key.question(graded.questionId()).points();
+            earnedPoints += graded.pointsEarned();
+            answers.add(graded);
+        }
+
+        saveAnswers(attempt.getId(), answers);
+
+        BigDecimal score = totalPoints > 0
+                ? BigDecimal.valueOf(earnedPoints).multiply(BigDecimal.valueOf(100))
+                    .divide(BigDecimal.valueOf(totalPoints), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        boolean passed = score.compareTo(BigDecimal.valueOf(key.passingScore())) >= 0;
+
+        attempt.setCompletedAt(completedAt);
+        attempt.setScore(score);
+        attempt.setPassed(passed);
+        attempt.setTimeSpentSeconds((int) Duration.between(attempt.getStartedAt(), attempt.getCompletedAt()).getSeconds());
+        quizAttemptRepository.save(attempt);
+
+        // Best score (including the current attempt) and first pass come back from the summary upsert
+        QuizAttemptSummaryService.Recorded recorded = quizAttemptSummaryService.recordSubmission(
+                userId, key.quizId(), score, passed, attempt.getCompletedAt());
+
+        eventPublisher.publishEvent(new QuizSubmittedEvent(
+                userId, key.quizId(), attempt.getId(), score, passed, recorded.firstPass(), attempt.getCompletedAt()));
+        eventPublisher.publishEvent(new QuizAttemptGradedEvent(
+                key.quizId(), attempt.getId(), passed, gradedItems(key, answers), attempt.getCompletedAt()));
+        learningEventLog.quizSubmitted(
+                userId, key.lessonId(), key.quizId(), attempt.getId(), attempt.getTimeSpentSeconds(), score);
+
+        return new Submission(attempt, key, answers, recorded.bestScore());
+    }
+
+    private static List<QuizAttemptGradedEvent.Item> gradedItems(QuizAnswerKey key,
+                                                                 List<QuizAnswerKey.GradedAnswer> answers) {
+        List<QuizAttemptGradedEvent.Item> items = new ArrayList<>(answers.size());
+        for (QuizAnswerKey.GradedAnswer answer : answers) {
+            QuizAnswerKey.QuestionKey question = key.question(answer.questionId());
+            List<Long> selected = new ArrayList<>();
+            if (answer.selectedOptionId() != null) {
+                selected.add(answer.selectedOptionId());
+            }
+            if (answer.selectedOptionIds() != null) {
+                answer.selectedOptionIds().stream()
+                        .filter(id -> question.option(id) != null)
+                        .forEach(selected::add);
+            }
+            items.add(new QuizAttemptGradedEvent.Item(answer.questionId(), answer.correct(), selected));
+        }
+        return items;
+    }
+
+    private void saveAnswers(Long attemptId, List<QuizAnswerKey.GradedAnswer> answers) {
+        if (answers.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, answers.stream()
+                .map(a -> new Object[]{
+                        attemptId,
+                        a.questionId(),
+                        a.selectedOptionId(),
+                        a.selectedOptionIds() != null ? a.selectedOptionIds().toArray(Long[]::new) : null,
+                        a.textAnswer(),
+                        a.correct(),
+                        a.pointsEarned()})
+                .toList());
+        log.debug("Saved {} answers for quiz attempt {}", answers.size(), attemptId);
+    }
+}
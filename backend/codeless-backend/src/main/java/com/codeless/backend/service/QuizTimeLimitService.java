@@ -0,0 +1,147 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.event.QuizAttemptExpiredEvent;
+import com.codeless.backend.event.QuizSubmittedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side enforcement of quiz time limits.
+ * Open attempts of timed quizzes are kept in a {@link QuizDeadlineWheel}, filled once at startup
+ * from the database and then maintained as attempts start and are submitted. A single scheduled
+ * tick advances the wheel and publishes a {@link QuizAttemptExpiredEvent} per expired attempt,
+ * which grades it with its saved answers. There is no per-attempt task and no polling query.
+ * The deadline of an attempt is its start plus the time limit plus a configurable grace window
+ * that absorbs network latency of the final autosave/submit. An attempt whose auto-submit keeps
+ * failing is retried a bounded number of times.
+ */
+@Service
+@Slf4j
+public class QuizTimeLimitService {
+
+    private static final String OPEN_TIMED_ATTEMPTS_SQL = """
+            SELECT a.id, a.started_at, q.time_limit_minutes
+            FROM quiz_attempts a
+            JOIN quizzes q ON q.id = a.quiz_id
+            WHERE a.completed_at IS NULL
+              AND q.time_limit_minutes IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration grace;
+    private final Duration retryDelay;
+    private final int maxRetries;
+    private final QuizDeadlineWheel wheel;
+    private final Map<Long, Integer> retries = new ConcurrentHashMap<>();
+
+    public QuizTimeLimitService(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.quiz-timer.grace:30s}") Duration grace,
+            @Value("${app.quiz-timer.retry-delay:1m}") Duration retryDelay,
+            @Value("${app.quiz-timer.max-retries:5}") int maxRetries,
+            @Value("${app.quiz-timer.tick-ms:1000}") long tickMillis,
+            @Value("${app.quiz-timer.wheel-size:512}") int wheelSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.grace = grace;
+        this.retryDelay = retryDelay;
+        this.maxRetries = maxRetries;
+        this.wheel = new QuizDeadlineWheel(wheelSize, tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Deadline of an attempt including grace, or null when the quiz has no time limit
+     */
+    public OffsetDateTime deadline(OffsetDateTime startedAt, Integer timeLimitMinutes) {
+        if (startedAt == null || timeLimitMinutes == null) {
+            return null;
+        }
+        return startedAt.plusMinutes(timeLimitMinutes).plus(grace);
+    }
+
+    /**
+     * Whether the attempt's deadline has passed
+     */
+    public boolean isExpired(OffsetDateTime startedAt, Integer timeLimitMinutes, OffsetDateTime now) {
+        OffsetDateTime deadline = deadline(startedAt, timeLimitMinutes);
+        return deadline != null && now.isAfter(deadline);
+    }
+
+    /**
+     * Start tracking a newly started attempt; untimed quizzes are ignored
+     */
+    public void track(Long attemptId, OffsetDateTime startedAt, Integer timeLimitMinutes) {
+        OffsetDateTime deadline = deadline(startedAt, timeLimitMinutes);
+        if (deadline != null) {
+            wheel.schedule(attemptId, deadline.toInstant().toEpochMilli());
+        }
+    }
+
+    /**
+     * Put an expired attempt whose auto-submit failed back on the wheel, to expire again after the retry delay
+     *
+     * @return false if the attempt has used up its retries and is no longer tracked
+     */
+    public boolean retryLater(Long attemptId) {
+        int tries = retries.merge(attemptId, 1, Integer::sum);
+        if (tries > maxRetries) {
+            retries.remove(attemptId);
+            return false;
+        }
+        wheel.schedule(attemptId, System.currentTimeMillis() + retryDelay.toMillis());
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        wheel.cancel(event.attemptId());
+        retries.remove(event.attemptId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.quiz-timer.tick-ms:1000}")
+    public void tick() {
+        List<Long> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+        log.debug("{} quiz attempts reached their deadline, {} still open", expired.size(), wheel.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Long attemptId : expired) {
+            eventPublisher.publishEvent(new QuizAttemptExpiredEvent(attemptId, now));
+        }
+    }
+
+    /**
+     * Rebuild the wheel from the open attempts of timed quizzes; overdue ones expire on the first tick
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        int[] count = new int[1];
+        try {
+            jdbcTemplate.query(OPEN_TIMED_ATTEMPTS_SQL, rs -> {
+                track(rs.getLong("id"),
+                        rs.getObject("started_at", OffsetDateTime.class),
+                        rs.getInt("time_limit_minutes"));
+                count[0]++;
+            });
+            log.info("Tracking deadlines of {} open timed quiz attempts", count[0]);
+        } catch (Exception e) {
+            log.error("Failed to load open quiz attempts into the deadline wheel: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.codeless.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Eviction of local caches that are filled from the database.
+ * The entry is dropped right away and, when called inside a transaction, once more after the
+ * transaction completes: a reader that loads the entry between the two still sees the data from
+ * before the commit, and would otherwise keep it cached until it expires.
+ */
+final class TransactionalCacheEviction {
+
+    private TransactionalCacheEviction() {}
+
+    static <K> void evict(Cache<K, ?> cache, K key) {
+        if (key == null) {
+            return;
+        }
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+}
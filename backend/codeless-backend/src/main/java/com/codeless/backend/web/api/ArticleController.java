@@ -1,7 +1,9 @@
 package com.codeless.backend.web.api;
 
+import com.codeless.backend.config.JwtAuthFilter;
 import com.codeless.backend.domain.ArticleContent;
 import com.codeless.backend.repository.ArticleContentRepository;
+import com.codeless.backend.service.LearningEventLog;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 public class ArticleController {
 
     private final ArticleContentRepository articleContentRepository;
+    private final LearningEventLog learningEventLog;
 
     @Data
     public static class ArticleContentViewDTO {
@@ -34,9 +37,17 @@ public class ArticleController {
     // Get article content by lesson ID (public/student access)
     @GetMapping("/lesson/{lessonId}")
     @Transactional(readOnly = true)
-    public ResponseEntity<ArticleContentViewDTO> getByLessonId(@PathVariable Long lessonId) {
+    public ResponseEntity<ArticleContentViewDTO> getByLessonId(
+            @PathVariable Long lessonId,
+            @RequestAttribute(name = JwtAuthFilter.USER_ID_ATTRIBUTE, required = false) Long userId) {
         return articleContentRepository.findByLessonId(lessonId)
-                .map(article -> ResponseEntity.ok(ArticleContentViewDTO.from(article)))
+                .map(article -> {
+                    // Anonymous readers are not tracked
+                    if (userId != null) {
+                        learningEventLog.articleRead(userId, lessonId);
+                    }
+                    return ResponseEntity.ok(ArticleContentViewDTO.from(article));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 }
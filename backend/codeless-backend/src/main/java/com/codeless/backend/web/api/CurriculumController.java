@@ -1,5 +1,6 @@
 package com.codeless.backend.web.api;
 
+import com.codeless.backend.config.JwtAuthFilter;
 import com.codeless.backend.service.CurriculumService;
 import com.codeless.backend.web.api.dto.CurriculumDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -44,5 +45,26 @@ public class CurriculumController {
         );
         return ResponseEntity.ok(response);
     }
+    
+    @PostMapping("/lessons/{lessonId}/open")
+    @Operation(summary = "Lesson opened", description = "Record that the student opened a lesson")
+    public ResponseEntity<Void> lessonOpened(
+            @PathVariable Long lessonId,
+            @RequestAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE) Long userId) {
+        
+        curriculumService.recordLessonOpened(lessonId, userId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/lessons/{lessonId}/heartbeat")
+    @Operation(summary = "Lesson heartbeat", description = "Periodic ping from the lesson player with playback position and time spent")
+    public ResponseEntity<Void> heartbeat(
+            @PathVariable Long lessonId,
+            @RequestBody @Valid CurriculumDTO.LessonHeartbeatRequest request,
+            Authentication auth) {
+        
+        curriculumService.recordHeartbeat(lessonId, auth.getName(), request);
+        return ResponseEntity.noContent().build();
+    }
 }
 
@@ -1,6 +1,8 @@
 package com.codeless.backend.web.api;
 
+import com.codeless.backend.config.JwtAuthFilter;
 import com.codeless.backend.service.DashboardService;
+import com.codeless.backend.service.DashboardSnapshotCache;
 import com.codeless.backend.web.api.dto.DashboardDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,9 +19,18 @@ import java.util.List;
 @Tag(name = "Dashboard", description = "User dashboard and statistics")
 public class DashboardController {
     private final DashboardService dashboardService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardSnapshotCache dashboardSnapshotCache) {
         this.dashboardService = dashboardService;
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+    }
+
+    @Operation(summary = "Get dashboard", description = "Returns stats, enrolled courses with progress, and achievements in one response")
+    @GetMapping
+    public ResponseEntity<DashboardDTO.DashboardResponse> getDashboard(
+            @RequestAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE) Long userId) {
+        return ResponseEntity.ok(dashboardSnapshotCache.get(userId));
     }
 
     @Operation(summary = "Get dashboard statistics", description = "Returns total courses, completed, learning time, and streak")
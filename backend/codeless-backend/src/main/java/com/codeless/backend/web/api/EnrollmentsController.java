@@ -3,10 +3,12 @@ package com.codeless.backend.web.api;
 import com.codeless.backend.domain.Course;
 import com.codeless.backend.domain.Enrollment;
 import com.codeless.backend.domain.User;
+import com.codeless.backend.event.EnrollmentCreatedEvent;
 import com.codeless.backend.repository.CourseRepository;
 import com.codeless.backend.repository.EnrollmentRepository;
 import com.codeless.backend.repository.UserRepository;
 import com.codeless.backend.web.api.dto.EnrollmentDTO;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -24,11 +26,14 @@ public class EnrollmentsController {
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public EnrollmentsController(EnrollmentRepository enrollmentRepository, UserRepository userRepository, CourseRepository courseRepository) {
+    public EnrollmentsController(EnrollmentRepository enrollmentRepository, UserRepository userRepository,
+                                 CourseRepository courseRepository, ApplicationEventPublisher eventPublisher) {
         this.enrollmentRepository = enrollmentRepository;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping
@@ -69,6 +74,8 @@ public class EnrollmentsController {
             e.setUser(user);
             e.setCourse(course);
             Enrollment saved = enrollmentRepository.save(e);
+            eventPublisher.publishEvent(new EnrollmentCreatedEvent(
+                    saved.getId(), user.getId(), course.getId(), user.getFullName(), course.getTitle(), saved.getEnrolledAt()));
             return ResponseEntity.created(URI.create("/api/enrollments/" + saved.getId()))
                     .body(new CreateEnrollmentResponse(saved.getId(), user.getId(), course.getId(), saved.getEnrolledAt()));
         } catch (DataIntegrityViolationException ex) {
@@ -2,6 +2,14 @@ package com.codeless.backend.web.api;
 
 import com.codeless.backend.domain.*;
 import com.codeless.backend.repository.*;
+import com.codeless.backend.service.LearningEventLog;
+import com.codeless.backend.service.QuizAnswerKey;
+import com.codeless.backend.service.QuizAnswerKeyCache;
+import com.codeless.backend.service.QuizAttemptSummaryService;
+import com.codeless.backend.service.QuizDraftService;
+import com.codeless.backend.service.QuizPayload;
+import com.codeless.backend.service.QuizSubmissionService;
+import com.codeless.backend.service.QuizTimeLimitService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -10,11 +18,13 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,9 +35,13 @@ public class QuizController {
     private final QuizRepository quizRepository;
     private final QuizQuestionRepository quizQuestionRepository;
     private final QuizAttemptRepository quizAttemptRepository;
-    private final QuizUserAnswerRepository quizUserAnswerRepository;
-    private final QuizAnswerOptionRepository quizAnswerOptionRepository;
     private final UserRepository userRepository;
+    private final LearningEventLog learningEventLog;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizSubmissionService quizSubmissionService;
+    private final QuizAttemptSummaryService quizAttemptSummaryService;
+    private final QuizDraftService quizDraftService;
+    private final QuizTimeLimitService quizTimeLimitService;
 
     // ==================== DTOs ====================
 
@@ -44,24 +58,8 @@ public class QuizController {
         private Integer attemptCount;
         private Boolean canAttempt;
         private BigDecimal bestScore; // Best score from previous attempts
-        private List<QuestionTakeDTO> questions;
-    }
-
-    @Data
-    public static class QuestionTakeDTO {
-        private Long id;
-        private String questionType;
-        private String questionText;
-        private String explanation; // For immediate feedback
-        private Integer points;
-        private List<AnswerOptionTakeDTO> answerOptions;
-    }
-
-    @Data
-    public static class AnswerOptionTakeDTO {
-        private Long id;
-        private String optionText;
-        private Boolean isCorrect; // Included only when showFeedbackImmediately is true
+        private Integer questionCount; // Questions per attempt
+        private List<QuizPayload.Question> questions; // Shared, cached per quiz; empty when randomized (see start)
     }
 
     @Data
@@ -69,12 +67,13 @@ public class QuizController {
         private Long attemptId;
         private OffsetDateTime startedAt;
         private Integer timeLimitMinutes;
+        private List<QuizPayload.Question> questions; // This attempt's questions, in display order
     }
 
     @Data
     public static class SubmitAnswersDTO {
         private Long attemptId;
-        private List<UserAnswerDTO> answers;
+        private List<UserAnswerDTO> answers; // Optional; autosaved answers are graded as well
     }
 
     @Data
@@ -126,77 +125,27 @@ public class QuizController {
     // ==================== Endpoints ====================
 
     @GetMapping("/{quizId}/take")
-    @Transactional(readOnly = true)
     public ResponseEntity<QuizTakeDTO> getQuizForTaking(@PathVariable Long quizId, Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName())
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        QuizPayload payload = quizAnswerKeyCache.payload(quizId);
 
-        Quiz quiz = quizRepository.findByIdWithQuestions(quizId)
-            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        // Per-user attempt state from the summary row, keyed by the authenticated email
+        QuizAttemptSummaryService.Summary summary = quizAttemptSummaryService.findByEmail(auth.getName(), quizId);
 
         QuizTakeDTO dto = new QuizTakeDTO();
-        dto.setId(quiz.getId());
-        dto.setTitle(quiz.getTitle());
-        dto.setDescription(quiz.getDescription());
-        dto.setPassingScore(quiz.getPassingScore());
-        dto.setTimeLimitMinutes(quiz.getTimeLimitMinutes());
-        dto.setRandomizeQuestions(quiz.getRandomizeQuestions());
-        dto.setShowFeedbackImmediately(quiz.getShowFeedbackImmediately());
-        dto.setMaxAttempts(quiz.getMaxAttempts());
-
-        // Check attempt count and calculate best score
-        List<QuizAttempt> previousAttempts = quizAttemptRepository.findByUserIdAndQuizId(user.getId(), quizId);
-        Long attemptCount = (long) previousAttempts.size();
-        dto.setAttemptCount(attemptCount.intValue());
-        
-        // Calculate best score from previous attempts
-        BigDecimal bestScore = previousAttempts.stream()
-            .map(QuizAttempt::getScore)
-            .filter(score -> score != null)
-            .max(BigDecimal::compareTo)
-            .orElse(null);
-        dto.setBestScore(bestScore);
-        
-        boolean canAttempt = quiz.getMaxAttempts() == null || attemptCount < quiz.getMaxAttempts();
-        dto.setCanAttempt(canAttempt);
-
-        // Load questions (include feedback data if showFeedbackImmediately is enabled)
-        boolean includeFeedback = quiz.getShowFeedbackImmediately() != null && quiz.getShowFeedbackImmediately();
-        List<QuestionTakeDTO> questions = quiz.getQuestions().stream()
-            .map(q -> {
-                QuestionTakeDTO qDto = new QuestionTakeDTO();
-                qDto.setId(q.getId());
-                qDto.setQuestionType(q.getQuestionType().name());
-                qDto.setQuestionText(q.getQuestionText());
-                qDto.setPoints(q.getPoints());
-                
-                // Include explanation only if immediate feedback is enabled
-                if (includeFeedback) {
-                    qDto.setExplanation(q.getExplanation());
-                }
-
-                // Load answer options (include isCorrect only if immediate feedback is enabled)
-                List<AnswerOptionTakeDTO> options = q.getAnswerOptions().stream()
-                    .map(opt -> {
-                        AnswerOptionTakeDTO optDto = new AnswerOptionTakeDTO();
-                        optDto.setId(opt.getId());
-                        optDto.setOptionText(opt.getOptionText());
-                        
-                        // Include isCorrect only if immediate feedback is enabled
-                        if (includeFeedback) {
-                            optDto.setIsCorrect(opt.getIsCorrect());
-                        }
-                        
-                        return optDto;
-                    })
-                    .collect(Collectors.toList());
-                qDto.setAnswerOptions(options);
-
-                return qDto;
-            })
-            .collect(Collectors.toList());
-
-        dto.setQuestions(questions);
+        dto.setId(payload.id());
+        dto.setTitle(payload.title());
+        dto.setDescription(payload.description());
+        dto.setPassingScore(payload.passingScore());
+        dto.setTimeLimitMinutes(payload.timeLimitMinutes());
+        dto.setRandomizeQuestions(payload.randomizeQuestions());
+        dto.setShowFeedbackImmediately(payload.showFeedbackImmediately());
+        dto.setMaxAttempts(payload.maxAttempts());
+        dto.setAttemptCount(summary.attemptCount());
+        dto.setBestScore(summary.bestScore());
+        dto.setCanAttempt(payload.maxAttempts() == null || summary.attemptCount() < payload.maxAttempts());
+        dto.setQuestionCount(payload.formSize());
+        // Randomized quizzes only reveal an attempt's own questions, once it has started
+        dto.setQuestions(payload.isRandomized() ? List.of() : payload.questions());
 
         return ResponseEntity.ok(dto);
     }
@@ -207,168 +156,100 @@ public class QuizController {
         User user = userRepository.findByEmail(auth.getName())
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        Quiz quiz = quizRepository.findById(quizId)
-            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        QuizPayload quiz = quizAnswerKeyCache.payload(quizId);
+        OffsetDateTime startedAt = OffsetDateTime.now();
 
-        // Check if user can attempt
-        Long attemptCount = quizAttemptRepository.countByUserIdAndQuizId(user.getId(), quizId);
-        if (quiz.getMaxAttempts() != null && attemptCount >= quiz.getMaxAttempts()) {
-            throw new IllegalStateException("Maximum attempts reached");
-        }
+        // Counts the attempt, or fails if the user is out of attempts
+        quizAttemptSummaryService.reserveAttempt(user.getId(), quizId, quiz.maxAttempts(), startedAt);
 
         QuizAttempt attempt = new QuizAttempt();
         attempt.setUser(user);
-        attempt.setQuiz(quiz);
-        attempt.setStartedAt(OffsetDateTime.now());
+        attempt.setQuiz(quizRepository.getReferenceById(quizId));
+        attempt.setStartedAt(startedAt);
 
         QuizAttempt saved = quizAttemptRepository.save(attempt);
+        quizTimeLimitService.track(saved.getId(), startedAt, quiz.timeLimitMinutes());
+        learningEventLog.quizStarted(user.getId(), quizAnswerKeyCache.get(quizId).lessonId(), quizId, saved.getId());
 
         AttemptStartDTO dto = new AttemptStartDTO();
         dto.setAttemptId(saved.getId());
         dto.setStartedAt(saved.getStartedAt());
-        dto.setTimeLimitMinutes(quiz.getTimeLimitMinutes());
+        dto.setTimeLimitMinutes(quiz.timeLimitMinutes());
+        dto.setQuestions(quiz.forAttempt(saved.getId()));
 
         return ResponseEntity.ok(dto);
     }
 
-    @PostMapping("/submit")
-    @Transactional
-    public ResponseEntity<AttemptResultDTO> submitQuizAnswers(@RequestBody SubmitAnswersDTO dto, Authentication auth) {
+    /**
+     * The questions of an attempt again (e.g. after a reload), in the same order as at start
+     */
+    @GetMapping("/attempts/{attemptId}/questions")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<QuizPayload.Question>> getAttemptQuestions(@PathVariable Long attemptId, Authentication auth) {
         User user = userRepository.findByEmail(auth.getName())
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        QuizAttempt attempt = quizAttemptRepository.findById(dto.getAttemptId())
+        QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
             .orElseThrow(() -> new IllegalArgumentException("Attempt not found"));
 
         if (!attempt.getUser().getId().equals(user.getId())) {
             throw new IllegalArgumentException("Unauthorized");
         }
 
-        if (attempt.getCompletedAt() != null) {
-            throw new IllegalStateException("Quiz already submitted");
-        }
-
-        Quiz quiz = quizRepository.findByIdWithQuestions(attempt.getQuiz().getId())
-            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
-
-        // Save user answers and calculate score
-        int totalPoints = 0;
-        int earnedPoints = 0;
-
-        List<QuizUserAnswer> userAnswers = new ArrayList<>();
-
-        for (UserAnswerDTO answerDto : dto.getAnswers()) {
-            QuizQuestion question = quiz.getQuestions().stream()
-                .filter(q -> q.getId().equals(answerDto.getQuestionId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Question not found"));
-
-            totalPoints += question.getPoints();
-
-            QuizUserAnswer userAnswer = new QuizUserAnswer();
-            userAnswer.setAttempt(attempt);
-            userAnswer.setQuestion(question);
-
-            boolean isCorrect = false;
-
-            // Check answer based on question type
-            if (question.getQuestionType() == QuizQuestion.QuestionType.TRUE_FALSE) {
-                // TRUE_FALSE: Single selection, check if correct
-                if (answerDto.getSelectedOptionId() != null) {
-                    QuizAnswerOption selectedOption = quizAnswerOptionRepository.findById(answerDto.getSelectedOptionId())
-                        .orElseThrow(() -> new IllegalArgumentException("Option not found"));
-                    
-                    userAnswer.setSelectedOption(selectedOption);
-                    isCorrect = selectedOption.getIsCorrect();
-                }
-            } else if (question.getQuestionType() == QuizQuestion.QuestionType.MULTIPLE_CHOICE) {
-                // MULTIPLE_CHOICE: Multiple selections, check if ALL are correct
-                if (answerDto.getSelectedOptionIds() != null && !answerDto.getSelectedOptionIds().isEmpty()) {
-                    // Get all correct option IDs for this question
-                    List<Long> correctOptionIds = question.getAnswerOptions().stream()
-                        .filter(QuizAnswerOption::getIsCorrect)
-                        .map(QuizAnswerOption::getId)
-                        .sorted()
-                        .collect(Collectors.toList());
-                    
-                    // Sort user's selections for comparison
-                    List<Long> userSelections = answerDto.getSelectedOptionIds().stream()
-                        .sorted()
-                        .collect(Collectors.toList());
-                    
-                    // Store selections
-                    userAnswer.setSelectedOptionIdsList(userSelections);
-                    
-                    // Check if user selected exactly the correct answers (no more, no less)
-                    isCorrect = correctOptionIds.equals(userSelections);
-                }
-            } else if (question.getQuestionType() == QuizQuestion.QuestionType.FILL_BLANK) {
-                // FILL_BLANK: Check against acceptable answers
-                if (answerDto.getTextAnswer() != null && !answerDto.getTextAnswer().trim().isEmpty()) {
-                    userAnswer.setTextAnswer(answerDto.getTextAnswer());
-                    
-                    // Get acceptable answers from the first answer option
-                    // (For FILL_BLANK, we store acceptable answers in option 0)
-                    if (!question.getAnswerOptions().isEmpty()) {
-                        QuizAnswerOption fillBlankOption = question.getAnswerOptions().get(0);
-                        String acceptableAnswers = fillBlankOption.getAcceptableAnswers();
-                        
-                        if (acceptableAnswers != null && !acceptableAnswers.trim().isEmpty()) {
-                            String userAnswerLower = answerDto.getTextAnswer().trim().toLowerCase();
-                            
-                            // Check if user answer matches any acceptable answer (case-insensitive)
-                            for (String acceptable : acceptableAnswers.split(",")) {
-                                if (acceptable.trim().toLowerCase().equals(userAnswerLower)) {
-                                    isCorrect = true;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+        return ResponseEntity.ok(quizAnswerKeyCache.payload(attempt.getQuiz().getId()).forAttempt(attemptId));
+    }
 
-            userAnswer.setIsCorrect(isCorrect);
-            userAnswer.setPointsEarned(isCorrect ? question.getPoints() : 0);
+    @PostMapping("/submit")
+    public ResponseEntity<AttemptResultDTO> submitQuizAnswers(@RequestBody SubmitAnswersDTO dto, Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName())
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-            if (isCorrect) {
-                earnedPoints += question.getPoints();
-            }
+        List<QuizAnswerKey.Response> responses = dto.getAnswers() == null ? List.of() : dto.getAnswers().stream()
+            .map(a -> new QuizAnswerKey.Response(
+                a.getQuestionId(), a.getSelectedOptionId(), a.getSelectedOptionIds(), a.getTextAnswer()))
+            .collect(Collectors.toList());
 
-            userAnswers.add(userAnswer);
-            quizUserAnswerRepository.save(userAnswer);
-        }
+        QuizSubmissionService.Submission submission =
+            quizSubmissionService.submit(user.getId(), dto.getAttemptId(), responses);
 
-        // Calculate percentage score
-        BigDecimal score = totalPoints > 0 
-            ? BigDecimal.valueOf(earnedPoints).multiply(BigDecimal.valueOf(100))
-                .divide(BigDecimal.valueOf(totalPoints), 2, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
+        AttemptResultDTO result = buildAttemptResult(
+            submission.attempt(), submission.key(), submission.answers(), submission.bestScore());
 
-        boolean passed = score.compareTo(BigDecimal.valueOf(quiz.getPassingScore())) >= 0;
+        return ResponseEntity.ok(result);
+    }
 
-        // Update attempt
-        attempt.setCompletedAt(OffsetDateTime.now());
-        attempt.setScore(score);
-        attempt.setPassed(passed);
+    @PutMapping("/attempts/{attemptId}/answers/{questionId}")
+    public ResponseEntity<Void> autosaveAnswer(
+            @PathVariable Long attemptId,
+            @PathVariable Long questionId,
+            @RequestBody UserAnswerDTO dto,
+            Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName())
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        Duration duration = Duration.between(attempt.getStartedAt(), attempt.getCompletedAt());
-        attempt.setTimeSpentSeconds((int) duration.getSeconds());
+        quizDraftService.save(user.getId(), attemptId, new QuizAnswerKey.Response(
+            questionId, dto.getSelectedOptionId(), dto.getSelectedOptionIds(), dto.getTextAnswer()));
 
-        quizAttemptRepository.save(attempt);
+        return ResponseEntity.noContent().build();
+    }
 
-        // Calculate best score from all attempts by this user on this quiz (including current one)
-        List<QuizAttempt> allAttempts = quizAttemptRepository.findByUserIdAndQuizId(user.getId(), quiz.getId());
-        BigDecimal bestScore = allAttempts.stream()
-            .map(QuizAttempt::getScore)
-            .filter(s -> s != null)
-            .max(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
+    @GetMapping("/attempts/{attemptId}/answers")
+    public ResponseEntity<List<UserAnswerDTO>> getAutosavedAnswers(@PathVariable Long attemptId, Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName())
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Build result DTO
-        AttemptResultDTO result = buildAttemptResult(attempt, quiz, userAnswers, bestScore);
+        List<UserAnswerDTO> answers = quizDraftService.answers(user.getId(), attemptId).stream()
+            .map(r -> {
+                UserAnswerDTO dto = new UserAnswerDTO();
+                dto.setQuestionId(r.questionId());
+                dto.setSelectedOptionId(r.selectedOptionId());
+                dto.setSelectedOptionIds(r.selectedOptionIds());
+                dto.setTextAnswer(r.textAnswer());
+                return dto;
+            })
+            .collect(Collectors.toList());
 
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(answers);
     }
 
     @GetMapping("/attempts/{attemptId}/result")
@@ -384,18 +265,25 @@ public class QuizController {
             throw new IllegalArgumentException("Unauthorized");
         }
 
-        Quiz quiz = quizRepository.findByIdWithQuestions(attempt.getQuiz().getId())
-            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        QuizAnswerKey key = quizAnswerKeyCache.get(attempt.getQuiz().getId());
 
-        // Calculate best score from all attempts by this user on this quiz
-        List<QuizAttempt> allAttempts = quizAttemptRepository.findByUserIdAndQuizId(user.getId(), quiz.getId());
-        BigDecimal bestScore = allAttempts.stream()
-            .map(QuizAttempt::getScore)
-            .filter(score -> score != null)
-            .max(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
+        // Best score from all attempts by this user on this quiz
+        BigDecimal bestScore = quizAttemptSummaryService.find(user.getId(), key.quizId()).bestScore();
+        if (bestScore == null) {
+            bestScore = BigDecimal.ZERO;
+        }
+
+        List<QuizAnswerKey.GradedAnswer> answers = attempt.getUserAnswers().stream()
+            .map(ua -> new QuizAnswerKey.GradedAnswer(
+                ua.getQuestion().getId(),
+                ua.getSelectedOption() != null ? ua.getSelectedOption().getId() : null,
+                ua.getSelectedOptionIds() != null && ua.getSelectedOptionIds().length > 0 ? ua.getSelectedOptionIdsList() : null,
+                ua.getTextAnswer(),
+                Boolean.TRUE.equals(ua.getIsCorrect()),
+                ua.getPointsEarned() != null ? ua.getPointsEarned() : 0))
+            .collect(Collectors.toList());
 
-        AttemptResultDTO result = buildAttemptResult(attempt, quiz, attempt.getUserAnswers(), bestScore);
+        AttemptResultDTO result = buildAttemptResult(attempt, key, answers, bestScore);
 
         return ResponseEntity.ok(result);
     }
@@ -425,7 +313,8 @@ public class QuizController {
     }
 
     // Helper method to build attempt result
-    private AttemptResultDTO buildAttemptResult(QuizAttempt attempt, Quiz quiz, List<QuizUserAnswer> userAnswers, BigDecimal bestScore) {
+    private AttemptResultDTO buildAttemptResult(QuizAttempt attempt, QuizAnswerKey key,
+                                                List<QuizAnswerKey.GradedAnswer> answers, BigDecimal bestScore) {
         AttemptResultDTO result = new AttemptResultDTO();
         result.setAttemptId(attempt.getId());
         result.setScore(attempt.getScore());
@@ -434,70 +323,83 @@ public class QuizController {
         result.setTimeSpentSeconds(attempt.getTimeSpentSeconds());
         result.setCompletedAt(attempt.getCompletedAt());
 
-        List<QuestionResultDTO> questionResults = quiz.getQuestions().stream()
-            .map(question -> {
-                QuestionResultDTO qResult = new QuestionResultDTO();
-                qResult.setQuestionId(question.getId());
-                qResult.setQuestionText(question.getQuestionText());
-                qResult.setQuestionType(question.getQuestionType().name());
-                qResult.setPointsPossible(question.getPoints());
-                qResult.setExplanation(question.getExplanation());
-
-                // Find user answer for this question
-                QuizUserAnswer userAnswer = userAnswers.stream()
-                    .filter(ua -> ua.getQuestion().getId().equals(question.getId()))
-                    .findFirst()
-                    .orElse(null);
-
-                if (userAnswer != null) {
-                    qResult.setIsCorrect(userAnswer.getIsCorrect());
-                    qResult.setPointsEarned(userAnswer.getPointsEarned());
-
-                    // For TRUE_FALSE (single selection)
-                    if (userAnswer.getSelectedOption() != null) {
-                        qResult.setSelectedOptionId(userAnswer.getSelectedOption().getId());
-                        qResult.setSelectedOptionText(userAnswer.getSelectedOption().getOptionText());
-                    }
+        Map<Long, QuizAnswerKey.GradedAnswer> answersByQuestion = new LinkedHashMap<>();
+        for (QuizAnswerKey.GradedAnswer answer : answers) {
+            answersByQuestion.putIfAbsent(answer.questionId(), answer);
+        }
 
-                    // For MULTIPLE_CHOICE (multiple selections)
-                    if (userAnswer.getSelectedOptionIds() != null && !userAnswer.getSelectedOptionIds().isEmpty()) {
-                        qResult.setSelectedOptionIds(userAnswer.getSelectedOptionIdsList());
-                    }
+        // The form is re-derived from the current quiz and changes when the quiz is edited, so the
+        // answered questions come from the answers themselves (in form order as far as they are
+        // still in it) and only the unanswered ones from the form
+        List<QuizAnswerKey.QuestionKey> form = key.form(attempt.getId());
+        Map<Long, Integer> formPositions = new HashMap<>();
+        for (int i = 0; i < form.size(); i++) {
+            formPositions.put(form.get(i).id(), i);
+        }
+        List<QuizAnswerKey.QuestionKey> questions = new ArrayList<>();
+        for (Long questionId : answersByQuestion.keySet()) {
+            QuizAnswerKey.QuestionKey question = key.question(questionId);
+            // A question deleted since has nothing left to show
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        questions.sort(Comparator.comparingInt(q -> formPositions.getOrDefault(q.id(), Integer.MAX_VALUE)));
+        for (QuizAnswerKey.QuestionKey question : form) {
+            if (!answersByQuestion.containsKey(question.id())) {
+                questions.add(question);
+            }
+        }
 
-                    // For FILL_BLANK
-                    if (userAnswer.getTextAnswer() != null) {
-                        qResult.setTextAnswer(userAnswer.getTextAnswer());
-                    }
+        List<QuestionResultDTO> questionResults = new ArrayList<>();
+        for (QuizAnswerKey.QuestionKey question : questions) {
+            QuestionResultDTO qResult = new QuestionResultDTO();
+            qResult.setQuestionId(question.id());
+            qResult.setQuestionText(question.text());
+            qResult.setQuestionType(question.type().name());
+            qResult.setPointsPossible(question.points());
+            qResult.setExplanation(question.explanation());
+
+            QuizAnswerKey.GradedAnswer answer = answersByQuestion.get(question.id());
+            if (answer != null) {
+                qResult.setIsCorrect(answer.correct());
+                qResult.setPointsEarned(answer.pointsEarned());
+
+                // For TRUE_FALSE (single selection)
+                QuizAnswerKey.OptionKey selected = question.option(answer.selectedOptionId());
+                if (selected != null) {
+                    qResult.setSelectedOptionId(selected.id());
+                    qResult.setSelectedOptionText(selected.text());
+                }
 
-                    // Show correct answers (if showFeedbackImmediately)
-                    if (quiz.getShowFeedbackImmediately()) {
-                        if (question.getQuestionType() == QuizQuestion.QuestionType.FILL_BLANK) {
-                            // Show acceptable answers for fill blank
-                            if (!question.getAnswerOptions().isEmpty()) {
-                                String acceptableAnswers = question.getAnswerOptions().get(0).getAcceptableAnswers();
-                                qResult.setAcceptableAnswers(acceptableAnswers);
-                            }
-                        } else {
-                            // Show all correct options for multiple choice / true-false
-                            List<String> correctTexts = question.getAnswerOptions().stream()
-                                .filter(opt -> opt.getIsCorrect())
-                                .map(QuizAnswerOption::getOptionText)
-                                .collect(Collectors.toList());
-                            qResult.setCorrectOptionTexts(correctTexts);
-                        }
+                // For MULTIPLE_CHOICE (multiple selections)
+                if (answer.selectedOptionIds() != null && !answer.selectedOptionIds().isEmpty()) {
+                    qResult.setSelectedOptionIds(answer.selectedOptionIds());
+                }
+
+                // For FILL_BLANK
+                if (answer.textAnswer() != null) {
+                    qResult.setTextAnswer(answer.textAnswer());
+                }
+
+                // Show correct answers (if showFeedbackImmediately)
+                if (key.showFeedbackImmediately()) {
+                    if (question.type() == QuizQuestion.QuestionType.FILL_BLANK) {
+                        qResult.setAcceptableAnswers(question.acceptableAnswers());
+                    } else {
+                        qResult.setCorrectOptionTexts(question.correctOptionTexts());
                     }
-                } else {
-                    qResult.setIsCorrect(false);
-                    qResult.setPointsEarned(0);
                 }
+            } else {
+                qResult.setIsCorrect(false);
+                qResult.setPointsEarned(0);
+            }
 
-                return qResult;
-            })
-            .collect(Collectors.toList());
+            questionResults.add(qResult);
+        }
 
         result.setQuestionResults(questionResults);
 
         return result;
     }
 }
-
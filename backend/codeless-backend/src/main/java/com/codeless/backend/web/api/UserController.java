@@ -2,6 +2,7 @@ package com.codeless.backend.web.api;
 
 import com.codeless.backend.domain.User;
 import com.codeless.backend.repository.UserRepository;
+import com.codeless.backend.service.LearningStreakService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZoneId;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/users")
@@ -26,10 +29,11 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final LearningStreakService learningStreakService;
 
     @Operation(
             summary = "Update user profile",
-            description = "Updates the current user's profile information (full name). Returns the updated user profile."
+            description = "Updates the current user's profile information (full name, timezone). Returns the updated user profile."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -56,8 +60,24 @@ public class UserController {
             user.setFullName(request.getFullName().trim());
         }
 
+        // Update timezone: IANA region ids known to both the JDK and PostgreSQL (e.g. "Asia/Tbilisi").
+        // Offset ids such as "+05:00" are rejected because PostgreSQL's AT TIME ZONE reads them with
+        // the sign inverted.
+        ZoneId zone = null;
+        if (request.getTimezone() != null && !request.getTimezone().isBlank()) {
+            String timezone = request.getTimezone().trim();
+            if (!learningStreakService.isSupportedTimezone(timezone)) {
+                throw new IllegalArgumentException("Invalid timezone: " + request.getTimezone());
+            }
+            zone = ZoneId.of(timezone);
+            user.setTimezone(zone.getId());
+        }
+
         // Save updated user
         User updatedUser = userRepository.save(user);
+        if (zone != null) {
+            learningStreakService.onTimezoneChanged(updatedUser.getId(), zone);
+        }
         log.info("Profile updated successfully for user: {}", email);
 
         return ResponseEntity.ok(UserProfileDTO.from(updatedUser));
@@ -66,6 +86,7 @@ public class UserController {
     @Data
     public static class UpdateProfileRequest {
         private String fullName;
+        private String timezone;
     }
 
     @Data
@@ -73,12 +94,14 @@ public class UserController {
         private Long id;
         private String email;
         private String fullName;
+        private String timezone;
 
         public static UserProfileDTO from(User user) {
             UserProfileDTO dto = new UserProfileDTO();
             dto.setId(user.getId());
             dto.setEmail(user.getEmail());
             dto.setFullName(user.getFullName());
+            dto.setTimezone(user.getTimezone());
             return dto;
         }
     }
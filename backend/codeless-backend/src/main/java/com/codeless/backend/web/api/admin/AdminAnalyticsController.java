@@ -0,0 +1,43 @@
+package com.codeless.backend.web.api.admin;
+
+import com.codeless.backend.service.MetricsTimeseriesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+
+@io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Admin - Analytics", description = "Admin analytics time series")
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminAnalyticsController {
+
+    private final MetricsTimeseriesService timeseriesService;
+
+    /**
+     * Time series for revenue, enrollments, signups or completions.
+     * Defaults to the last 30 days by day; too fine a bucket for the range is coarsened.
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<MetricsTimeseriesService.Series> getTimeseries(
+            @RequestParam String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "day") String bucket) {
+
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now();
+        OffsetDateTime start = from != null ? from : end.minusDays(30);
+
+        return ResponseEntity.ok(timeseriesService.getSeries(
+                MetricsTimeseriesService.Metric.parse(metric),
+                start,
+                end,
+                MetricsTimeseriesService.Bucket.parse(bucket)
+        ));
+    }
+}
@@ -5,6 +5,7 @@ import com.codeless.backend.repository.CourseRepository;
 import com.codeless.backend.repository.CartItemRepository;
 import com.codeless.backend.repository.OrderItemRepository;
 import com.codeless.backend.service.CloudinaryService;
+import com.codeless.backend.service.CurriculumCache;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
 import org.springframework.http.ResponseEntity;
@@ -21,7 +22,6 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Admin - Courses", description = "Admin course management")
@@ -35,6 +35,8 @@ public class AdminCoursesController {
     private final CartItemRepository cartItemRepository;
     private final OrderItemRepository orderItemRepository;
     private final CloudinaryService cloudinaryService;
+    private final CurriculumCache curriculumCache;
+    private final AdminListing adminListing;
 
     @Data
     public static class AdminCourseDTO {
@@ -90,43 +92,47 @@ public class AdminCoursesController {
     public ResponseEntity<List<AdminCourseDTO>> listCourses(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String kind,
-            @RequestParam(required = false) String category
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
-        List<Course> courses = courseRepository.findAll();
-
-        // Filter by query
-        if (q != null && !q.isBlank()) {
-            String lowerQ = q.toLowerCase();
-            courses = courses.stream()
-                    .filter(c -> c.getTitle().toLowerCase().contains(lowerQ) ||
-                            (c.getDescription() != null && c.getDescription().toLowerCase().contains(lowerQ)))
-                    .collect(Collectors.toList());
-        }
-
-        // Filter by kind
+        Course.Kind kindFilter = null;
         if (kind != null && !kind.isBlank()) {
             try {
-                Course.Kind kindEnum = Course.Kind.valueOf(kind.toUpperCase());
-                courses = courses.stream()
-                        .filter(c -> c.getKind() == kindEnum)
-                        .collect(Collectors.toList());
+                kindFilter = Course.Kind.valueOf(kind.toUpperCase());
             } catch (IllegalArgumentException e) {
                 // Ignore invalid kind
             }
         }
 
-        // Filter by category
-        if (category != null && !category.isBlank()) {
-            courses = courses.stream()
-                    .filter(c -> category.equalsIgnoreCase(c.getCategory()))
-                    .collect(Collectors.toList());
-        }
-
-        List<AdminCourseDTO> result = courses.stream()
-                .map(AdminCourseDTO::from)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        AdminListing.Query query = AdminListing.query(
+                        "c.id, c.title, c.slug, c.kind, c.category, c.level, c.price, c.enrolled_count, c.published, c.created_at",
+                        "course c",
+                        "c.id")
+                .sortable("createdAt", "c.created_at", AdminListing.ValueType.TIMESTAMP)
+                .sortable("title", "c.title", AdminListing.ValueType.TEXT)
+                .sortable("price", "c.price", AdminListing.ValueType.DECIMAL)
+                .sortable("enrolledCount", "COALESCE(c.enrolled_count, 0)", AdminListing.ValueType.LONG)
+                .search(q, "c.title", "c.description")
+                .where("c.kind = :kind", "kind", kindFilter != null ? kindFilter.name() : null)
+                .where("LOWER(c.category) = LOWER(:category)", "category", category);
+
+        return adminListing.fetch(query, sort, cursor, limit, (rs, rowNum) -> {
+            AdminCourseDTO dto = new AdminCourseDTO();
+            dto.setId(rs.getLong("id"));
+            dto.setTitle(rs.getString("title"));
+            dto.setSlug(rs.getString("slug"));
+            dto.setKind(rs.getString("kind"));
+            dto.setCategory(rs.getString("category"));
+            dto.setLevel(rs.getString("level"));
+            dto.setPrice(rs.getBigDecimal("price"));
+            dto.setEnrolledCount(rs.getObject("enrolled_count", Integer.class));
+            dto.setPublished(rs.getBoolean("published"));
+            OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+            dto.setCreatedAt(createdAt != null ? createdAt.toString() : null);
+            return dto;
+        }).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -182,6 +188,7 @@ public class AdminCoursesController {
         // - Enrollments → Course Progress → Lesson Progress
         // - Quiz Attempts → User Answers
         courseRepository.delete(course);
+        curriculumCache.evict(id);
         
         return ResponseEntity.noContent().build();
     }
@@ -6,6 +6,9 @@ import com.codeless.backend.domain.Lesson;
 import com.codeless.backend.repository.CourseSectionRepository;
 import com.codeless.backend.repository.CourseRepository;
 import com.codeless.backend.repository.LessonRepository;
+import com.codeless.backend.service.CourseProgressRecomputeService;
+import com.codeless.backend.service.CurriculumCache;
+import com.codeless.backend.service.LessonFunnelService;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +30,9 @@ public class AdminCurriculumController {
     private final CourseRepository courseRepository;
     private final CourseSectionRepository sectionRepository;
     private final LessonRepository lessonRepository;
+    private final CurriculumCache curriculumCache;
+    private final CourseProgressRecomputeService progressRecomputeService;
+    private final LessonFunnelService lessonFunnelService;
 
     // ============== SECTION DTOs ==============
     
@@ -140,6 +146,7 @@ public class AdminCurriculumController {
         section.setUpdatedAt(OffsetDateTime.now());
 
         CourseSection saved = sectionRepository.save(section);
+        curriculumCache.evict(courseId);
         return ResponseEntity.ok(SectionResponseDTO.from(saved));
     }
 
@@ -158,16 +165,21 @@ public class AdminCurriculumController {
         section.setUpdatedAt(OffsetDateTime.now());
 
         CourseSection saved = sectionRepository.save(section);
+        curriculumCache.evict(section.getCourse().getId());
         return ResponseEntity.ok(SectionResponseDTO.from(saved));
     }
 
     @DeleteMapping("/sections/{sectionId}")
     @Transactional
     public ResponseEntity<Void> deleteSection(@PathVariable Long sectionId) {
-        if (!sectionRepository.existsById(sectionId)) {
+        CourseSection section = sectionRepository.findById(sectionId).orElse(null);
+        if (section == null) {
             return ResponseEntity.notFound().build();
         }
-        sectionRepository.deleteById(sectionId);
+        Long courseId = section.getCourse().getId();
+        sectionRepository.delete(section);
+        curriculumCache.evict(courseId);
+        progressRecomputeService.enqueue(courseId);
         return ResponseEntity.noContent().build();
     }
 
@@ -183,6 +195,7 @@ public class AdminCurriculumController {
         section.setSectionOrder(dto.getNewOrder());
         section.setUpdatedAt(OffsetDateTime.now());
         sectionRepository.save(section);
+        curriculumCache.evict(section.getCourse().getId());
 
         return ResponseEntity.ok().build();
     }
@@ -221,6 +234,8 @@ public class AdminCurriculumController {
 
         try {
             Lesson saved = lessonRepository.save(lesson);
+            curriculumCache.evict(section.getCourse().getId());
+            progressRecomputeService.enqueue(section.getCourse().getId());
             return ResponseEntity.ok(LessonResponseDTO.from(saved));
         } catch (Exception e) {
             System.err.println("Error saving lesson: " + e.getMessage());
@@ -248,16 +263,21 @@ public class AdminCurriculumController {
         lesson.setUpdatedAt(OffsetDateTime.now());
 
         Lesson saved = lessonRepository.save(lesson);
+        curriculumCache.evict(lesson.getSection().getCourse().getId());
         return ResponseEntity.ok(LessonResponseDTO.from(saved));
     }
 
     @DeleteMapping("/lessons/{lessonId}")
     @Transactional
     public ResponseEntity<Void> deleteLesson(@PathVariable Long lessonId) {
-        if (!lessonRepository.existsById(lessonId)) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElse(null);
+        if (lesson == null) {
             return ResponseEntity.notFound().build();
         }
-        lessonRepository.deleteById(lessonId);
+        Long courseId = lesson.getSection().getCourse().getId();
+        lessonRepository.delete(lesson);
+        curriculumCache.evict(courseId);
+        progressRecomputeService.enqueue(courseId);
         return ResponseEntity.noContent().build();
     }
 
@@ -273,10 +293,39 @@ public class AdminCurriculumController {
         lesson.setLessonOrder(dto.getNewOrder());
         lesson.setUpdatedAt(OffsetDateTime.now());
         lessonRepository.save(lesson);
+        curriculumCache.evict(lesson.getSection().getCourse().getId());
 
         return ResponseEntity.ok().build();
     }
 
+    // ============== PROGRESS RECOMPUTE ==============
+
+    @PostMapping("/courses/{courseId}/progress-recompute")
+    public ResponseEntity<Void> recomputeProgress(@PathVariable Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        progressRecomputeService.enqueue(courseId);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/courses/{courseId}/progress-recompute")
+    public ResponseEntity<CourseProgressRecomputeService.RecomputeStatus> getRecomputeStatus(@PathVariable Long courseId) {
+        return progressRecomputeService.getStatus(courseId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ============== ANALYTICS ==============
+
+    @GetMapping("/courses/{courseId}/funnel")
+    public ResponseEntity<LessonFunnelService.Funnel> getLessonFunnel(@PathVariable Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(lessonFunnelService.getFunnel(courseId));
+    }
+
     // ============== HELPER METHODS ==============
 
     private Integer getNextSectionOrder(Long courseId) {
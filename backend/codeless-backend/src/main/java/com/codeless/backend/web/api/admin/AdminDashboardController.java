@@ -1,11 +1,15 @@
 package com.codeless.backend.web.api.admin;
 
+import com.codeless.backend.service.AdminLiveFeedService;
+import com.codeless.backend.service.AdminMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -20,6 +24,8 @@ import java.util.Map;
 public class AdminDashboardController {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AdminMetricsService adminMetricsService;
+    private final AdminLiveFeedService adminLiveFeedService;
 
     @Data
     public static class DashboardStats {
@@ -27,10 +33,16 @@ public class AdminDashboardController {
         private Long totalEnrollments;
         private Long activeCourses;
         private Long totalUsers;
+        // Week-over-week change in percent (null until enough history is rolled up)
         private Double revenueChange;
         private Double enrollmentChange;
         private Double courseChange;
         private Double userChange;
+        // Month-over-month change in percent
+        private Double revenueChangeMonth;
+        private Double enrollmentChangeMonth;
+        private Double courseChangeMonth;
+        private Double userChangeMonth;
     }
 
     @Data
@@ -53,45 +65,36 @@ public class AdminDashboardController {
 
     @GetMapping("/stats")
     public ResponseEntity<DashboardStats> getStats() {
-        DashboardStats stats = new DashboardStats();
+        // Rolled-up history plus today's partial values (see AdminMetricsService)
+        AdminMetricsService.DashboardMetrics metrics = adminMetricsService.getDashboardMetrics();
 
-        // Total revenue (sum of all PAID orders)
-        BigDecimal totalRevenue = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(SUM(total), 0) FROM orders WHERE status = 'PAID'",
-                BigDecimal.class
-        );
-        stats.setTotalRevenue(totalRevenue != null ? totalRevenue : BigDecimal.ZERO);
-
-        // Total enrollments
-        Long totalEnrollments = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM enrollments",
-                Long.class
-        );
-        stats.setTotalEnrollments(totalEnrollments != null ? totalEnrollments : 0L);
-
-        // Active courses (published)
-        Long activeCourses = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM course WHERE published = true",
-                Long.class
-        );
-        stats.setActiveCourses(activeCourses != null ? activeCourses : 0L);
-
-        // Total users
-        Long totalUsers = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM users",
-                Long.class
-        );
-        stats.setTotalUsers(totalUsers != null ? totalUsers : 0L);
-
-        // Placeholder percentage changes (you can implement real logic later)
-        stats.setRevenueChange(12.5);
-        stats.setEnrollmentChange(8.3);
-        stats.setCourseChange(5.0);
-        stats.setUserChange(15.2);
+        DashboardStats stats = new DashboardStats();
+        stats.setTotalRevenue(metrics.totalRevenue());
+        stats.setTotalEnrollments(metrics.totalEnrollments());
+        stats.setActiveCourses(metrics.activeCourses());
+        stats.setTotalUsers(metrics.totalUsers());
+        stats.setRevenueChange(metrics.revenueChangeWeek());
+        stats.setEnrollmentChange(metrics.enrollmentChangeWeek());
+        stats.setCourseChange(metrics.courseChangeWeek());
+        stats.setUserChange(metrics.userChangeWeek());
+        stats.setRevenueChangeMonth(metrics.revenueChangeMonth());
+        stats.setEnrollmentChangeMonth(metrics.enrollmentChangeMonth());
+        stats.setCourseChangeMonth(metrics.courseChangeMonth());
+        stats.setUserChangeMonth(metrics.userChangeMonth());
 
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Live feed of new orders ("order" events), enrollments ("enrollment" events) and bulk
+     * enrollment imports ("enrollments_imported" events, one per committed chunk).
+     * Replays the most recent events on connect, or those after Last-Event-ID on reconnect.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter liveFeed(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return adminLiveFeedService.subscribe(lastEventId);
+    }
+
     @GetMapping("/recent-orders")
     public ResponseEntity<List<RecentOrder>> getRecentOrders() {
         String sql = """
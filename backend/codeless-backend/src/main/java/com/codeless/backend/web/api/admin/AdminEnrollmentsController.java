@@ -1,9 +1,10 @@
 package com.codeless.backend.web.api.admin;
 
+import com.codeless.backend.service.BulkEnrollmentService;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,7 +18,8 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminEnrollmentsController {
 
-    private final JdbcTemplate jdbcTemplate;
+    private final AdminListing adminListing;
+    private final BulkEnrollmentService bulkEnrollmentService;
 
     @Data
     public static class AdminEnrollmentDTO {
@@ -29,25 +31,31 @@ public class AdminEnrollmentsController {
         private Integer progress;
     }
 
-    @GetMapping
-    public ResponseEntity<List<AdminEnrollmentDTO>> listEnrollments(@RequestParam(required = false) String q) {
-        String sql = """
-                SELECT e.id, u.full_name AS user_name, u.email AS user_email, 
-                       c.title AS course_title, e.enrolled_at,
-                       0 AS progress
-                FROM enrollments e
-                JOIN users u ON e.user_id = u.id
-                JOIN course c ON e.course_id = c.id
-                WHERE 1=1
-                """;
-
-        if (q != null && !q.isBlank()) {
-            sql += " AND (u.email ILIKE '%" + q + "%' OR u.full_name ILIKE '%" + q + "%' OR c.title ILIKE '%" + q + "%')";
-        }
+    @Data
+    public static class BulkEnrollRequest {
+        private Long courseId;
+        private List<BulkEnrollmentService.ImportRow> rows;
+    }
 
-        sql += " ORDER BY e.enrolled_at DESC";
+    @GetMapping
+    public ResponseEntity<List<AdminEnrollmentDTO>> listEnrollments(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        AdminListing.Query query = AdminListing.query(
+                        "e.id, u.full_name AS user_name, u.email AS user_email, c.title AS course_title, e.enrolled_at",
+                        "enrollments e JOIN users u ON e.user_id = u.id JOIN course c ON e.course_id = c.id",
+                        "e.id")
+                .sortable("enrolledAt", "e.enrolled_at", AdminListing.ValueType.TIMESTAMP)
+                .search(q, "u.email", "u.full_name", "c.title")
+                .where("e.course_id = :courseId", "courseId", courseId)
+                .enrich("COALESCE(cp.completion_percentage, 0) AS progress",
+                        "LEFT JOIN course_progress cp ON cp.enrollment_id = page.page_id");
 
-        List<AdminEnrollmentDTO> enrollments = jdbcTemplate.query(sql, (rs, rowNum) -> {
+        return adminListing.fetch(query, sort, cursor, limit, (rs, rowNum) -> {
             AdminEnrollmentDTO dto = new AdminEnrollmentDTO();
             dto.setId(rs.getLong("id"));
             dto.setUserName(rs.getString("user_name"));
@@ -56,9 +64,34 @@ public class AdminEnrollmentsController {
             dto.setEnrolledAt(rs.getString("enrolled_at"));
             dto.setProgress(rs.getInt("progress"));
             return dto;
-        });
+        }).toResponse();
+    }
 
-        return ResponseEntity.ok(enrollments);
+    /**
+     * Start a bulk enrollment from JSON rows ({email, courseId}); rows without a
+     * courseId use the top-level one. Returns the job to poll for progress and the report.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkEnrollmentService.JobStatus> importJson(@RequestBody BulkEnrollRequest request) {
+        return ResponseEntity.accepted().body(bulkEnrollmentService.submit(
+                request.getRows(),
+                request.getCourseId()));
+    }
+
+    /**
+     * Start a bulk enrollment from CSV with a header row: email, course_id (optional when
+     * courseId is given as a parameter); other columns are ignored
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BulkEnrollmentService.JobStatus> importCsv(
+            @RequestBody String csv,
+            @RequestParam(required = false) Long courseId) {
+        return ResponseEntity.accepted().body(bulkEnrollmentService.submit(
+                BulkEnrollmentService.parseCsv(csv), courseId));
     }
-}
 
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<BulkEnrollmentService.JobStatus> getImport(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkEnrollmentService.getStatus(jobId));
+    }
+}
@@ -0,0 +1,53 @@
+package com.codeless.backend.web.api.admin;
+
+import com.codeless.backend.service.AdminExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+@io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Admin - Export", description = "Admin data exports")
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExportController {
+
+    private final AdminExportService adminExportService;
+
+    /**
+     * Stream a full export of orders, enrollments, users or quiz-results as CSV or NDJSON,
+     * optionally restricted to a creation time range and gzip-compressed (.gz download).
+     */
+    @GetMapping("/{entity}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String entity,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        AdminExportService.Entity exportEntity = AdminExportService.Entity.parse(entity);
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        StreamingResponseBody body = adminExportService.prepare(exportEntity, exportFormat, from, to, gzip);
+
+        String fileName = exportEntity.fileName() + "-" + LocalDate.now(ZoneOffset.UTC) + "." + exportFormat.extension()
+                + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip
+                        ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,260 @@
+package com.codeless.backend.web.api.admin;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keyset-paginated listing for the admin tables.
+ * Each endpoint describes its query once: columns, joins, filters (always bind parameters) and a
+ * whitelist of sortable columns. This class adds the keyset predicate and LIMIT, so a page costs
+ * an index range scan however deep it is, and runs per-page enrichment (aggregates over child
+ * tables) against the rows of that page only.
+ * The cursor is opaque and returned in the X-Next-Cursor header, so list responses keep their
+ * array shape; the header is absent on the last page.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdminListing {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    public enum ValueType {
+        TEXT,
+        LONG,
+        DECIMAL,
+        TIMESTAMP;
+
+        Object read(ResultSet rs, String column) throws SQLException {
+            return switch (this) {
+                case TEXT -> rs.getString(column);
+                case LONG -> rs.getLong(column);
+                case DECIMAL -> rs.getBigDecimal(column);
+                case TIMESTAMP -> rs.getObject(column, OffsetDateTime.class);
+            };
+        }
+
+        Object parse(String raw) {
+            return switch (this) {
+                case TEXT -> raw;
+                case LONG -> Long.parseLong(raw);
+                case DECIMAL -> new BigDecimal(raw);
+                case TIMESTAMP -> OffsetDateTime.parse(raw);
+            };
+        }
+
+        String format(Object value) {
+            return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+        }
+    }
+
+    public record Page<T>(List<T> items, String nextCursor) {
+        public ResponseEntity<List<T>> toResponse() {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (nextCursor != null) {
+                response.header(NEXT_CURSOR_HEADER, nextCursor);
+            }
+            return response.body(items);
+        }
+    }
+
+    private record SortColumn(String expression, ValueType type) {}
+
+    /**
+     * Query description. Sort expressions must be non-null (wrap nullable columns in COALESCE)
+     * and come from code, never from request input.
+     */
+    public static final class Query {
+        private final String columns;
+        private final String from;
+        private final String idExpression;
+        private final List<String> conditions = new ArrayList<>();
+        private final MapSqlParameterSource params = new MapSqlParameterSource();
+        private final Map<String, SortColumn> sorts = new LinkedHashMap<>();
+        private String pageColumns = "";
+        private String pageJoins = "";
+
+        private Query(String columns, String from, String idExpression) {
+            this.columns = columns;
+            this.from = from;
+            this.idExpression = idExpression;
+        }
+
+        /**
+         * Whitelist a sort key; the first one registered is the default (descending)
+         */
+        public Query sortable(String key, String expression, ValueType type) {
+            sorts.put(key, new SortColumn(expression, type));
+            return this;
+        }
+
+        /**
+         * Add a condition bound to a single named parameter; skipped when the value is absent
+         */
+        public Query where(String condition, String param, Object value) {
+            if (value == null || (value instanceof String s && s.isBlank())) {
+                return this;
+            }
+            conditions.add(condition);
+            params.addValue(param, value);
+            return this;
+        }
+
+        /**
+         * Case-insensitive substring match of the term against any of the expressions
+         */
+        public Query search(String term, String... expressions) {
+            if (term == null || term.isBlank()) {
+                return this;
+            }
+            List<String> matches = new ArrayList<>(expressions.length);
+            for (String expression : expressions) {
+                matches.add(expression + " ILIKE :search");
+            }
+            conditions.add("(" + String.join(" OR ", matches) + ")");
+            params.addValue("search", "%" + escapeLike(term.trim()) + "%");
+            return this;
+        }
+
+        /**
+         * Extra columns computed for the page rows only. Joins may reference the page ids
+         * through {@code SELECT page_id FROM page} and the page rows as {@code page}.
+         */
+        public Query enrich(String columns, String joins) {
+            this.pageColumns = ", " + columns;
+            this.pageJoins = joins;
+            return this;
+        }
+    }
+
+    public static Query query(String columns, String from, String idExpression) {
+        return new Query(columns, from, idExpression);
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Fetch one page.
+     *
+     * @param sort   whitelisted key, optionally followed by ",asc" or ",desc" (default desc)
+     * @param cursor value of X-Next-Cursor from the previous page, null for the first page
+     * @param limit  page size, capped at {@value #MAX_LIMIT}
+     */
+    public <T> Page<T> fetch(Query query, String sort, String cursor, Integer limit, RowMapper<T> mapper) {
+        String sortKey = query.sorts.keySet().iterator().next();
+        boolean descending = true;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", 2);
+            sortKey = parts[0].trim();
+            if (parts.length > 1) {
+                descending = switch (parts[1].trim().toLowerCase(Locale.ROOT)) {
+                    case "asc" -> false;
+                    case "desc" -> true;
+                    default -> throw new IllegalArgumentException("Sort direction must be asc or desc");
+                };
+            }
+        }
+        SortColumn sortColumn = query.sorts.get(sortKey);
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Cannot sort by '" + sortKey + "'; allowed: " + query.sorts.keySet());
+        }
+        int pageSize = pageSize(limit);
+        String direction = descending ? "DESC" : "ASC";
+
+        List<String> conditions = new ArrayList<>(query.conditions);
+        MapSqlParameterSource params = new MapSqlParameterSource(query.params.getValues());
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = Cursor.decode(cursor, sortKey, descending, sortColumn.type());
+            conditions.add("(" + sortColumn.expression() + ", " + query.idExpression + ") "
+                    + (descending ? "<" : ">") + " (:cursorValue, :cursorId)");
+            params.addValue("cursorValue", position.value());
+            params.addValue("cursorId", position.id());
+        }
+        params.addValue("pageLimit", pageSize + 1);
+
+        String sql = "WITH page AS (SELECT " + query.columns
+                + ", " + sortColumn.expression() + " AS page_sort_key, " + query.idExpression + " AS page_id"
+                + " FROM " + query.from
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + sortColumn.expression() + " " + direction + ", " + query.idExpression + " " + direction
+                + " LIMIT :pageLimit)"
+                + " SELECT page.*" + query.pageColumns
+                + " FROM page " + query.pageJoins
+                + " ORDER BY page.page_sort_key " + direction + ", page.page_id " + direction;
+
+        List<T> items = new ArrayList<>(pageSize + 1);
+        List<Cursor> positions = new ArrayList<>(pageSize + 1);
+        jdbcTemplate.query(sql, params, rs -> {
+            items.add(mapper.mapRow(rs, items.size()));
+            positions.add(new Cursor(sortColumn.type().read(rs, "page_sort_key"), rs.getLong("page_id")));
+        });
+
+        return slice(items, positions, pageSize, sortKey, descending, sortColumn.type());
+    }
+
+    // ==================== Helpers ====================
+
+    static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Cut the pageSize + 1 fetched rows down to a page; the extra row only tells that a next page
+     * exists, and the cursor points at the last row that is returned
+     */
+    static <T> Page<T> slice(List<T> rows, List<Cursor> positions, int pageSize,
+                             String sortKey, boolean descending, ValueType type) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        Cursor last = positions.get(pageSize - 1);
+        return new Page<>(rows.subList(0, pageSize), last.encode(sortKey, descending, type));
+    }
+
+    record Cursor(Object value, long id) {
+
+        String encode(String sortKey, boolean descending, ValueType type) {
+            String raw = sortKey + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + type.format(value);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, String sortKey, boolean descending, ValueType type) {
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (parts.length != 4 || !parts[0].equals(sortKey) || !parts[1].equals(descending ? "desc" : "asc")) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            try {
+                return new Cursor(type.parse(parts[3]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -3,16 +3,18 @@ package com.codeless.backend.web.api.admin;
 import com.codeless.backend.domain.Order;
 import com.codeless.backend.domain.OrderStatus;
 import com.codeless.backend.repository.OrderRepository;
+import com.codeless.backend.service.AdminMetricsService;
+import com.codeless.backend.service.MetricsTimeseriesService;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
@@ -24,7 +26,9 @@ import java.util.List;
 public class AdminOrdersController {
 
     private final OrderRepository orderRepository;
-    private final JdbcTemplate jdbcTemplate;
+    private final AdminListing adminListing;
+    private final MetricsTimeseriesService metricsTimeseriesService;
+    private final AdminMetricsService adminMetricsService;
 
     @Data
     public static class AdminOrderDTO {
@@ -41,28 +45,39 @@ public class AdminOrdersController {
     @GetMapping
     public ResponseEntity<List<AdminOrderDTO>> listOrders(
             @RequestParam(required = false) String q,
-            @RequestParam(required = false) String status
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
-        String sql = """
-                SELECT o.id, u.full_name AS user_name, u.email AS user_email, 
-                       o.total, o.status, o.provider, o.created_at,
-                       (SELECT COUNT(*) FROM order_items oi WHERE oi.order_id = o.id) AS item_count
-                FROM orders o
-                JOIN users u ON o.user_id = u.id
-                WHERE 1=1
-                """;
-
-        if (q != null && !q.isBlank()) {
-            sql += " AND (u.email ILIKE '%" + q + "%' OR u.full_name ILIKE '%" + q + "%')";
-        }
-
+        OrderStatus statusFilter = null;
         if (status != null && !status.isBlank()) {
-            sql += " AND o.status = '" + status + "'";
+            try {
+                statusFilter = OrderStatus.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown order status: " + status);
+            }
         }
 
-        sql += " ORDER BY o.created_at DESC";
-
-        List<AdminOrderDTO> orders = jdbcTemplate.query(sql, (rs, rowNum) -> {
+        AdminListing.Query query = AdminListing.query(
+                        "o.id, u.full_name AS user_name, u.email AS user_email, o.total, o.status, o.provider, o.created_at",
+                        "orders o JOIN users u ON o.user_id = u.id",
+                        "o.id")
+                .sortable("createdAt", "o.created_at", AdminListing.ValueType.TIMESTAMP)
+                .sortable("total", "o.total", AdminListing.ValueType.DECIMAL)
+                .search(q, "u.email", "u.full_name")
+                .where("o.status = :status", "status", statusFilter != null ? statusFilter.name() : null)
+                // Item counts aggregated once for the page instead of a subquery per order
+                .enrich("COALESCE(ic.item_count, 0) AS item_count", """
+                        LEFT JOIN (
+                            SELECT oi.order_id, COUNT(*) AS item_count
+                            FROM order_items oi
+                            WHERE oi.order_id IN (SELECT page_id FROM page)
+                            GROUP BY oi.order_id
+                        ) ic ON ic.order_id = page.page_id
+                        """);
+
+        return adminListing.fetch(query, sort, cursor, limit, (rs, rowNum) -> {
             AdminOrderDTO dto = new AdminOrderDTO();
             dto.setId(rs.getLong("id"));
             dto.setUserName(rs.getString("user_name"));
@@ -73,9 +88,7 @@ public class AdminOrdersController {
             dto.setCreatedAt(rs.getString("created_at"));
             dto.setItemCount(rs.getInt("item_count"));
             return dto;
-        });
-
-        return ResponseEntity.ok(orders);
+        }).toResponse();
     }
 
     @PostMapping("/{id}/refund")
@@ -90,7 +103,15 @@ public class AdminOrdersController {
 
         order.setStatus(OrderStatus.REFUNDED);
         order.setUpdatedAt(OffsetDateTime.now());
-        orderRepository.save(order);
+        // Flushed so that the metric rollups below already see the order as refunded
+        orderRepository.saveAndFlush(order);
+
+        // The paid hour is usually past the trailing re-rollup window: take the revenue out of its
+        // hourly bucket and of the daily rows built from it
+        if (order.getPaidAt() != null) {
+            metricsTimeseriesService.recomputeHour(order.getPaidAt());
+            adminMetricsService.rerollDay(order.getPaidAt().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate());
+        }
 
         // TODO: Implement actual payment gateway refund logic (PayPal, Stripe, etc.)
         // For now, just mark as refunded in the database
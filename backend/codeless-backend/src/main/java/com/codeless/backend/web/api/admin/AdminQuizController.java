@@ -2,12 +2,19 @@ package com.codeless.backend.web.api.admin;
 
 import com.codeless.backend.domain.*;
 import com.codeless.backend.repository.*;
+import com.codeless.backend.service.QuizAnswerKeyCache;
+import com.codeless.backend.service.QuizBankService;
+import com.codeless.backend.service.QuizItemAnalyticsService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +30,9 @@ public class AdminQuizController {
     private final QuizQuestionRepository quizQuestionRepository;
     private final QuizAnswerOptionRepository quizAnswerOptionRepository;
     private final LessonRepository lessonRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizItemAnalyticsService quizItemAnalyticsService;
+    private final QuizBankService quizBankService;
 
     // ==================== DTOs ====================
     
@@ -36,6 +46,7 @@ public class AdminQuizController {
         private Boolean randomizeQuestions = false;
         private Boolean showFeedbackImmediately = true;
         private Integer maxAttempts;
+        private Integer questionsPerAttempt; // Draw N questions per attempt; null = all
     }
 
     @Data
@@ -47,6 +58,7 @@ public class AdminQuizController {
         private Boolean randomizeQuestions;
         private Boolean showFeedbackImmediately;
         private Integer maxAttempts;
+        private Integer questionsPerAttempt; // 0 = back to all questions
     }
 
     @Data
@@ -60,6 +72,7 @@ public class AdminQuizController {
         private Boolean randomizeQuestions;
         private Boolean showFeedbackImmediately;
         private Integer maxAttempts;
+        private Integer questionsPerAttempt;
         private Integer questionCount;
 
         public static QuizResponseDTO from(Quiz quiz) {
@@ -73,6 +86,7 @@ public class AdminQuizController {
             dto.setRandomizeQuestions(quiz.getRandomizeQuestions());
             dto.setShowFeedbackImmediately(quiz.getShowFeedbackImmediately());
             dto.setMaxAttempts(quiz.getMaxAttempts());
+            dto.setQuestionsPerAttempt(quiz.getQuestionsPerAttempt());
             dto.setQuestionCount(quiz.getQuestions() != null ? quiz.getQuestions().size() : 0);
             return dto;
         }
@@ -168,6 +182,10 @@ public class AdminQuizController {
         quiz.setRandomizeQuestions(dto.getRandomizeQuestions());
         quiz.setShowFeedbackImmediately(dto.getShowFeedbackImmediately());
         quiz.setMaxAttempts(dto.getMaxAttempts());
+        if (dto.getQuestionsPerAttempt() != null && dto.getQuestionsPerAttempt() < 1) {
+            throw new IllegalArgumentException("questionsPerAttempt must be at least 1");
+        }
+        quiz.setQuestionsPerAttempt(dto.getQuestionsPerAttempt());
 
         Quiz saved = quizRepository.save(quiz);
         return ResponseEntity.ok(QuizResponseDTO.from(saved));
@@ -202,8 +220,15 @@ public class AdminQuizController {
         if (dto.getRandomizeQuestions() != null) quiz.setRandomizeQuestions(dto.getRandomizeQuestions());
         if (dto.getShowFeedbackImmediately() != null) quiz.setShowFeedbackImmediately(dto.getShowFeedbackImmediately());
         if (dto.getMaxAttempts() != null) quiz.setMaxAttempts(dto.getMaxAttempts());
+        if (dto.getQuestionsPerAttempt() != null) {
+            if (dto.getQuestionsPerAttempt() < 0) {
+                throw new IllegalArgumentException("questionsPerAttempt must not be negative");
+            }
+            quiz.setQuestionsPerAttempt(dto.getQuestionsPerAttempt() == 0 ? null : dto.getQuestionsPerAttempt());
+        }
 
         Quiz saved = quizRepository.save(quiz);
+        quizAnswerKeyCache.evict(id);
         return ResponseEntity.ok(QuizResponseDTO.from(saved));
     }
 
@@ -214,9 +239,39 @@ public class AdminQuizController {
             throw new IllegalArgumentException("Quiz not found");
         }
         quizRepository.deleteById(id);
+        quizAnswerKeyCache.evict(id);
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<QuizItemAnalyticsService.QuizAnalytics> getQuizAnalytics(@PathVariable Long id) {
+        return ResponseEntity.ok(quizItemAnalyticsService.getAnalytics(id));
+    }
+
+    // ==================== Bulk import / export ====================
+
+    /**
+     * Import a whole question bank in one request (format documented on {@link QuizBankService}).
+     * mode=append adds the questions after the existing ones, mode=replace swaps them out.
+     */
+    @PostMapping("/{id}/import")
+    public ResponseEntity<QuizBankService.ImportResult> importQuestions(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "append") String mode,
+            @RequestBody QuizBankService.QuizBank bank) {
+        return ResponseEntity.ok(quizBankService.importQuestions(id, bank, QuizBankService.Mode.parse(mode)));
+    }
+
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(@PathVariable Long id) {
+        StreamingResponseBody body = quizBankService.export(id);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("quiz-" + id + ".json").build().toString())
+            .body(body);
+    }
+
     // ==================== Question CRUD ====================
 
     @PostMapping("/questions")
@@ -262,6 +317,8 @@ public class AdminQuizController {
             }
         }
 
+        quizAnswerKeyCache.evict(quiz.getId());
+
         // Reload with options
         QuizQuestion reloaded = quizQuestionRepository.findByIdWithOptions(savedQuestion.getId())
             .orElseThrow(() -> new IllegalArgumentException("Question not found after save"));
@@ -327,6 +384,7 @@ public class AdminQuizController {
         }
 
         QuizQuestion saved = quizQuestionRepository.save(question);
+        quizAnswerKeyCache.evict(question.getQuiz().getId());
         QuizQuestion reloaded = quizQuestionRepository.findByIdWithOptions(saved.getId())
             .orElseThrow(() -> new IllegalArgumentException("Question not found after update"));
         
@@ -336,10 +394,10 @@ public class AdminQuizController {
     @DeleteMapping("/questions/{id}")
     @Transactional
     public ResponseEntity<Void> deleteQuestion(@PathVariable Long id) {
-        if (!quizQuestionRepository.existsById(id)) {
-            throw new IllegalArgumentException("Question not found");
-        }
+        Long quizId = quizQuestionRepository.findQuizIdById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Question not found"));
         quizQuestionRepository.deleteById(id);
+        quizAnswerKeyCache.evict(quizId);
         return ResponseEntity.noContent().build();
     }
 
@@ -368,6 +426,7 @@ public class AdminQuizController {
         }
 
         QuizAnswerOption saved = quizAnswerOptionRepository.save(option);
+        quizAnswerKeyCache.evict(question.getQuiz().getId());
 
         AnswerOptionDTO response = new AnswerOptionDTO();
         response.setId(saved.getId());
@@ -394,6 +453,7 @@ public class AdminQuizController {
         if (dto.getAcceptableAnswers() != null) option.setAcceptableAnswers(dto.getAcceptableAnswers());
 
         QuizAnswerOption saved = quizAnswerOptionRepository.save(option);
+        quizAnswerKeyCache.evict(option.getQuestion().getQuiz().getId());
 
         AnswerOptionDTO response = new AnswerOptionDTO();
         response.setId(saved.getId());
@@ -408,10 +468,10 @@ public class AdminQuizController {
     @DeleteMapping("/options/{id}")
     @Transactional
     public ResponseEntity<Void> deleteAnswerOption(@PathVariable Long id) {
-        if (!quizAnswerOptionRepository.existsById(id)) {
-            throw new IllegalArgumentException("Answer option not found");
-        }
+        Long quizId = quizAnswerOptionRepository.findQuizIdById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Answer option not found"));
         quizAnswerOptionRepository.deleteById(id);
+        quizAnswerKeyCache.evict(quizId);
         return ResponseEntity.noContent().build();
     }
 }
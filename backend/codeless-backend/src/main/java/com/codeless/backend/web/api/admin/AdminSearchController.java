@@ -0,0 +1,32 @@
+package com.codeless.backend.web.api.admin;
+
+import com.codeless.backend.service.AdminSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Admin - Search", description = "Admin global search")
+@RestController
+@RequestMapping("/api/admin/search")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSearchController {
+
+    private static final int MAX_LIMIT = 25;
+
+    private final AdminSearchService adminSearchService;
+
+    /**
+     * Top matches per entity (users, courses, orders, enrollments), best first.
+     * Numeric terms (optionally prefixed with '#') also match order ids; text matching needs
+     * at least three characters.
+     */
+    @GetMapping
+    public ResponseEntity<AdminSearchService.SearchResults> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(adminSearchService.search(q, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
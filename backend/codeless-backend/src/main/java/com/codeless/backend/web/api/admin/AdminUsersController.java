@@ -9,6 +9,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.sql.Array;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,6 +26,7 @@ import java.util.HashSet;
 public class AdminUsersController {
 
     private final UserRepository userRepository;
+    private final AdminListing adminListing;
 
     @Data
     public static class AdminUserDTO {
@@ -50,22 +54,43 @@ public class AdminUsersController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AdminUserDTO>> listUsers(@RequestParam(required = false) String q) {
-        List<User> users = userRepository.findAllWithRoles();
+    public ResponseEntity<List<AdminUserDTO>> listUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        AdminListing.Query query = AdminListing.query(
+                        "u.id, u.email, u.full_name, u.created_at, u.enabled",
+                        "users u",
+                        "u.id")
+                .sortable("createdAt", "u.created_at", AdminListing.ValueType.TIMESTAMP)
+                .sortable("email", "u.email", AdminListing.ValueType.TEXT)
+                .search(q, "u.email", "u.full_name")
+                .enrich("r.role_names", """
+                        LEFT JOIN (
+                            SELECT ur.user_id, array_agg(ro.name) AS role_names
+                            FROM user_roles ur
+                            JOIN roles ro ON ro.id = ur.role_id
+                            WHERE ur.user_id IN (SELECT page_id FROM page)
+                            GROUP BY ur.user_id
+                        ) r ON r.user_id = page.page_id
+                        """);
 
-        if (q != null && !q.isBlank()) {
-            String lowerQ = q.toLowerCase();
-            users = users.stream()
-                    .filter(u -> u.getEmail().toLowerCase().contains(lowerQ) ||
-                            (u.getFullName() != null && u.getFullName().toLowerCase().contains(lowerQ)))
-                    .collect(Collectors.toList());
-        }
-
-        List<AdminUserDTO> result = users.stream()
-                .map(AdminUserDTO::from)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        return adminListing.fetch(query, sort, cursor, limit, (rs, rowNum) -> {
+            AdminUserDTO dto = new AdminUserDTO();
+            dto.setId(rs.getLong("id"));
+            dto.setEmail(rs.getString("email"));
+            dto.setFullName(rs.getString("full_name"));
+            Array roleNames = rs.getArray("role_names");
+            dto.setRoles(roleNames != null
+                    ? new HashSet<>(Arrays.asList((String[]) roleNames.getArray()))
+                    : new HashSet<>());
+            OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+            dto.setCreatedAt(createdAt != null ? createdAt.toString() : null);
+            dto.setEnabled(rs.getBoolean("enabled"));
+            return dto;
+        }).toResponse();
     }
 
     @PatchMapping("/{id}/toggle-status")
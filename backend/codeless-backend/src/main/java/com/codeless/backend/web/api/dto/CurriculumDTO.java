@@ -1,8 +1,7 @@
 package com.codeless.backend.web.api.dto;
 
-import com.codeless.backend.domain.CourseSection;
-import com.codeless.backend.domain.Lesson;
 import com.codeless.backend.domain.LessonProgress;
+import com.codeless.backend.domain.CurriculumTree;
 
 import java.util.List;
 import java.util.Map;
@@ -21,16 +20,16 @@ public class CurriculumDTO {
             Integer sectionOrder,
             List<LessonDTO> lessons
     ) {
-        public static SectionDTO from(CourseSection section, Map<Long, LessonProgress> progressMap) {
-            List<LessonDTO> lessons = section.getLessons().stream()
-                    .map(lesson -> LessonDTO.from(lesson, progressMap.get(lesson.getId())))
+        public static SectionDTO from(CurriculumTree.SectionNode section, Map<Long, LessonProgress> progressMap) {
+            List<LessonDTO> lessons = section.lessons().stream()
+                    .map(lesson -> LessonDTO.from(lesson, progressMap.get(lesson.id())))
                     .collect(Collectors.toList());
             
             return new SectionDTO(
-                    section.getId(),
-                    section.getTitle(),
-                    section.getDescription(),
-                    section.getSectionOrder(),
+                    section.id(),
+                    section.title(),
+                    section.description(),
+                    section.sectionOrder(),
                     lessons
             );
         }
@@ -49,16 +48,16 @@ public class CurriculumDTO {
             Integer lastPositionSeconds,
             Integer timeSpentSeconds
     ) {
-        public static LessonDTO from(Lesson lesson, LessonProgress progress) {
+        public static LessonDTO from(CurriculumTree.LessonNode lesson, LessonProgress progress) {
             return new LessonDTO(
-                    lesson.getId(),
-                    lesson.getTitle(),
-                    lesson.getDescription(),
-                    lesson.getLessonType().name(),
-                    lesson.getContentUrl(),
-                    lesson.getDurationMinutes(),
-                    lesson.getLessonOrder(),
-                    lesson.getIsPreview(),
+                    lesson.id(),
+                    lesson.title(),
+                    lesson.description(),
+                    lesson.lessonType(),
+                    lesson.contentUrl(),
+                    lesson.durationMinutes(),
+                    lesson.lessonOrder(),
+                    lesson.isPreview(),
                     progress != null && progress.getCompleted(),
                     progress != null ? progress.getLastPositionSeconds() : 0,
                     progress != null ? progress.getTimeSpentSeconds() : 0
@@ -71,6 +70,11 @@ public class CurriculumDTO {
             Integer timeSpentSeconds
     ) {}
     
+    public record LessonHeartbeatRequest(
+            Integer positionSeconds,
+            Integer timeSpentSeconds
+    ) {}
+    
     public record LessonCompleteResponse(
             Long lessonId,
             Boolean completed,
@@ -6,9 +6,16 @@ import com.codeless.backend.domain.Enrollment;
 import com.codeless.backend.domain.UserAchievement;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 public class DashboardDTO {
     
+    public record DashboardResponse(
+            DashboardStatsDTO stats,
+            List<CourseProgressDTO> courses,
+            List<AchievementDTO> achievements
+    ) {}
+    
     public record DashboardStatsDTO(
             int totalCourses,
             int completedCourses,
@@ -40,6 +47,23 @@ public class DashboardDTO {
                     enrollment.getEnrolledAt()
             );
         }
+        
+        /**
+         * Card for an enrollment that has no course_progress row yet
+         */
+        public static CourseProgressDTO notStarted(Enrollment enrollment, int lessonTotal) {
+            return new CourseProgressDTO(
+                    0L, // No persisted progress yet
+                    enrollment.getId(),
+                    CourseDTO.from(enrollment.getCourse()),
+                    0,
+                    lessonTotal,
+                    0L,
+                    0,
+                    null,
+                    enrollment.getEnrolledAt()
+            );
+        }
     }
     
     public record AchievementDTO(
@@ -0,0 +1,17 @@
+-- ============================================================================
+-- Migration V20: Learning streak engine support
+-- ============================================================================
+-- Description: Stores each user's timezone so streak days follow local
+--              midnight, and indexes the rows the streak reset job scans.
+-- Date: 2026-10-19
+-- ============================================================================
+
+ALTER TABLE users
+ADD COLUMN IF NOT EXISTS timezone VARCHAR(64) NOT NULL DEFAULT 'UTC';
+
+COMMENT ON COLUMN users.timezone IS 'IANA timezone id (e.g. Asia/Tbilisi) used for learning streak day boundaries';
+
+-- Only active streaks can be broken; keep the reset UPDATE off the rest of the table
+CREATE INDEX IF NOT EXISTS idx_learning_streaks_active_last_activity
+    ON learning_streaks(last_activity_date)
+    WHERE current_streak_days > 0;
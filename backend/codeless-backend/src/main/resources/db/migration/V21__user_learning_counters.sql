@@ -0,0 +1,73 @@
+-- ============================================================================
+-- Migration V21: Incremental achievement counters
+-- ============================================================================
+-- Description: Per-user running totals that achievement rules are evaluated
+--              against, so awarding never re-scans progress tables.
+--              Backfilled once from existing data; maintained by the app.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS user_learning_counters (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    lessons_completed INT NOT NULL DEFAULT 0,
+    courses_completed INT NOT NULL DEFAULT 0,
+    quizzes_passed INT NOT NULL DEFAULT 0,
+    reviews_written INT NOT NULL DEFAULT 0,
+    longest_streak_days INT NOT NULL DEFAULT 0,
+    learning_seconds BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE user_learning_counters IS 'Running per-user totals used by achievement rules';
+
+-- One-time backfill
+INSERT INTO user_learning_counters
+    (user_id, lessons_completed, courses_completed, quizzes_passed, reviews_written,
+     longest_streak_days, learning_seconds)
+SELECT u.id,
+       COALESCE(lp.completed, 0),
+       COALESCE(cp.completed, 0),
+       COALESCE(qa.passed, 0),
+       COALESCE(cr.written, 0),
+       COALESCE(ls.longest_streak_days, 0),
+       COALESCE(lp.seconds, 0)
+FROM users u
+LEFT JOIN (
+    SELECT user_id,
+           COUNT(*) FILTER (WHERE completed = TRUE) AS completed,
+           SUM(COALESCE(time_spent_seconds, 0)) AS seconds
+    FROM lesson_progress
+    GROUP BY user_id
+) lp ON lp.user_id = u.id
+LEFT JOIN (
+    SELECT e.user_id, COUNT(*) AS completed
+    FROM course_progress p
+    JOIN enrollments e ON e.id = p.enrollment_id
+    WHERE p.completion_percentage >= 100
+    GROUP BY e.user_id
+) cp ON cp.user_id = u.id
+LEFT JOIN (
+    SELECT user_id, COUNT(DISTINCT quiz_id) AS passed
+    FROM quiz_attempts
+    WHERE passed = TRUE
+    GROUP BY user_id
+) qa ON qa.user_id = u.id
+LEFT JOIN (
+    SELECT user_id, COUNT(*) AS written
+    FROM course_reviews
+    GROUP BY user_id
+) cr ON cr.user_id = u.id
+LEFT JOIN learning_streaks ls ON ls.user_id = u.id
+ON CONFLICT (user_id) DO NOTHING;
+
+-- Achievement definitions evaluated by AchievementService
+INSERT INTO achievements (code, name, description, icon_name) VALUES
+('first_lesson', 'First Steps', 'Complete your first lesson', 'play'),
+('lessons_10', 'Getting Serious', 'Complete 10 lessons', 'book'),
+('lessons_50', 'Bookworm', 'Complete 50 lessons', 'books'),
+('courses_5', 'Collector', 'Complete 5 courses', 'medal'),
+('month_streak', 'Month Streak', 'Learn for 30 consecutive days', 'calendar'),
+('first_quiz', 'Quiz Taker', 'Pass your first quiz', 'check'),
+('quiz_master', 'Quiz Master', 'Pass 10 different quizzes', 'brain'),
+('first_review', 'Critic', 'Write your first course review', 'comment')
+ON CONFLICT (code) DO NOTHING;
@@ -0,0 +1,39 @@
+-- ============================================================================
+-- Migration V22: Append-only learning activity log
+-- ============================================================================
+-- Description: Raw student activity (lesson opened/progress/completed, quiz
+--              started/submitted, article read), written in COPY batches by
+--              LearningEventLog. Range-partitioned by month so old months can
+--              be detached or dropped without touching live data.
+--              No foreign keys: the log must keep accepting writes regardless
+--              of catalogue changes, and outlives deleted lessons/quizzes.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS learning_events (
+    occurred_at TIMESTAMPTZ NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    user_id BIGINT,
+    course_id BIGINT,
+    lesson_id BIGINT,
+    quiz_id BIGINT,
+    attempt_id BIGINT,
+    position_seconds INTEGER,
+    time_spent_seconds INTEGER,
+    score NUMERIC(5,2)
+) PARTITION BY RANGE (occurred_at);
+
+-- Catch-all so a missing month partition never rejects a batch. Month
+-- partitions are created ahead of time by LearningEventLog, which also moves
+-- any rows that reached the default partition into their month.
+CREATE TABLE IF NOT EXISTS learning_events_default PARTITION OF learning_events DEFAULT;
+
+-- BRIN fits append-mostly, time-ordered data at a fraction of a btree's size
+CREATE INDEX IF NOT EXISTS idx_learning_events_occurred_at
+    ON learning_events USING BRIN (occurred_at);
+CREATE INDEX IF NOT EXISTS idx_learning_events_user_occurred
+    ON learning_events (user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_learning_events_lesson_type
+    ON learning_events (lesson_id, event_type);
+
+COMMENT ON TABLE learning_events IS 'Append-only student learning activity log (partitioned by month)';
@@ -0,0 +1,64 @@
+-- ============================================================================
+-- Migration V23: Per-lesson drop-off funnel rollups
+-- ============================================================================
+-- Description: Incrementally maintained per-lesson counters (students who
+--              started / completed a lesson) plus a log-scale histogram of
+--              time to complete, so the admin funnel never scans
+--              lesson_progress. Rebuilt nightly by LessonFunnelService.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS lesson_funnel_stats (
+    lesson_id BIGINT PRIMARY KEY REFERENCES lessons(id) ON DELETE CASCADE,
+    course_id BIGINT NOT NULL REFERENCES course(id) ON DELETE CASCADE,
+    started_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    reconciled_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_lesson_funnel_stats_course_id ON lesson_funnel_stats(course_id);
+
+-- bucket = floor(4 * log2(seconds + 1)), i.e. four buckets per doubling of time spent
+CREATE TABLE IF NOT EXISTS lesson_funnel_time_buckets (
+    lesson_id BIGINT NOT NULL REFERENCES lessons(id) ON DELETE CASCADE,
+    course_id BIGINT NOT NULL REFERENCES course(id) ON DELETE CASCADE,
+    bucket SMALLINT NOT NULL,
+    students BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (lesson_id, bucket)
+);
+
+CREATE INDEX IF NOT EXISTS idx_lesson_funnel_time_buckets_course_id ON lesson_funnel_time_buckets(course_id);
+
+COMMENT ON TABLE lesson_funnel_stats IS 'Per-lesson started/completed counts for enrolled students';
+COMMENT ON TABLE lesson_funnel_time_buckets IS 'Per-lesson histogram of time spent by students who completed it';
+
+-- Initial fill (same queries as the nightly reconcile)
+WITH p AS (
+    SELECT lp.lesson_id, s.course_id, lp.completed, lp.time_spent_seconds
+    FROM lesson_progress lp
+    JOIN lessons l ON l.id = lp.lesson_id
+    JOIN course_sections s ON s.id = l.section_id
+    JOIN enrollments e ON e.user_id = lp.user_id AND e.course_id = s.course_id
+)
+INSERT INTO lesson_funnel_stats (lesson_id, course_id, started_count, completed_count, updated_at, reconciled_at)
+SELECT lesson_id, course_id, COUNT(*), COUNT(*) FILTER (WHERE completed = TRUE), NOW(), NOW()
+FROM p
+GROUP BY lesson_id, course_id
+ON CONFLICT (lesson_id) DO NOTHING;
+
+WITH p AS (
+    SELECT lp.lesson_id, s.course_id, lp.completed, lp.time_spent_seconds
+    FROM lesson_progress lp
+    JOIN lessons l ON l.id = lp.lesson_id
+    JOIN course_sections s ON s.id = l.section_id
+    JOIN enrollments e ON e.user_id = lp.user_id AND e.course_id = s.course_id
+)
+INSERT INTO lesson_funnel_time_buckets (lesson_id, course_id, bucket, students)
+SELECT lesson_id, course_id,
+       LEAST(80, FLOOR(4 * LOG(2, COALESCE(time_spent_seconds, 0) + 1)))::int AS bucket,
+       COUNT(*)
+FROM p
+WHERE completed = TRUE
+GROUP BY 1, 2, 3
+ON CONFLICT (lesson_id, bucket) DO NOTHING;
@@ -0,0 +1,75 @@
+-- ============================================================================
+-- Migration V24: Daily metrics rollup for the admin dashboard
+-- ============================================================================
+-- Description: One row per UTC day with that day's activity and running
+--              totals, maintained by AdminMetricsService. The admin stats
+--              endpoint reads yesterday's totals plus today's partial values
+--              instead of aggregating orders/enrollments/users on every load.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS daily_metrics (
+    day DATE PRIMARY KEY,
+    revenue NUMERIC(14,2) NOT NULL DEFAULT 0,
+    enrollments INT NOT NULL DEFAULT 0,
+    signups INT NOT NULL DEFAULT 0,
+    completions INT NOT NULL DEFAULT 0,
+    revenue_total NUMERIC(14,2) NOT NULL DEFAULT 0,
+    enrollments_total BIGINT NOT NULL DEFAULT 0,
+    users_total BIGINT NOT NULL DEFAULT 0,
+    published_courses INT, -- snapshot taken when the day is first rolled up
+    computed_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE daily_metrics IS 'Per-day (UTC) admin dashboard rollup with running totals';
+
+-- Range scans used by the rollup job and today's partial values (enrollments
+-- and users are served by the (enrolled_at, id) / (created_at, id) indexes of V26)
+CREATE INDEX IF NOT EXISTS idx_lesson_progress_completed_at ON lesson_progress(completed_at)
+    WHERE completed_at IS NOT NULL;
+
+-- Backfill every day up to yesterday
+WITH bounds AS (
+    SELECT LEAST(
+               (SELECT MIN(created_at) FROM users),
+               (SELECT MIN(created_at) FROM orders),
+               (SELECT MIN(enrolled_at) FROM enrollments)
+           ) AT TIME ZONE 'UTC' AS first_ts
+),
+days AS (
+    SELECT generate_series(first_ts::date, (NOW() AT TIME ZONE 'UTC')::date - 1, INTERVAL '1 day')::date AS day
+    FROM bounds
+    WHERE first_ts IS NOT NULL
+),
+rev AS (
+    SELECT (created_at AT TIME ZONE 'UTC')::date AS day, SUM(total) AS v
+    FROM orders WHERE status = 'PAID' GROUP BY 1
+),
+enr AS (
+    SELECT (enrolled_at AT TIME ZONE 'UTC')::date AS day, COUNT(*) AS v
+    FROM enrollments GROUP BY 1
+),
+sig AS (
+    SELECT (created_at AT TIME ZONE 'UTC')::date AS day, COUNT(*) AS v
+    FROM users GROUP BY 1
+),
+cmp AS (
+    SELECT (completed_at AT TIME ZONE 'UTC')::date AS day, COUNT(*) AS v
+    FROM lesson_progress WHERE completed_at IS NOT NULL GROUP BY 1
+)
+INSERT INTO daily_metrics (day, revenue, enrollments, signups, completions,
+                           revenue_total, enrollments_total, users_total)
+SELECT d.day,
+       COALESCE(rev.v, 0),
+       COALESCE(enr.v, 0),
+       COALESCE(sig.v, 0),
+       COALESCE(cmp.v, 0),
+       SUM(COALESCE(rev.v, 0)) OVER (ORDER BY d.day),
+       SUM(COALESCE(enr.v, 0)) OVER (ORDER BY d.day),
+       SUM(COALESCE(sig.v, 0)) OVER (ORDER BY d.day)
+FROM days d
+LEFT JOIN rev ON rev.day = d.day
+LEFT JOIN enr ON enr.day = d.day
+LEFT JOIN sig ON sig.day = d.day
+LEFT JOIN cmp ON cmp.day = d.day
+ON CONFLICT (day) DO NOTHING;
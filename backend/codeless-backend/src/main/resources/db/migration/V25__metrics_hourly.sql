@@ -0,0 +1,41 @@
+-- ============================================================================
+-- Migration V25: Hourly metric buckets for admin time-series charts
+-- ============================================================================
+-- Description: Pre-aggregated per-hour (UTC) revenue, enrollments, signups and
+--              lesson completions. Maintained by MetricsTimeseriesService;
+--              day/week series are rolled up from these rows, never from raw
+--              orders/enrollments.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS metrics_hourly (
+    bucket_start TIMESTAMPTZ PRIMARY KEY,
+    revenue NUMERIC(14,2) NOT NULL DEFAULT 0,
+    enrollments INT NOT NULL DEFAULT 0,
+    signups INT NOT NULL DEFAULT 0,
+    completions INT NOT NULL DEFAULT 0,
+    computed_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE metrics_hourly IS 'Per-hour (UTC) admin analytics buckets; only non-empty hours are stored';
+
+-- Backfill (hours without any activity are simply absent)
+WITH activity AS (
+    SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC' AS bucket_start,
+           total AS revenue, 0 AS enrollments, 0 AS signups, 0 AS completions
+    FROM orders WHERE status = 'PAID'
+    UNION ALL
+    SELECT date_trunc('hour', enrolled_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, 1, 0, 0
+    FROM enrollments
+    UNION ALL
+    SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, 0, 1, 0
+    FROM users
+    UNION ALL
+    SELECT date_trunc('hour', completed_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, 0, 0, 1
+    FROM lesson_progress WHERE completed_at IS NOT NULL
+)
+INSERT INTO metrics_hourly (bucket_start, revenue, enrollments, signups, completions)
+SELECT bucket_start, SUM(revenue), SUM(enrollments), SUM(signups), SUM(completions)
+FROM activity
+GROUP BY bucket_start
+ON CONFLICT (bucket_start) DO NOTHING;
@@ -0,0 +1,20 @@
+-- ============================================================================
+-- Migration V26: Keyset pagination indexes for admin list endpoints
+-- ============================================================================
+-- Description: Admin lists page with (sort column, id) row comparisons and
+--              ORDER BY sort column, id. Composite indexes let each page be
+--              an index range scan instead of sorting the whole table.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_course_created_at_id ON course(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_enrollments_enrolled_at_id ON enrollments(enrolled_at, id);
+CREATE INDEX IF NOT EXISTS idx_enrollments_course_enrolled_at_id ON enrollments(course_id, enrolled_at, id);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_users_created_at;
+DROP INDEX IF EXISTS idx_orders_created_at;
+DROP INDEX IF EXISTS idx_enrollments_enrolled_at;
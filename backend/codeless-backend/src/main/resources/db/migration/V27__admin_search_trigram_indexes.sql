@@ -0,0 +1,14 @@
+-- ============================================================================
+-- Migration V27: Trigram indexes for admin search
+-- ============================================================================
+-- Description: Admin search and list filters match users and courses with
+--              ILIKE '%term%' and pg_trgm word similarity. GIN trigram indexes
+--              serve both, replacing sequential scans of users and course.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (full_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_course_title_trgm ON course USING gin (title gin_trgm_ops);
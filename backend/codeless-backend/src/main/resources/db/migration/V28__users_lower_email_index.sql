@@ -0,0 +1,10 @@
+-- ============================================================================
+-- Migration V28: Case-insensitive email lookup
+-- ============================================================================
+-- Description: Bulk enrollment imports resolve thousands of emails at once
+--              with lower(email) IN (...). An expression index keeps that an
+--              index lookup per email.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_users_lower_email ON users (lower(email));
@@ -0,0 +1,45 @@
+-- ============================================================================
+-- Migration V29: Per-(user, quiz) attempt summary
+-- ============================================================================
+-- Description: Attempt count, best score and last outcome for each user and
+--              quiz, so taking, starting and submitting a quiz read one row
+--              by primary key instead of the full attempt list. The count is
+--              incremented with a conditional upsert that also enforces
+--              max_attempts. Backfilled once from existing attempts.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS quiz_attempt_summary (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    quiz_id BIGINT NOT NULL REFERENCES quizzes(id) ON DELETE CASCADE,
+    attempt_count INT NOT NULL DEFAULT 0,
+    best_score NUMERIC(5,2),
+    last_passed BOOLEAN NOT NULL DEFAULT FALSE,
+    first_passed_at TIMESTAMPTZ,
+    last_attempt_at TIMESTAMPTZ,
+    PRIMARY KEY (user_id, quiz_id)
+);
+
+COMMENT ON TABLE quiz_attempt_summary IS 'Running per-user, per-quiz attempt totals maintained on attempt start and submit';
+COMMENT ON COLUMN quiz_attempt_summary.attempt_count IS 'Started attempts, completed or not; compared against quizzes.max_attempts';
+COMMENT ON COLUMN quiz_attempt_summary.last_passed IS 'Outcome of the most recently submitted attempt';
+
+-- One-time backfill
+INSERT INTO quiz_attempt_summary
+    (user_id, quiz_id, attempt_count, best_score, last_passed, first_passed_at, last_attempt_at)
+SELECT a.user_id,
+       a.quiz_id,
+       COUNT(*),
+       MAX(a.score),
+       COALESCE(last.passed, FALSE),
+       MIN(a.completed_at) FILTER (WHERE a.passed = TRUE),
+       MAX(COALESCE(a.completed_at, a.started_at))
+FROM quiz_attempts a
+LEFT JOIN (
+    SELECT DISTINCT ON (user_id, quiz_id) user_id, quiz_id, passed
+    FROM quiz_attempts
+    WHERE completed_at IS NOT NULL
+    ORDER BY user_id, quiz_id, completed_at DESC
+) last ON last.user_id = a.user_id AND last.quiz_id = a.quiz_id
+GROUP BY a.user_id, a.quiz_id, last.passed
+ON CONFLICT (user_id, quiz_id) DO NOTHING;
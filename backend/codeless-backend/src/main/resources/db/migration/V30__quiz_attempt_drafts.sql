@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Migration V30: Autosaved quiz answers
+-- ============================================================================
+-- Description: Latest in-progress answer per attempt and question. Written
+--              behind from the app's draft buffer as batched upserts, read
+--              back when a student reconnects and graded on submit, after
+--              which the attempt's drafts are deleted.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS quiz_attempt_drafts (
+    attempt_id BIGINT NOT NULL REFERENCES quiz_attempts(id) ON DELETE CASCADE,
+    question_id BIGINT NOT NULL REFERENCES quiz_questions(id) ON DELETE CASCADE,
+    selected_option_id BIGINT,
+    selected_option_ids TEXT,
+    text_answer TEXT,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (attempt_id, question_id)
+);
+
+COMMENT ON TABLE quiz_attempt_drafts IS 'Autosaved answers of in-progress quiz attempts; removed on submit';
+COMMENT ON COLUMN quiz_attempt_drafts.selected_option_ids IS 'Comma-separated option IDs for MULTIPLE_CHOICE questions, as in quiz_user_answers';
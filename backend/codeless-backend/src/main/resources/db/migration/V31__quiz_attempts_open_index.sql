@@ -0,0 +1,12 @@
+-- ============================================================================
+-- Migration V31: Open quiz attempts
+-- ============================================================================
+-- Description: The quiz deadline wheel is rebuilt at startup from the open
+--              attempts of timed quizzes. A partial index keeps that read off
+--              the (much larger) set of completed attempts.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_quiz_attempts_open
+    ON quiz_attempts(quiz_id)
+    WHERE completed_at IS NULL;
@@ -0,0 +1,85 @@
+-- ============================================================================
+-- Migration V32: Per-question quiz item analytics
+-- ============================================================================
+-- Description: Incrementally maintained counters behind the quiz item
+--              analytics report: graded attempts per quiz, answered/correct
+--              per question split by attempt outcome (passed = upper band,
+--              failed = lower band) for difficulty and discrimination, and
+--              selections per answer option for distractor analysis.
+--              Maintained by QuizItemAnalyticsService; backfilled once here.
+-- Date: 2026-10-19
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS quiz_item_quiz_stats (
+    quiz_id BIGINT PRIMARY KEY REFERENCES quizzes(id) ON DELETE CASCADE,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    passed BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS quiz_item_question_stats (
+    question_id BIGINT PRIMARY KEY REFERENCES quiz_questions(id) ON DELETE CASCADE,
+    quiz_id BIGINT NOT NULL REFERENCES quizzes(id) ON DELETE CASCADE,
+    answered BIGINT NOT NULL DEFAULT 0,
+    correct BIGINT NOT NULL DEFAULT 0,
+    upper_answered BIGINT NOT NULL DEFAULT 0,
+    upper_correct BIGINT NOT NULL DEFAULT 0,
+    lower_answered BIGINT NOT NULL DEFAULT 0,
+    lower_correct BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_quiz_item_question_stats_quiz_id ON quiz_item_question_stats(quiz_id);
+
+CREATE TABLE IF NOT EXISTS quiz_item_option_stats (
+    option_id BIGINT PRIMARY KEY REFERENCES quiz_answer_options(id) ON DELETE CASCADE,
+    quiz_id BIGINT NOT NULL REFERENCES quizzes(id) ON DELETE CASCADE,
+    selections BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_quiz_item_option_stats_quiz_id ON quiz_item_option_stats(quiz_id);
+
+COMMENT ON TABLE quiz_item_question_stats IS 'Per-question answered/correct counts, overall and by attempt outcome';
+COMMENT ON TABLE quiz_item_option_stats IS 'Per-option selection counts of graded attempts';
+
+-- One-time backfill from graded attempts
+INSERT INTO quiz_item_quiz_stats (quiz_id, attempts, passed)
+SELECT quiz_id, COUNT(*), COUNT(*) FILTER (WHERE passed = TRUE)
+FROM quiz_attempts
+WHERE completed_at IS NOT NULL
+GROUP BY quiz_id
+ON CONFLICT (quiz_id) DO NOTHING;
+
+INSERT INTO quiz_item_question_stats
+    (question_id, quiz_id, answered, correct, upper_answered, upper_correct, lower_answered, lower_correct)
+SELECT ua.question_id,
+       a.quiz_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE ua.is_correct = TRUE),
+       COUNT(*) FILTER (WHERE a.passed = TRUE),
+       COUNT(*) FILTER (WHERE a.passed = TRUE AND ua.is_correct = TRUE),
+       COUNT(*) FILTER (WHERE a.passed IS NOT TRUE),
+       COUNT(*) FILTER (WHERE a.passed IS NOT TRUE AND ua.is_correct = TRUE)
+FROM quiz_user_answers ua
+JOIN quiz_attempts a ON a.id = ua.attempt_id
+WHERE a.completed_at IS NOT NULL
+GROUP BY ua.question_id, a.quiz_id
+ON CONFLICT (question_id) DO NOTHING;
+
+WITH selected AS (
+    SELECT ua.selected_option_id AS option_id
+    FROM quiz_user_answers ua
+    WHERE ua.selected_option_id IS NOT NULL
+    UNION ALL
+    SELECT CAST(TRIM(id) AS BIGINT)
+    FROM quiz_user_answers ua
+    CROSS JOIN LATERAL unnest(string_to_array(ua.selected_option_ids, ',')) AS id
+    WHERE ua.selected_option_ids IS NOT NULL AND ua.selected_option_ids <> ''
+)
+INSERT INTO quiz_item_option_stats (option_id, quiz_id, selections)
+SELECT o.id, q.quiz_id, COUNT(*)
+FROM selected s
+JOIN quiz_answer_options o ON o.id = s.option_id
+JOIN quiz_questions q ON q.id = o.question_id
+GROUP BY o.id, q.quiz_id
+ON CONFLICT (option_id) DO NOTHING;
@@ -0,0 +1,44 @@
+-- ============================================================================
+-- Migration V33: Typed multiple-choice selections
+-- ============================================================================
+-- Description: selected_option_ids of quiz_user_answers and quiz_attempt_drafts
+--              change from comma-joined TEXT ("1,3,5") to BIGINT[], so
+--              selections are read and written without string parsing and
+--              "who picked option X" is an indexed containment query
+--              (selected_option_ids @> ARRAY[X]). Existing rows are converted
+--              in place; empty strings become NULL.
+-- Date: 2026-10-19
+-- ============================================================================
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'quiz_user_answers'
+                 AND column_name = 'selected_option_ids'
+                 AND data_type = 'text') THEN
+        ALTER TABLE quiz_user_answers
+            ALTER COLUMN selected_option_ids TYPE BIGINT[]
+            USING CASE
+                WHEN selected_option_ids IS NULL OR btrim(selected_option_ids) = '' THEN NULL
+                ELSE CAST(string_to_array(regexp_replace(selected_option_ids, '\s', '', 'g'), ',') AS BIGINT[])
+            END;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'quiz_attempt_drafts'
+                 AND column_name = 'selected_option_ids'
+                 AND data_type = 'text') THEN
+        ALTER TABLE quiz_attempt_drafts
+            ALTER COLUMN selected_option_ids TYPE BIGINT[]
+            USING CASE
+                WHEN selected_option_ids IS NULL OR btrim(selected_option_ids) = '' THEN NULL
+                ELSE CAST(string_to_array(regexp_replace(selected_option_ids, '\s', '', 'g'), ',') AS BIGINT[])
+            END;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_quiz_user_answers_selected_option_ids
+    ON quiz_user_answers USING GIN (selected_option_ids);
+
+COMMENT ON COLUMN quiz_user_answers.selected_option_ids IS 'Selected option IDs for MULTIPLE_CHOICE questions, sorted. Example: {1,3,5}';
+COMMENT ON COLUMN quiz_attempt_drafts.selected_option_ids IS 'Selected option IDs for MULTIPLE_CHOICE questions, as in quiz_user_answers';
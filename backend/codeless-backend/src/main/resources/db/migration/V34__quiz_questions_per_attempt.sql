@@ -0,0 +1,13 @@
+-- ============================================================================
+-- Migration V34: Drawing N of M quiz questions
+-- ============================================================================
+-- Description: A quiz can draw a subset of its question pool per attempt.
+--              Which questions (and in which order) an attempt gets is derived
+--              from the attempt id, so nothing is stored per attempt.
+-- Date: 2026-10-19
+-- ============================================================================
+
+ALTER TABLE quizzes
+ADD COLUMN IF NOT EXISTS questions_per_attempt INTEGER;
+
+COMMENT ON COLUMN quizzes.questions_per_attempt IS 'Questions drawn from the pool per attempt; NULL = all questions';
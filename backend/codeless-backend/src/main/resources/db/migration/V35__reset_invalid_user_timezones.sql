@@ -0,0 +1,16 @@
+-- ============================================================================
+-- Migration V35: Reset non-region user timezones
+-- ============================================================================
+-- Description: Profile updates used to accept any Java zone id, including
+--              offsets such as "+05:00" or "UTC+03:00". PostgreSQL's
+--              AT TIME ZONE reads those with the sign inverted or rejects
+--              them, and one such row fails the set-based streak reset for
+--              every user. Only IANA region ids are accepted now; rows with
+--              anything PostgreSQL does not know as a region name go back to UTC.
+-- Date: 2026-10-19
+-- ============================================================================
+
+UPDATE users
+SET timezone = 'UTC'
+WHERE timezone NOT IN (SELECT name FROM pg_timezone_names)
+   OR timezone ~ '^(UTC|GMT)?[+-]';
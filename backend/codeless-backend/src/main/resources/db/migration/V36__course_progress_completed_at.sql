@@ -0,0 +1,20 @@
+-- ============================================================================
+-- Migration V36: First course completion
+-- ============================================================================
+-- Description: course_progress.completed_at records when a student first
+--              reached 100% of a course. It is never cleared, so a course that
+--              drops below 100% after new lessons are added and is finished
+--              again does not count as a second completion. Rows already at
+--              100% are backfilled with their last update time.
+-- Date: 2026-10-19
+-- ============================================================================
+
+ALTER TABLE course_progress
+ADD COLUMN IF NOT EXISTS completed_at TIMESTAMPTZ;
+
+UPDATE course_progress
+SET completed_at = updated_at
+WHERE completion_percentage >= 100
+  AND completed_at IS NULL;
+
+COMMENT ON COLUMN course_progress.completed_at IS 'When the course first reached 100%; kept when the percentage later drops';
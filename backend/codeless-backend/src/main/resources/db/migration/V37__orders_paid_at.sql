@@ -0,0 +1,49 @@
+-- ============================================================================
+-- Migration V37: Payment time of orders
+-- ============================================================================
+-- Description: orders.paid_at records when an order was paid, so revenue is
+--              attributed to the day it was received rather than the day the
+--              order was created. Existing paid (and since refunded) orders are
+--              backfilled with updated_at, the closest recorded time, and the
+--              revenue columns of daily_metrics are recomputed from it.
+-- Date: 2026-10-19
+-- ============================================================================
+
+ALTER TABLE orders
+ADD COLUMN IF NOT EXISTS paid_at TIMESTAMPTZ;
+
+UPDATE orders
+SET paid_at = updated_at
+WHERE status IN ('PAID', 'REFUNDED')
+  AND paid_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_orders_paid_at ON orders(paid_at) INCLUDE (total)
+    WHERE status = 'PAID';
+
+WITH rev AS (
+    SELECT (paid_at AT TIME ZONE 'UTC')::date AS day, SUM(total) AS v
+    FROM orders
+    WHERE status = 'PAID'
+    GROUP BY 1
+),
+-- Revenue paid before the first rolled-up day
+carried AS (
+    SELECT COALESCE(SUM(total), 0) AS v
+    FROM orders
+    WHERE status = 'PAID'
+      AND paid_at < CAST((SELECT MIN(day) FROM daily_metrics) AS TIMESTAMP) AT TIME ZONE 'UTC'
+),
+recomputed AS (
+    SELECT d.day,
+           COALESCE(rev.v, 0) AS revenue,
+           (SELECT v FROM carried) + SUM(COALESCE(rev.v, 0)) OVER (ORDER BY d.day) AS revenue_total
+    FROM daily_metrics d
+    LEFT JOIN rev ON rev.day = d.day
+)
+UPDATE daily_metrics d
+SET revenue = r.revenue,
+    revenue_total = r.revenue_total
+FROM recomputed r
+WHERE r.day = d.day;
+
+COMMENT ON COLUMN orders.paid_at IS 'When the order was paid; kept when it is later refunded';
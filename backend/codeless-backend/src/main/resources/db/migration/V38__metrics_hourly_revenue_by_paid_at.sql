@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Migration V38: Hourly revenue by payment time
+-- ============================================================================
+-- Description: metrics_hourly revenue was bucketed by order creation time.
+--              It is rebuilt from orders.paid_at (V37), matching the rollup
+--              job, and hours left without any activity are removed.
+-- Date: 2026-10-19
+-- ============================================================================
+
+UPDATE metrics_hourly SET revenue = 0;
+
+INSERT INTO metrics_hourly (bucket_start, revenue)
+SELECT date_trunc('hour', paid_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', SUM(total)
+FROM orders
+WHERE status = 'PAID' AND paid_at IS NOT NULL
+GROUP BY 1
+ON CONFLICT (bucket_start) DO UPDATE
+SET revenue = EXCLUDED.revenue,
+    computed_at = NOW();
+
+DELETE FROM metrics_hourly
+WHERE revenue = 0 AND enrollments = 0 AND signups = 0 AND completions = 0;
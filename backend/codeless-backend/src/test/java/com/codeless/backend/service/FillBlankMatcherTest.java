@@ -0,0 +1,114 @@
+package com.codeless.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FillBlankMatcherTest {
+
+	@Test
+	void foldAppliesNfkcAndLowerCase() {
+		// Fullwidth letters and the "fi" ligature are compatibility forms of plain ASCII
+		assertThat(FillBlankMatcher.fold("ＰＡＲＩＳ")).isEqualTo("paris");
+		assertThat(FillBlankMatcher.fold("ﬁle")).isEqualTo("file");
+		assertThat(FillBlankMatcher.fold("１２３")).isEqualTo("123");
+	}
+
+	@Test
+	void foldCollapsesPunctuationAndWhitespace() {
+		assertThat(FillBlankMatcher.fold("  Paris. ")).isEqualTo("paris");
+		assertThat(FillBlankMatcher.fold("New York")).isEqualTo("new york");
+		assertThat(FillBlankMatcher.fold("new\t \nyork!")).isEqualTo("new york");
+		assertThat(FillBlankMatcher.fold("well-known")).isEqualTo("well known");
+	}
+
+	@Test
+	void foldKeepsDecimalPointsAndLeadingMinus() {
+		assertThat(FillBlankMatcher.fold("3.14")).isEqualTo("3.14");
+		assertThat(FillBlankMatcher.fold("-5")).isEqualTo("-5");
+		assertThat(FillBlankMatcher.fold("x = -5.")).isEqualTo("x -5");
+	}
+
+	@Test
+	void matchesAnyAcceptableAnswerInFoldedForm() {
+		FillBlankMatcher matcher = FillBlankMatcher.compile("Paris, Lutetia", 2);
+
+		assertThat(matcher.matches("paris.")).isTrue();
+		assertThat(matcher.matches("ＰＡＲＩＳ")).isTrue();
+		assertThat(matcher.matches(" LUTETIA ")).isTrue();
+		assertThat(matcher.matches("London")).isFalse();
+		assertThat(matcher.matches(null)).isFalse();
+		assertThat(matcher.matches("   ")).isFalse();
+	}
+
+	@Test
+	void numbersCompareByValue() {
+		FillBlankMatcher matcher = FillBlankMatcher.compile("3", 2);
+
+		assertThat(matcher.matches("3.0")).isTrue();
+		assertThat(matcher.matches("3.00")).isTrue();
+		assertThat(matcher.matches("4")).isFalse();
+	}
+
+	@Test
+	void numbersAreNeverFuzzy() {
+		FillBlankMatcher matcher = FillBlankMatcher.compile("123456789", 2);
+
+		assertThat(matcher.matches("123456788")).isFalse();
+	}
+
+	@Test
+	void plusMinusToleranceInAllSpellings() {
+		for (String answer : new String[]{"3.14±0.01", "3.14 +/- 0.01", "3.14+-0.01", " 3.14 ± 0.01 "}) {
+			FillBlankMatcher matcher = FillBlankMatcher.compile(answer, 2);
+
+			assertThat(matcher.matches("3.14")).as(answer).isTrue();
+			assertThat(matcher.matches("3.15")).as(answer).isTrue();
+			assertThat(matcher.matches("3.13")).as(answer).isTrue();
+			assertThat(matcher.matches("3.151")).as(answer).isFalse();
+			assertThat(matcher.matches("3.129")).as(answer).isFalse();
+		}
+	}
+
+	@Test
+	void shortAnswersAllowNoTypos() {
+		// Fewer than 5 characters: a one-letter difference is a different word
+		FillBlankMatcher matcher = FillBlankMatcher.compile("bird", 2);
+
+		assertThat(matcher.matches("bird")).isTrue();
+		assertThat(matcher.matches("bard")).isFalse();
+	}
+
+	@Test
+	void mediumAnswersAllowOneTypo() {
+		// 5 to 8 characters
+		FillBlankMatcher matcher = FillBlankMatcher.compile("paris", 2);
+
+		assertThat(matcher.matches("parix")).isTrue();
+		assertThat(matcher.matches("pari")).isTrue();
+		assertThat(matcher.matches("pxrix")).isFalse();
+	}
+
+	@Test
+	void longAnswersAllowTwoTypos() {
+		// 9 characters or more
+		FillBlankMatcher matcher = FillBlankMatcher.compile("photosynthesis", 2);
+
+		assertThat(matcher.matches("photosinthesys")).isTrue();
+		assertThat(matcher.matches("fotosinthesis")).isFalse();
+		assertThat(matcher.matches("photosinthesyz")).isFalse();
+	}
+
+	@Test
+	void configuredMaximumCapsTypos() {
+		assertThat(FillBlankMatcher.compile("photosynthesis", 1).matches("photosinthesys")).isFalse();
+		assertThat(FillBlankMatcher.compile("photosynthesis", 1).matches("photosinthesis")).isTrue();
+		assertThat(FillBlankMatcher.compile("paris", 0).matches("parix")).isFalse();
+	}
+
+	@Test
+	void emptyAcceptableAnswersMatchNothing() {
+		assertThat(FillBlankMatcher.compile(null, 2).matches("anything")).isFalse();
+		assertThat(FillBlankMatcher.compile(" , ", 2).matches("anything")).isFalse();
+	}
+}
@@ -0,0 +1,84 @@
+package com.codeless.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuizDeadlineWheelTest {
+
+	// 8 slots of one second: one rotation is 8 seconds
+	private static final int SLOTS = 8;
+	private static final long TICK = 1000;
+
+	@Test
+	void firesOnceTheDeadlineTickIsReached() {
+		QuizDeadlineWheel wheel = new QuizDeadlineWheel(SLOTS, TICK, 0);
+		wheel.schedule(1L, 5000);
+
+		assertThat(wheel.advance(4999)).isEmpty();
+		assertThat(wheel.advance(5000)).containsExactly(1L);
+		assertThat(wheel.size()).isZero();
+		assertThat(wheel.advance(20_000)).isEmpty();
+	}
+
+	@Test
+	void deadlineBeyondOneRotationWaitsForItsRound() {
+		QuizDeadlineWheel wheel = new QuizDeadlineWheel(SLOTS, TICK, 0);
+		// Tick 10 hashes into the same slot as tick 2
+		wheel.schedule(1L, 10_000);
+
+		assertThat(wheel.advance(2000)).isEmpty();
+		assertThat(wheel.advance(9999)).isEmpty();
+		assertThat(wheel.advance(10_000)).containsExactly(1L);
+	}
+
+	@Test
+	void longPauseVisitsEverySlotOnceAndExpiresAllOverdue() {
+		QuizDeadlineWheel wheel = new QuizDeadlineWheel(SLOTS, TICK, 0);
+		wheel.schedule(1L, 3000);
+		wheel.schedule(2L, 20_000);
+		wheel.schedule(3L, 200_000);
+
+		// Many rotations without a tick, as after a GC pause or a stalled scheduler
+		assertThat(wheel.advance(100_000)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advance(199_999)).isEmpty();
+		assertThat(wheel.advance(200_000)).containsExactly(3L);
+	}
+
+	@Test
+	void cancelledAttemptNeverFires() {
+		QuizDeadlineWheel wheel = new QuizDeadlineWheel(SLOTS, TICK, 0);
+		wheel.schedule(1L, 3000);
+		wheel.cancel(1L);
+
+		assertThat(wheel.size()).isZero();
+		assertThat(wheel.advance(10_000)).isEmpty();
+	}
+
+	@Test
+	void rescheduledAttemptFiresOnlyAtItsNewDeadline() {
+		QuizDeadlineWheel wheel = new QuizDeadlineWheel(SLOTS, TICK, 0);
+		wheel.schedule(1L, 2000);
+		wheel.schedule(1L, 5000);
+
+		assertThat(wheel.advance(2000)).isEmpty();
+		assertThat(wheel.advance(5000)).containsExactly(1L);
+	}
+
+	@Test
+	void pastDeadlineFiresOnTheNextTick() {
+		QuizDeadlineWheel wheel = new QuizDeadlineWheel(SLOTS, TICK, 10_000);
+		wheel.schedule(1L, 1000);
+
+		assertThat(wheel.advance(10_999)).isEmpty();
+		assertThat(wheel.advance(11_000)).containsExactly(1L);
+	}
+
+	@Test
+	void rejectsEmptyWheel() {
+		assertThatThrownBy(() -> new QuizDeadlineWheel(0, TICK, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
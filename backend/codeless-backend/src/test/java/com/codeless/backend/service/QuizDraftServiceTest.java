@@ -0,0 +1,263 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.Lesson;
+import com.codeless.backend.domain.Quiz;
+import com.codeless.backend.domain.QuizAnswerOption;
+import com.codeless.backend.domain.QuizQuestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuizDraftServiceTest {
+
+	private static final long USER = 1L;
+	private static final long QUIZ = 2L;
+	private static final long ATTEMPT = 7L;
+	private static final long OTHER_ATTEMPT = 8L;
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final QuizAnswerKeyCache quizAnswerKeyCache = mock(QuizAnswerKeyCache.class);
+	private final QuizDraftService service = new QuizDraftService(
+			jdbcTemplate, quizAnswerKeyCache, mock(QuizTimeLimitService.class), 1_800_000);
+
+	// Stand-ins for quiz_attempts.completed_at and quiz_attempt_drafts
+	private final Set<Long> completedAttempts = new HashSet<>();
+	private final List<Map<String, Object>> persistedDrafts = new ArrayList<>();
+	// Upsert rows per flush batch, as {option, option ids, text, saved at, question, attempt}
+	private final List<List<Object[]>> batches = new ArrayList<>();
+	private final Set<Long> failingAttempts = new HashSet<>();
+
+	@BeforeEach
+	void setUp() {
+		when(quizAnswerKeyCache.get(QUIZ)).thenReturn(answerKey(11L, 12L));
+		doAnswer(invocation -> {
+			String sql = invocation.getArgument(0);
+			RowMapper<?> mapper = invocation.getArgument(1);
+			Long attemptId = invocation.getArgument(2);
+			List<Map<String, Object>> rows = sql.contains("FROM quiz_attempt_drafts")
+					? persistedDrafts
+					: List.of(Map.of("user_id", USER, "quiz_id", QUIZ, "completed", completedAttempts.contains(attemptId)));
+			List<Object> mapped = new ArrayList<>();
+			for (Map<String, Object> row : rows) {
+				mapped.add(mapper.mapRow(row(row), mapped.size()));
+			}
+			return mapped;
+		}).when(jdbcTemplate).query(anyString(), any(RowMapper.class), any());
+		doAnswer(invocation -> {
+			List<Object[]> rows = invocation.getArgument(1);
+			batches.add(rows);
+			if (rows.stream().anyMatch(row -> failingAttempts.contains((Long) row[5]))) {
+				throw new DataIntegrityViolationException("violates foreign key constraint");
+			}
+			return new int[rows.size()];
+		}).when(jdbcTemplate).batchUpdate(eq(QuizDraftService.UPSERT_SQL), anyList());
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void repeatedSavesOfAQuestionFlushAsOneRow() {
+		service.save(USER, ATTEMPT, choice(11L, 111L));
+		service.save(USER, ATTEMPT, choice(11L, 112L));
+		service.save(USER, ATTEMPT, choice(12L, 121L));
+
+		service.flush();
+
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).extracting(row -> row[4], row -> row[0])
+				.containsExactly(tuple(11L, 112L), tuple(12L, 121L));
+	}
+
+	@Test
+	void writtenAnswersAreNotFlushedAgain() {
+		service.save(USER, ATTEMPT, choice(11L, 111L));
+		service.flush();
+
+		service.flush();
+
+		assertThat(batches).hasSize(1);
+	}
+
+	@Test
+	void answersMergePersistedRowsWithUnflushedOnesNewestFirst() {
+		OffsetDateTime now = OffsetDateTime.now();
+		// Another instance saved question 11 after this one; question 12 was saved here last
+		persistedDrafts.add(draftRow(11L, 111L, now.plusHours(1)));
+		persistedDrafts.add(draftRow(12L, 121L, now.minusHours(1)));
+		service.save(USER, ATTEMPT, choice(11L, 112L));
+		service.save(USER, ATTEMPT, choice(12L, 122L));
+
+		assertThat(service.answers(USER, ATTEMPT)).containsExactly(choice(11L, 111L), choice(12L, 122L));
+	}
+
+	@Test
+	void takeHandsTheDraftToTheSubmitAndBlocksFurtherSaves() {
+		TransactionSynchronizationManager.initSynchronization();
+		service.save(USER, ATTEMPT, choice(11L, 111L));
+
+		assertThat(service.take(ATTEMPT)).containsExactly(choice(11L, 111L));
+		verify(jdbcTemplate).update(startsWith("DELETE FROM quiz_attempt_drafts"), eq(ATTEMPT));
+
+		// While the submit is in flight the answers are neither changed nor flushed
+		assertThatThrownBy(() -> service.save(USER, ATTEMPT, choice(12L, 121L)))
+				.isInstanceOf(IllegalStateException.class);
+		service.flush();
+		assertThat(batches).isEmpty();
+
+		completedAttempts.add(ATTEMPT);
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+
+		service.flush();
+		assertThat(batches).isEmpty();
+		assertThatThrownBy(() -> service.save(USER, ATTEMPT, choice(12L, 121L)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Quiz already submitted");
+	}
+
+	@Test
+	void rolledBackSubmitHandsTheDraftBackToTheWriteBehind() {
+		TransactionSynchronizationManager.initSynchronization();
+		service.save(USER, ATTEMPT, choice(11L, 111L));
+		service.take(ATTEMPT);
+
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+		service.save(USER, ATTEMPT, choice(12L, 121L));
+		service.flush();
+
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).extracting(row -> row[4]).containsExactly(11L, 12L);
+	}
+
+	@Test
+	void failingAttemptIsDroppedWithoutStallingOthers() {
+		service.save(USER, ATTEMPT, choice(11L, 111L));
+		service.save(USER, OTHER_ATTEMPT, choice(11L, 112L));
+		failingAttempts.add(ATTEMPT);
+
+		service.flush();
+
+		// The combined batch, then one retry per attempt
+		assertThat(batches).hasSize(3);
+		assertThat(batches.subList(1, 3)).extracting(rows -> rows.get(0)[5])
+				.containsExactlyInAnyOrder(ATTEMPT, OTHER_ATTEMPT);
+
+		service.flush();
+		assertThat(batches).hasSize(3);
+	}
+
+	@Test
+	void answerToAQuestionOutsideTheQuizIsRejected() {
+		// e.g. deleted after the form was loaded
+		assertThatThrownBy(() -> service.save(USER, ATTEMPT, choice(13L, 131L)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Question not found");
+	}
+
+	@Test
+	void attemptOfAnotherUserIsRejected() {
+		assertThatThrownBy(() -> service.save(USER + 1, ATTEMPT, choice(11L, 111L)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unauthorized");
+	}
+
+	private static void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			synchronization.afterCompletion(status);
+		}
+	}
+
+	private static QuizAnswerKey.Response choice(Long questionId, Long optionId) {
+		return new QuizAnswerKey.Response(questionId, optionId, null, null);
+	}
+
+	private static Map<String, Object> draftRow(Long questionId, Long optionId, OffsetDateTime updatedAt) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("question_id", questionId);
+		row.put("selected_option_id", optionId);
+		row.put("updated_at", updatedAt);
+		return row;
+	}
+
+	/**
+	 * A result set positioned on one row; absent columns read as SQL NULL
+	 */
+	private static ResultSet row(Map<String, Object> columns) {
+		Object[] last = new Object[1];
+		return mock(ResultSet.class, invocation -> {
+			if (invocation.getMethod().getName().equals("wasNull")) {
+				return last[0] == null;
+			}
+			if (invocation.getArguments().length == 0 || !(invocation.getArgument(0) instanceof String)) {
+				return RETURNS_DEFAULTS.answer(invocation);
+			}
+			Object value = columns.get(invocation.<String>getArgument(0));
+			last[0] = value;
+			return switch (invocation.getMethod().getName()) {
+				case "getLong" -> value != null ? ((Number) value).longValue() : 0L;
+				case "getBoolean" -> Boolean.TRUE.equals(value);
+				default -> value;
+			};
+		});
+	}
+
+	/**
+	 * Key of a quiz of TRUE_FALSE questions; option ids are the question id times ten plus 1 or 2
+	 */
+	private static QuizAnswerKey answerKey(Long... questionIds) {
+		Lesson lesson = new Lesson();
+		lesson.setId(3L);
+		Quiz quiz = new Quiz();
+		quiz.setId(QUIZ);
+		quiz.setLesson(lesson);
+		List<QuizQuestion> questions = new ArrayList<>();
+		for (Long questionId : questionIds) {
+			QuizQuestion question = new QuizQuestion();
+			question.setId(questionId);
+			question.setQuestionType(QuizQuestion.QuestionType.TRUE_FALSE);
+			question.setQuestionOrder(questions.size());
+			for (int i = 1; i <= 2; i++) {
+				QuizAnswerOption option = new QuizAnswerOption();
+				option.setId(questionId * 10 + i);
+				option.setIsCorrect(i == 1);
+				question.getAnswerOptions().add(option);
+			}
+			questions.add(question);
+		}
+		return QuizAnswerKey.compile(quiz, questions, 2);
+	}
+}
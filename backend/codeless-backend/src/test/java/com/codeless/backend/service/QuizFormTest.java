@@ -0,0 +1,76 @@
+package com.codeless.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuizFormTest {
+
+	@Test
+	void formIsDeterministicPerAttempt() {
+		assertThat(QuizForm.questionOrder(42, 20, 5, true)).containsExactly(QuizForm.questionOrder(42, 20, 5, true));
+		assertThat(QuizForm.questionOrder(42, 20, null, true)).containsExactly(QuizForm.questionOrder(42, 20, null, true));
+		assertThat(QuizForm.optionOrder(42, 7, 4)).containsExactly(QuizForm.optionOrder(42, 7, 4));
+	}
+
+	@Test
+	void attemptsGetDifferentForms() {
+		Set<String> forms = new HashSet<>();
+		for (long attemptId = 1; attemptId <= 20; attemptId++) {
+			forms.add(Arrays.toString(QuizForm.questionOrder(attemptId, 20, 5, true)));
+		}
+
+		assertThat(forms).hasSizeGreaterThan(1);
+	}
+
+	@Test
+	void drawPicksDistinctQuestionsOfTheQuiz() {
+		for (long attemptId = 1; attemptId <= 200; attemptId++) {
+			int[] order = QuizForm.questionOrder(attemptId, 10, 4, true);
+
+			assertThat(order).hasSize(4).doesNotHaveDuplicates();
+			for (int index : order) {
+				assertThat(index).isBetween(0, 9);
+			}
+		}
+	}
+
+	@Test
+	void drawWithoutShuffleKeepsQuizOrder() {
+		for (long attemptId = 1; attemptId <= 200; attemptId++) {
+			int[] order = QuizForm.questionOrder(attemptId, 10, 4, false);
+
+			assertThat(order).hasSize(4).doesNotHaveDuplicates().isSorted();
+			for (int index : order) {
+				assertThat(index).isBetween(0, 9);
+			}
+		}
+	}
+
+	@Test
+	void shuffleWithoutDrawIsAPermutation() {
+		assertThat(QuizForm.questionOrder(42, 10, null, true)).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		assertThat(QuizForm.optionOrder(42, 7, 5)).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+	}
+
+	@Test
+	void noDrawAndNoShuffleIsTheQuizAsIs() {
+		assertThat(QuizForm.questionOrder(42, 5, null, false)).containsExactly(0, 1, 2, 3, 4);
+		// A draw of zero or of at least the whole quiz draws every question
+		assertThat(QuizForm.questionOrder(42, 5, 0, false)).containsExactly(0, 1, 2, 3, 4);
+		assertThat(QuizForm.questionOrder(42, 5, 8, false)).containsExactly(0, 1, 2, 3, 4);
+	}
+
+	@Test
+	void drawsSubsetOnlyBelowTheQuestionCount() {
+		assertThat(QuizForm.drawsSubset(10, 4)).isTrue();
+		assertThat(QuizForm.drawsSubset(10, 10)).isFalse();
+		assertThat(QuizForm.drawsSubset(10, 12)).isFalse();
+		assertThat(QuizForm.drawsSubset(10, 0)).isFalse();
+		assertThat(QuizForm.drawsSubset(10, null)).isFalse();
+	}
+}
@@ -0,0 +1,174 @@
+package com.codeless.backend.service;
+
+import com.codeless.backend.domain.Lesson;
+import com.codeless.backend.domain.Quiz;
+import com.codeless.backend.domain.QuizAnswerOption;
+import com.codeless.backend.domain.QuizAttempt;
+import com.codeless.backend.domain.QuizQuestion;
+import com.codeless.backend.domain.User;
+import com.codeless.backend.event.QuizAttemptExpiredEvent;
+import com.codeless.backend.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuizSubmissionServiceTest {
+
+	private static final long USER = 1L;
+	private static final long QUIZ = 2L;
+	private static final long ATTEMPT = 7L;
+
+	private final QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class);
+	private final QuizAnswerKeyCache quizAnswerKeyCache = mock(QuizAnswerKeyCache.class);
+	private final QuizAttemptSummaryService quizAttemptSummaryService = mock(QuizAttemptSummaryService.class);
+	private final QuizDraftService quizDraftService = mock(QuizDraftService.class);
+	private final QuizTimeLimitService quizTimeLimitService = mock(QuizTimeLimitService.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final QuizSubmissionService service = new QuizSubmissionService(
+			quizAttemptRepository, quizAnswerKeyCache, quizAttemptSummaryService, quizDraftService,
+			quizTimeLimitService, jdbcTemplate, mock(ApplicationEventPublisher.class), mock(LearningEventLog.class),
+			mock(PlatformTransactionManager.class));
+
+	private final QuizAttempt attempt = new QuizAttempt();
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setId(USER);
+		Lesson lesson = new Lesson();
+		lesson.setId(3L);
+		Quiz quiz = new Quiz();
+		quiz.setId(QUIZ);
+		quiz.setLesson(lesson);
+		quiz.setTimeLimitMinutes(10);
+		attempt.setId(ATTEMPT);
+		attempt.setUser(user);
+		attempt.setQuiz(quiz);
+		attempt.setStartedAt(OffsetDateTime.now().minusMinutes(15));
+
+		// Questions 11 to 13, each with a correct option id*10+1 and a wrong one id*10+2
+		List<QuizQuestion> questions = new ArrayList<>();
+		for (long questionId = 11; questionId <= 13; questionId++) {
+			questions.add(question(questionId));
+		}
+		when(quizAnswerKeyCache.get(QUIZ)).thenReturn(QuizAnswerKey.compile(quiz, questions, 2));
+		when(quizAnswerKeyCache.payload(QUIZ)).thenReturn(QuizPayload.compile(quiz, questions));
+		when(quizAttemptRepository.findById(ATTEMPT)).thenReturn(Optional.of(attempt));
+		// The attempt is claimed
+		when(jdbcTemplate.update(anyString(), any(), any())).thenReturn(1);
+		when(quizAttemptSummaryService.recordSubmission(eq(USER), eq(QUIZ), any(), anyBoolean(), any()))
+				.thenAnswer(invocation -> new QuizAttemptSummaryService.Recorded(invocation.getArgument(2), false));
+	}
+
+	@Test
+	void responsesSentWithTheSubmitOverrideTheDraft() {
+		draft(choice(11L, 112L), choice(12L, 121L));
+
+		QuizSubmissionService.Submission submission = submit(false, choice(11L, 111L));
+
+		assertThat(submission.answers())
+				.extracting(QuizAnswerKey.GradedAnswer::questionId, QuizAnswerKey.GradedAnswer::selectedOptionId)
+				.containsExactly(tuple(11L, 111L), tuple(12L, 121L));
+		assertThat(submission.attempt().getScore()).isEqualByComparingTo("100");
+	}
+
+	@Test
+	void lateResponseCountsOnlyIfItMatchesTheAutosave() {
+		draft(choice(11L, 111L), choice(12L, 122L));
+
+		// 11 repeats its autosave; 12 differs from it and 13 was never autosaved
+		QuizSubmissionService.Submission submission = submit(true,
+				choice(11L, 111L), choice(12L, 121L), choice(13L, 131L));
+
+		assertThat(submission.answers())
+				.extracting(QuizAnswerKey.GradedAnswer::questionId, QuizAnswerKey.GradedAnswer::selectedOptionId)
+				.containsExactly(tuple(11L, 111L), tuple(12L, 122L));
+		assertThat(submission.attempt().getScore()).isEqualByComparingTo("50");
+	}
+
+	@Test
+	void clearedAutosaveCountsAsUnanswered() {
+		draft(choice(11L, 111L), choice(12L, null));
+
+		QuizSubmissionService.Submission submission = submit(false);
+
+		assertThat(submission.answers()).extracting(QuizAnswerKey.GradedAnswer::questionId).containsExactly(11L);
+	}
+
+	@Test
+	void answersToDeletedQuestionsAreIgnored() {
+		// 14 was autosaved and 15 answered before they were deleted from the quiz
+		draft(choice(11L, 111L), choice(14L, 141L));
+
+		QuizSubmissionService.Submission submission = submit(false, choice(15L, 151L));
+
+		assertThat(submission.answers()).extracting(QuizAnswerKey.GradedAnswer::questionId).containsExactly(11L);
+		assertThat(submission.attempt().getCompletedAt()).isNotNull();
+	}
+
+	@Test
+	void attemptCompletedConcurrentlyIsRejected() {
+		when(jdbcTemplate.update(anyString(), any(), any())).thenReturn(0);
+
+		assertThatThrownBy(() -> submit(false, choice(11L, 111L)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Quiz already submitted");
+	}
+
+	@Test
+	void failedAutoSubmitIsRetried() {
+		when(quizDraftService.take(ATTEMPT)).thenThrow(new IllegalStateException("database unavailable"));
+
+		service.onAttemptExpired(new QuizAttemptExpiredEvent(ATTEMPT, OffsetDateTime.now()));
+
+		verify(quizTimeLimitService).retryLater(ATTEMPT);
+	}
+
+	private void draft(QuizAnswerKey.Response... answers) {
+		when(quizDraftService.take(ATTEMPT)).thenReturn(List.of(answers));
+	}
+
+	private QuizSubmissionService.Submission submit(boolean late, QuizAnswerKey.Response... responses) {
+		when(quizTimeLimitService.isExpired(any(), any(), any())).thenReturn(late);
+		return service.submit(USER, ATTEMPT, List.of(responses));
+	}
+
+	private static QuizAnswerKey.Response choice(Long questionId, Long optionId) {
+		return new QuizAnswerKey.Response(questionId, optionId, null, null);
+	}
+
+	private static QuizQuestion question(Long id) {
+		QuizQuestion question = new QuizQuestion();
+		question.setId(id);
+		question.setQuestionType(QuizQuestion.QuestionType.TRUE_FALSE);
+		question.setQuestionText("Question " + id);
+		question.setQuestionOrder(id.intValue());
+		for (int i = 1; i <= 2; i++) {
+			QuizAnswerOption option = new QuizAnswerOption();
+			option.setId(id * 10 + i);
+			option.setOptionText(i == 1 ? "True" : "False");
+			option.setIsCorrect(i == 1);
+			option.setOptionOrder(i);
+			question.getAnswerOptions().add(option);
+		}
+		return question;
+	}
+}
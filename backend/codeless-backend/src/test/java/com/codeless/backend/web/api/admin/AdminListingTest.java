@@ -0,0 +1,123 @@
+package com.codeless.backend.web.api.admin;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdminListingTest {
+
+	@Test
+	void cursorRoundTripsEveryValueType() {
+		OffsetDateTime createdAt = OffsetDateTime.of(2026, 10, 19, 8, 30, 0, 123_456_000, ZoneOffset.UTC);
+		assertRoundTrip(new AdminListing.Cursor(createdAt, 42), AdminListing.ValueType.TIMESTAMP);
+		assertRoundTrip(new AdminListing.Cursor(new BigDecimal("1234.50"), 7), AdminListing.ValueType.DECIMAL);
+		assertRoundTrip(new AdminListing.Cursor(99L, 3), AdminListing.ValueType.LONG);
+		// The value is the last field, so separators inside it survive
+		assertRoundTrip(new AdminListing.Cursor("a|b@example.com", 5), AdminListing.ValueType.TEXT);
+	}
+
+	@Test
+	void timestampAtWholeMinuteParsesBack() {
+		// OffsetDateTime.toString drops zero seconds ("2026-10-19T08:30Z")
+		OffsetDateTime createdAt = OffsetDateTime.of(2026, 10, 19, 8, 30, 0, 0, ZoneOffset.UTC);
+		assertRoundTrip(new AdminListing.Cursor(createdAt, 1), AdminListing.ValueType.TIMESTAMP);
+	}
+
+	@Test
+	void cursorOfAnotherSortIsRejected() {
+		String cursor = new AdminListing.Cursor(99L, 3).encode("id", true, AdminListing.ValueType.LONG);
+
+		assertThatThrownBy(() -> AdminListing.Cursor.decode(cursor, "email", true, AdminListing.ValueType.LONG))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("sort");
+		assertThatThrownBy(() -> AdminListing.Cursor.decode(cursor, "id", false, AdminListing.ValueType.LONG))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("sort");
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		String wrongValue = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("id|desc|3|not-a-number".getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> AdminListing.Cursor.decode("%%%", "id", true, AdminListing.ValueType.LONG))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> AdminListing.Cursor.decode(wrongValue, "id", true, AdminListing.ValueType.LONG))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor");
+	}
+
+	@Test
+	void extraRowMeansAnotherPageAndCursorPointsAtLastReturnedRow() {
+		List<String> rows = rows(4);
+		AdminListing.Page<String> page = AdminListing.slice(
+				rows, positions(4), 3, "id", true, AdminListing.ValueType.LONG);
+
+		assertThat(page.items()).containsExactly("row0", "row1", "row2");
+		AdminListing.Cursor next = AdminListing.Cursor.decode(page.nextCursor(), "id", true, AdminListing.ValueType.LONG);
+		assertThat(next.id()).isEqualTo(102);
+		assertThat(next.value()).isEqualTo(2L);
+	}
+
+	@Test
+	void fullPageWithoutExtraRowIsTheLastPage() {
+		AdminListing.Page<String> page = AdminListing.slice(
+				rows(3), positions(3), 3, "id", true, AdminListing.ValueType.LONG);
+
+		assertThat(page.items()).hasSize(3);
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	@Test
+	void shortPageIsTheLastPage() {
+		AdminListing.Page<String> page = AdminListing.slice(
+				rows(1), positions(1), 3, "id", true, AdminListing.ValueType.LONG);
+
+		assertThat(page.items()).containsExactly("row0");
+		assertThat(page.nextCursor()).isNull();
+		assertThat(page.toResponse().getHeaders().containsKey(AdminListing.NEXT_CURSOR_HEADER)).isFalse();
+	}
+
+	@Test
+	void pageSizeIsDefaultedAndClamped() {
+		assertThat(AdminListing.pageSize(null)).isEqualTo(AdminListing.DEFAULT_LIMIT);
+		assertThat(AdminListing.pageSize(0)).isEqualTo(1);
+		assertThat(AdminListing.pageSize(-5)).isEqualTo(1);
+		assertThat(AdminListing.pageSize(10_000)).isEqualTo(AdminListing.MAX_LIMIT);
+		assertThat(AdminListing.pageSize(25)).isEqualTo(25);
+	}
+
+	private static void assertRoundTrip(AdminListing.Cursor cursor, AdminListing.ValueType type) {
+		String encoded = cursor.encode("key", false, type);
+
+		AdminListing.Cursor decoded = AdminListing.Cursor.decode(encoded, "key", false, type);
+
+		assertThat(decoded.id()).isEqualTo(cursor.id());
+		assertThat(decoded.value()).isEqualTo(cursor.value());
+	}
+
+	private static List<String> rows(int count) {
+		List<String> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add("row" + i);
+		}
+		return rows;
+	}
+
+	private static List<AdminListing.Cursor> positions(int count) {
+		List<AdminListing.Cursor> positions = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			positions.add(new AdminListing.Cursor((long) i, 100 + i));
+		}
+		return positions;
+	}
+}
@@ -2,6 +2,7 @@ import { Component, Input, Output, EventEmitter, OnInit, OnDestroy } from '@angu
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { HttpClient } from '@angular/common/http';
+import { forkJoin } from 'rxjs';
 
 interface AnswerOption {
   id: number;
@@ -30,7 +31,8 @@ interface Quiz {
   attemptCount: number;
   canAttempt: boolean;
   bestScore?: number; // Best score from previous attempts
-  questions: Question[];
+  questionCount: number; // Questions per attempt
+  questions: Question[]; // Empty for randomized quizzes until the attempt starts
 }
 
 interface UserAnswer {
@@ -40,6 +42,16 @@ interface UserAnswer {
   textAnswer?: string; // For FILL_BLANK
 }
 
+// In-progress attempt remembered across reloads of the page
+interface StoredAttempt {
+  attemptId: number;
+  startedAt: string;
+  timeLimitMinutes?: number;
+}
+
+// Typing into a question only autosaves once it pauses for this long
+const AUTOSAVE_DELAY_MS = 800;
+
 @Component({
   selector: 'app-quiz-taker',
   standalone: true,
@@ -65,6 +77,9 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
 
   // User answers
   userAnswers: Map<number, UserAnswer> = new Map();
+
+  // Pending debounced autosaves by question id
+  private autosaveTimers: Map<number, any> = new Map();
   
   // Immediate feedback state
   questionFeedback: Map<number, {isCorrect: boolean, shown: boolean}> = new Map();
@@ -87,6 +102,14 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
 
   ngOnDestroy() {
     this.stopTimer();
+    // Leaving mid-quiz still saves what was typed last
+    if (!this.quizCompleted) {
+      this.autosaveTimers.forEach((timer, questionId) => {
+        clearTimeout(timer);
+        this.autosave(questionId);
+      });
+    }
+    this.autosaveTimers.clear();
   }
 
   loadQuiz() {
@@ -96,6 +119,7 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
         next: (quiz) => {
           this.quiz = quiz;
           this.loading = false;
+          this.resumeAttempt();
         },
         error: (err) => {
           this.error = 'Failed to load quiz';
@@ -106,19 +130,19 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
 
   startQuiz() {
     this.loading = true;
-    this.http.post<{attemptId: number, startedAt: string, timeLimitMinutes?: number}>
+    this.http.post<{attemptId: number, startedAt: string, timeLimitMinutes?: number, questions: Question[]}>
       (`/api/quizzes/${this.quizId}/start`, {})
       .subscribe({
         next: (response) => {
-          this.attemptId = response.attemptId;
-          this.startTime = new Date(response.startedAt);
-          this.quizStarted = true;
+          // The server picks and orders this attempt's questions
+          this.quiz!.questions = response.questions;
+          this.storeAttempt({
+            attemptId: response.attemptId,
+            startedAt: response.startedAt,
+            timeLimitMinutes: response.timeLimitMinutes
+          });
+          this.beginAttempt(response.attemptId, response.startedAt, response.timeLimitMinutes);
           this.loading = false;
-
-          if (response.timeLimitMinutes) {
-            this.timeRemaining = response.timeLimitMinutes * 60; // Convert to seconds
-            this.startTimer();
-          }
         },
         error: () => {
           this.error = 'Failed to start quiz';
@@ -127,6 +151,44 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
       });
   }
 
+  /**
+   * Pick up an attempt left open by a reload: its questions and autosaved answers come from the server
+   */
+  private resumeAttempt() {
+    const stored = this.readStoredAttempt();
+    if (!stored) return;
+
+    this.loading = true;
+    forkJoin({
+      questions: this.http.get<Question[]>(`/api/quizzes/attempts/${stored.attemptId}/questions`),
+      answers: this.http.get<UserAnswer[]>(`/api/quizzes/attempts/${stored.attemptId}/answers`)
+    }).subscribe({
+      next: ({ questions, answers }) => {
+        this.quiz!.questions = questions;
+        this.userAnswers = new Map(answers.map(answer => [answer.questionId, answer]));
+        this.beginAttempt(stored.attemptId, stored.startedAt, stored.timeLimitMinutes);
+        this.loading = false;
+      },
+      error: () => {
+        // Submitted, expired or not ours any more: start over from the quiz overview
+        this.clearStoredAttempt();
+        this.loading = false;
+      }
+    });
+  }
+
+  private beginAttempt(attemptId: number, startedAt: string, timeLimitMinutes?: number) {
+    this.attemptId = attemptId;
+    this.startTime = new Date(startedAt);
+    this.quizStarted = true;
+
+    if (timeLimitMinutes) {
+      const elapsedSeconds = Math.floor((Date.now() - this.startTime.getTime()) / 1000);
+      this.timeRemaining = Math.max(timeLimitMinutes * 60 - elapsedSeconds, 0);
+      this.startTimer();
+    }
+  }
+
   startTimer() {
     this.timerInterval = setInterval(() => {
       if (this.timeRemaining! > 0) {
@@ -156,6 +218,7 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
       questionId,
       selectedOptionId: optionId
     });
+    this.scheduleAutosave(questionId);
   }
 
   setTextAnswer(questionId: number, text: string) {
@@ -163,6 +226,7 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
       questionId,
       textAnswer: text
     });
+    this.scheduleAutosave(questionId);
   }
 
   getSelectedOptionId(questionId: number): number | undefined {
@@ -190,6 +254,51 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
       questionId,
       selectedOptionIds: selectedIds
     });
+    this.scheduleAutosave(questionId);
+  }
+
+  // Autosave
+
+  private scheduleAutosave(questionId: number) {
+    clearTimeout(this.autosaveTimers.get(questionId));
+    this.autosaveTimers.set(questionId, setTimeout(() => {
+      this.autosaveTimers.delete(questionId);
+      this.autosave(questionId);
+    }, AUTOSAVE_DELAY_MS));
+  }
+
+  private autosave(questionId: number) {
+    const answer = this.userAnswers.get(questionId);
+    if (!this.attemptId || !answer) return;
+
+    this.http.put<void>(`/api/quizzes/attempts/${this.attemptId}/answers/${questionId}`, answer)
+      .subscribe({
+        error: (err) => console.error('Error autosaving answer:', err)
+      });
+  }
+
+  private cancelAutosaves() {
+    this.autosaveTimers.forEach(timer => clearTimeout(timer));
+    this.autosaveTimers.clear();
+  }
+
+  // Attempt persistence across reloads
+
+  private attemptStorageKey(): string {
+    return `quiz-attempt-${this.quizId}`;
+  }
+
+  private storeAttempt(attempt: StoredAttempt) {
+    sessionStorage.setItem(this.attemptStorageKey(), JSON.stringify(attempt));
+  }
+
+  private readStoredAttempt(): StoredAttempt | null {
+    const stored = sessionStorage.getItem(this.attemptStorageKey());
+    return stored ? JSON.parse(stored) as StoredAttempt : null;
+  }
+
+  private clearStoredAttempt() {
+    sessionStorage.removeItem(this.attemptStorageKey());
   }
 
   // Check if an option is selected in multiple choice
@@ -245,6 +354,8 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
 
     this.submitting = true;
     this.stopTimer();
+    // The submit carries every answer, so pending autosaves are superseded
+    this.cancelAutosaves();
 
     const answers = Array.from(this.userAnswers.values());
 
@@ -255,6 +366,7 @@ export class QuizTakerComponent implements OnInit, OnDestroy {
       next: (result) => {
         this.submitting = false;
         this.quizCompleted = true;
+        this.clearStoredAttempt();
         this.complete.emit(this.attemptId!);
       },
       error: () => {
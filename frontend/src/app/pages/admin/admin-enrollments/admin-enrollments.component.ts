@@ -1,6 +1,6 @@
 import { Component, inject, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { FormsModule } from '@angular/forms';
 
 interface AdminEnrollment {
@@ -74,6 +74,12 @@ interface AdminEnrollment {
           </tbody>
         </table>
       </div>
+
+      <div *ngIf="!loading && nextCursor" class="load-more">
+        <button class="load-more-btn" (click)="loadMore()" [disabled]="loadingMore">
+          {{ loadingMore ? 'Loading...' : 'Load more' }}
+        </button>
+      </div>
     </div>
   `,
   styles: [`
@@ -101,6 +107,9 @@ interface AdminEnrollment {
     .progress-text { font-size: 13px; font-weight: 600; color: #5A8DEE; }
     .action-btn { padding: 6px 14px; background: white; color: #5A8DEE; border: 1px solid #5A8DEE; border-radius: 6px; font-size: 13px; font-weight: 500; cursor: pointer; }
     .action-btn:hover { background: #5A8DEE; color: white; }
+    .load-more { display: flex; justify-content: center; padding: 24px 0; }
+    .load-more-btn { padding: 10px 24px; background: white; color: #5A8DEE; border: 1px solid #5A8DEE; border-radius: 10px; font-size: 14px; font-weight: 500; cursor: pointer; }
+    .load-more-btn:disabled { opacity: 0.6; cursor: default; }
   `]
 })
 export class AdminEnrollmentsComponent implements OnInit {
@@ -108,6 +117,9 @@ export class AdminEnrollmentsComponent implements OnInit {
 
   enrollments: AdminEnrollment[] = [];
   loading = true;
+  loadingMore = false;
+  // Opaque keyset cursor of the next page (X-Next-Cursor); null on the last page
+  nextCursor: string | null = null;
   searchTerm = '';
 
   ngOnInit(): void {
@@ -115,17 +127,33 @@ export class AdminEnrollmentsComponent implements OnInit {
   }
 
   loadEnrollments(): void {
-    let url = '/api/admin/enrollments';
-    if (this.searchTerm) url += `?q=${this.searchTerm}`;
+    this.loading = true;
+    this.fetchPage(null);
+  }
+
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) return;
+    this.loadingMore = true;
+    this.fetchPage(this.nextCursor);
+  }
+
+  private fetchPage(cursor: string | null): void {
+    let params = new HttpParams();
+    if (this.searchTerm) params = params.set('q', this.searchTerm);
+    if (cursor) params = params.set('cursor', cursor);
 
-    this.http.get<AdminEnrollment[]>(url).subscribe({
-      next: (data) => {
-        this.enrollments = data;
+    this.http.get<AdminEnrollment[]>('/api/admin/enrollments', { params, observe: 'response' }).subscribe({
+      next: (response) => {
+        const page = response.body ?? [];
+        this.enrollments = cursor ? [...this.enrollments, ...page] : page;
+        this.nextCursor = response.headers.get('X-Next-Cursor');
         this.loading = false;
+        this.loadingMore = false;
       },
       error: (err) => {
         console.error('Error loading enrollments:', err);
         this.loading = false;
+        this.loadingMore = false;
       }
     });
   }
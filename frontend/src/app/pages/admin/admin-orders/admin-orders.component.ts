@@ -1,6 +1,6 @@
 import { Component, inject, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { FormsModule } from '@angular/forms';
 
 interface AdminOrder {
@@ -89,6 +89,12 @@ interface AdminOrder {
           </tbody>
         </table>
       </div>
+
+      <div *ngIf="!loading && nextCursor" class="load-more">
+        <button class="load-more-btn" (click)="loadMore()" [disabled]="loadingMore">
+          {{ loadingMore ? 'Loading...' : 'Load more' }}
+        </button>
+      </div>
     </div>
   `,
   styles: [`
@@ -124,6 +130,9 @@ interface AdminOrder {
     .action-btn:hover { background: #EF4444; color: white; }
     .action-btn.view { color: #5A8DEE; border-color: #5A8DEE; }
     .action-btn.view:hover { background: #5A8DEE; color: white; }
+    .load-more { display: flex; justify-content: center; padding: 24px 0; }
+    .load-more-btn { padding: 10px 24px; background: white; color: #5A8DEE; border: 1px solid #5A8DEE; border-radius: 10px; font-size: 14px; font-weight: 500; cursor: pointer; }
+    .load-more-btn:disabled { opacity: 0.6; cursor: default; }
   `]
 })
 export class AdminOrdersComponent implements OnInit {
@@ -131,6 +140,9 @@ export class AdminOrdersComponent implements OnInit {
 
   orders: AdminOrder[] = [];
   loading = true;
+  loadingMore = false;
+  // Opaque keyset cursor of the next page (X-Next-Cursor); null on the last page
+  nextCursor: string | null = null;
   searchTerm = '';
   selectedStatus = '';
 
@@ -139,18 +151,34 @@ export class AdminOrdersComponent implements OnInit {
   }
 
   loadOrders(): void {
-    let url = '/api/admin/orders?';
-    if (this.searchTerm) url += `q=${this.searchTerm}&`;
-    if (this.selectedStatus) url += `status=${this.selectedStatus}&`;
+    this.loading = true;
+    this.fetchPage(null);
+  }
+
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) return;
+    this.loadingMore = true;
+    this.fetchPage(this.nextCursor);
+  }
+
+  private fetchPage(cursor: string | null): void {
+    let params = new HttpParams();
+    if (this.searchTerm) params = params.set('q', this.searchTerm);
+    if (this.selectedStatus) params = params.set('status', this.selectedStatus);
+    if (cursor) params = params.set('cursor', cursor);
 
-    this.http.get<AdminOrder[]>(url).subscribe({
-      next: (data) => {
-        this.orders = data;
+    this.http.get<AdminOrder[]>('/api/admin/orders', { params, observe: 'response' }).subscribe({
+      next: (response) => {
+        const page = response.body ?? [];
+        this.orders = cursor ? [...this.orders, ...page] : page;
+        this.nextCursor = response.headers.get('X-Next-Cursor');
         this.loading = false;
+        this.loadingMore = false;
       },
       error: (err) => {
         console.error('Error loading orders:', err);
         this.loading = false;
+        this.loadingMore = false;
       }
     });
   }